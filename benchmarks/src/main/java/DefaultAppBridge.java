@@ -0,0 +1,143 @@
+import benchmarks.AppBridge;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Implements AppBridge by calling the application classes directly.
+ */
+public class DefaultAppBridge implements AppBridge {
+
+    @Override
+    public TrieHandle newTrie() {
+        Trie trie = new Trie();
+        return new TrieHandle() {
+            @Override
+            public void addWord(String word, String meaning) {
+                trie.addWord(word, meaning);
+            }
+
+            @Override
+            public boolean deleteWord(String word) {
+                return trie.deleteWord(word);
+            }
+
+            @Override
+            public Object lookupWord(String word) {
+                return trie.lookupWord(word);
+            }
+
+            @Override
+            public List<?> getProposedString(String prefix) {
+                return trie.getProposedString(prefix);
+            }
+
+            @Override
+            public List<?> lookupAll(List<String> words) {
+                return trie.lookupAll(words);
+            }
+
+            @Override
+            public boolean[] addAll(List<String> words, List<String> meanings) {
+                List<Word> entries = new ArrayList<>(words.size());
+                for (int i = 0; i < words.size(); i++) {
+                    entries.add(new Word(words.get(i), meanings.get(i)));
+                }
+                return trie.addAll(entries);
+            }
+
+            @Override
+            public boolean[] deleteAll(List<String> words) {
+                return trie.deleteAll(words);
+            }
+
+            @Override
+            public TrieHandle freeze() {
+                return frozenHandle(trie.freeze());
+            }
+        };
+    }
+
+    private static TrieHandle frozenHandle(FrozenDictionary frozen) {
+        return new TrieHandle() {
+            @Override
+            public void addWord(String word, String meaning) {
+                throw new UnsupportedOperationException("The dictionary is frozen");
+            }
+
+            @Override
+            public boolean deleteWord(String word) {
+                throw new UnsupportedOperationException("The dictionary is frozen");
+            }
+
+            @Override
+            public Object lookupWord(String word) {
+                return frozen.lookupWord(word);
+            }
+
+            @Override
+            public List<?> getProposedString(String prefix) {
+                return frozen.getProposedString(prefix);
+            }
+
+            @Override
+            public List<?> lookupAll(List<String> words) {
+                List<Word> found = new ArrayList<>(words.size());
+                for (String word : words) {
+                    found.add(frozen.lookupWord(word));
+                }
+                return found;
+            }
+
+            @Override
+            public boolean[] addAll(List<String> words, List<String> meanings) {
+                throw new UnsupportedOperationException("The dictionary is frozen");
+            }
+
+            @Override
+            public boolean[] deleteAll(List<String> words) {
+                throw new UnsupportedOperationException("The dictionary is frozen");
+            }
+
+            @Override
+            public TrieHandle freeze() {
+                return this;
+            }
+        };
+    }
+
+    @Override
+    public void clearDictionary() {
+        Dictionary.getInstance().clear();
+    }
+
+    @Override
+    public void importDictionary(Path path) throws IOException {
+        try (Scanner scanner = new Scanner(path, StandardCharsets.UTF_8)) {
+            Dictionary.getInstance().importWords(scanner);
+        }
+    }
+
+    @Override
+    public void exportDictionary() {
+        Dictionary.getInstance().exportWords();
+    }
+
+    @Override
+    public int dictionarySize() {
+        return Dictionary.getInstance().size();
+    }
+
+    @Override
+    public WordleHandle newWordleGame() {
+        WordleGame game = new WordleGame();
+        return (target, guess) -> {
+            game.setTargetWord(target);
+            return game.checkGuess(guess);
+        };
+    }
+}
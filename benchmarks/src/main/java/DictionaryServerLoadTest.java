@@ -0,0 +1,127 @@
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for DictionaryServer. Each client thread sends requests back to back over kept-alive
+ * connections: 80% lookups, 15% prefix pages and 5% fuzzy searches for random dictionary words.
+ * Reports requests per second and p50/p99 latency per endpoint. Without a URL it starts a server in
+ * this process on a free port. Like the application, it needs dictionaries.txt on the class path.
+ * Usage: java -cp target/benchmarks.jar:[directory of dictionaries.txt] DictionaryServerLoadTest
+ *        [seconds] [client threads] [server URL]
+ */
+public class DictionaryServerLoadTest {
+
+    private static final int SAMPLE_WORDS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+
+        DictionaryManagement.getInstance().importFromFile();
+        DictionaryServer localServer = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            // As DictionaryServer.main does, so the numbers match a server started from the command line
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            localServer = new DictionaryServer(0, Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 256);
+            localServer.start();
+            baseUrl = "http://localhost:" + localServer.getPort();
+        }
+
+        Dictionary dictionary = Dictionary.getInstance();
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < SAMPLE_WORDS && dictionary.size() > 0; i++) {
+            words.add(dictionary.select(random.nextInt(dictionary.size())).getWordTarget());
+        }
+        if (words.isEmpty()) {
+            System.out.println("The dictionary is empty.");
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        LatencyHistogram lookups = new LatencyHistogram();
+        LatencyHistogram prefixes = new LatencyHistogram();
+        LatencyHistogram fuzzy = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        LongAdder rejected = new LongAdder();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            pool.execute(() -> {
+                ThreadLocalRandom threadRandom = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String word = words.get(threadRandom.nextInt(words.size()));
+                    int kind = threadRandom.nextInt(100);
+                    String path;
+                    LatencyHistogram histogram;
+                    if (kind < 80) {
+                        path = "/lookup?word=" + encode(word);
+                        histogram = lookups;
+                    } else if (kind < 95) {
+                        path = "/prefix?limit=20&q=" + encode(word.substring(0, Math.min(2, word.length())));
+                        histogram = prefixes;
+                    } else {
+                        path = "/fuzzy?distance=1&limit=10&q=" + encode(word);
+                        histogram = fuzzy;
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Accept-Encoding", "gzip").build();
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long nanos = System.nanoTime() - requestStart;
+                        if (response.statusCode() == 503) {
+                            rejected.increment();
+                        } else if (response.statusCode() != 200) {
+                            errors.increment();
+                        } else {
+                            histogram.record(nanos);
+                            all.record(nanos);
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d clients for %.1f s against %s%n", clients, elapsedSeconds, baseUrl);
+        System.out.printf("Requests: %d ok, %d rejected (503), %d errors, %.0f requests/s%n",
+                all.getCount(), rejected.sum(), errors.sum(), all.getCount() / elapsedSeconds);
+        System.out.printf("%-8s %s%n", "all", all);
+        System.out.printf("%-8s %s%n", "lookup", lookups);
+        System.out.printf("%-8s %s%n", "prefix", prefixes);
+        System.out.printf("%-8s %s%n", "fuzzy", fuzzy);
+
+        if (localServer != null) {
+            localServer.stop();
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
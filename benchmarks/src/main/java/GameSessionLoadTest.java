@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives many concurrent Wordle and Quiz sessions through GameSessionEngine from several threads
+ * and reports throughput and memory per session.
+ * Usage: java -cp target/benchmarks.jar GameSessionLoadTest [sessions] [threads]
+ */
+public class GameSessionLoadTest {
+
+    private static final int WORD_LENGTH = 5;
+    private static final int BANK_SIZE = 5000;
+
+    public static void main(String[] args) throws Exception {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors() * 2;
+
+        WordleWordBank bank = new WordleWordBank(WORD_LENGTH, syntheticWords(BANK_SIZE, WORD_LENGTH));
+        GameSessionEngine engine = new GameSessionEngine(length -> bank, syntheticQuestions(1000), 60_000);
+
+        // Open every session first so they are all live at once
+        long memoryBefore = usedMemory();
+        long[] ids = new long[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            ids[i] = (i % 2 == 0) ? engine.startWordle(WORD_LENGTH) : engine.startQuiz();
+        }
+        long memoryAfter = usedMemory();
+        System.out.printf("Live sessions: %d, about %d bytes each%n", engine.getSessionCount(),
+                (memoryAfter - memoryBefore) / sessionCount);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            results.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                for (int i = first; i < sessionCount; i += threads) {
+                    if (i % 2 == 0) {
+                        while (!engine.isWordleOver(ids[i])) {
+                            engine.guess(ids[i], bank.word(random.nextInt(bank.size())));
+                            operations++;
+                        }
+                    } else {
+                        while (engine.getQuestion(ids[i]) != null) {
+                            engine.answer(ids[i], (char) ('A' + random.nextInt(4)));
+                            operations++;
+                        }
+                    }
+                    engine.end(ids[i]);
+                }
+                return operations;
+            }));
+        }
+        long operations = 0;
+        for (Future<Long> result : results) {
+            operations += result.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        engine.shutdown();
+
+        System.out.printf("%d operations on %d threads in %d ms (%.0f ops/s), %d sessions left%n",
+                operations, threads, elapsed / 1_000_000, operations * 1e9 / elapsed, engine.getSessionCount());
+    }
+
+    private static String[] syntheticWords(int count, int length) {
+        Random random = new Random(42);
+        TreeSet<String> words = new TreeSet<>();
+        while (words.size() < count) {
+            char[] letters = new char[length];
+            for (int i = 0; i < length; i++) {
+                letters[i] = (char) ('a' + random.nextInt(26));
+            }
+            words.add(new String(letters));
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static List<QuizzGame.Question> syntheticQuestions(int count) {
+        List<QuizzGame.Question> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            questions.add(new QuizzGame.Question("Question " + i, new String[]{"a", "b", "c", "d"},
+                    (char) ('A' + i % 4)));
+        }
+        return questions;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
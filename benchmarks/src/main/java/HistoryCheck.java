@@ -0,0 +1,154 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Checks that the persistent version history mirrors the live trie. Random adds, edits, removes and
+ * batch adds and removes are made through DictionaryManagement, with random undos and redos in
+ * between, and the same changes are made to a private copy with its own undo and redo stacks. After
+ * every step the live trie's words, the current snapshot's words and the copy must all be the same.
+ * The words are random, but DictionaryManagement still needs a dictionaries.txt on the class path,
+ * as the application does.
+ * Usage: java -cp target/benchmarks.jar:[directory of dictionaries.txt] HistoryCheck [steps] [seed]
+ */
+public class HistoryCheck {
+
+    // Matches the undo depth of DictionaryManagement, so the copy forgets the same steps
+    private static final int UNDO_STEPS = 100;
+    private static final int BATCH_SIZE = 50;
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 3_000;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 7);
+
+        DictionaryManagement manager = DictionaryManagement.getInstance();
+        TreeMap<String, String> copy = new TreeMap<>(PersistentTrie::compare);
+        manager.forEachWord(copy::put);
+        Deque<TreeMap<String, String>> undo = new ArrayDeque<>();
+        Deque<TreeMap<String, String>> redo = new ArrayDeque<>();
+        int undone = 0;
+        int redone = 0;
+
+        for (int i = 0; i < steps; i++) {
+            TreeMap<String, String> before = new TreeMap<>(copy);
+            String word = !copy.isEmpty() && random.nextBoolean() ? anyWord(copy, random) : randomWord(random);
+            int change = random.nextInt(7);
+            switch (change) {
+                case 0:
+                    manager.addWord(word, "added " + i);
+                    copy.merge(word, "added " + i, (meaning, added) -> meaning + "\n" + added);
+                    break;
+                case 1:
+                    // As in the trie, editing a prefix of a longer word adds it
+                    String following = copy.ceilingKey(word);
+                    boolean editable = following != null && following.startsWith(word);
+                    boolean edited = manager.editWord(word, "edited " + i);
+                    check(edited == editable, "edit of " + word + " returned " + edited);
+                    if (edited) {
+                        copy.put(word, "edited " + i);
+                    }
+                    break;
+                case 2:
+                    boolean removed = manager.removeWord(word);
+                    check(removed == (copy.remove(word) != null), "remove of " + word + " returned " + removed);
+                    break;
+                case 3:
+                    List<Word> batch = new ArrayList<>();
+                    for (int j = 0; j < BATCH_SIZE; j++) {
+                        String added = random.nextBoolean() && !copy.isEmpty() ? anyWord(copy, random) : randomWord(random);
+                        batch.add(new Word(added, "batch " + i + "." + j));
+                    }
+                    boolean[] addedNew = manager.addAll(batch);
+                    for (int j = 0; j < batch.size(); j++) {
+                        Word added = batch.get(j);
+                        boolean isNew = !copy.containsKey(added.getWordTarget());
+                        check(addedNew[j] == isNew, "batch add of " + added.getWordTarget() + " returned " + addedNew[j]);
+                        copy.merge(added.getWordTarget(), added.getWordExplain(), (meaning, more) -> meaning + "\n" + more);
+                    }
+                    break;
+                case 4:
+                    List<String> doomed = new ArrayList<>();
+                    for (int j = 0; j < BATCH_SIZE; j++) {
+                        doomed.add(random.nextInt(4) > 0 && !copy.isEmpty() ? anyWord(copy, random) : randomWord(random));
+                    }
+                    boolean[] removedAll = manager.removeAll(doomed);
+                    for (int j = 0; j < doomed.size(); j++) {
+                        boolean present = copy.remove(doomed.get(j)) != null;
+                        check(removedAll[j] == present, "batch remove of " + doomed.get(j) + " returned " + removedAll[j]);
+                    }
+                    break;
+                case 5:
+                    String undoneLabel = manager.undo();
+                    check((undoneLabel != null) == !undo.isEmpty(), "undo returned " + undoneLabel);
+                    if (undoneLabel != null) {
+                        redo.push(before);
+                        copy = undo.pop();
+                        undone++;
+                    }
+                    break;
+                default:
+                    String redoneLabel = manager.redo();
+                    check((redoneLabel != null) == !redo.isEmpty(), "redo returned " + redoneLabel);
+                    if (redoneLabel != null) {
+                        undo.push(before);
+                        copy = redo.pop();
+                        redone++;
+                    }
+            }
+            if (change < 5 && !copy.equals(before)) {
+                // An edit that changed the words can be undone, and nothing can be redone after it
+                undo.push(before);
+                if (undo.size() > UNDO_STEPS) {
+                    undo.removeLast();
+                }
+                redo.clear();
+            }
+            verify(copy, "step " + i);
+        }
+        System.out.printf("%d steps with %d undos and %d redos, %d words: the trie, snapshot and copy match%n",
+                steps, undone, redone, copy.size());
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static void verify(TreeMap<String, String> copy, String step) {
+        List<String> live = new ArrayList<>();
+        for (Word word : Dictionary.getInstance().queryAllWords()) {
+            live.add(word.getWordTarget());
+            check(word.getWordExplain().equals(copy.get(word.getWordTarget())),
+                    step + ": trie meaning of " + word.getWordTarget());
+        }
+        List<String> versioned = new ArrayList<>();
+        DictionaryManagement.getInstance().snapshot().forEach((word, meaning) -> {
+            versioned.add(word);
+            check(meaning.equals(copy.get(word)), step + ": snapshot meaning of " + word);
+        });
+        List<String> expected = new ArrayList<>(copy.keySet());
+        check(live.equals(expected), step + ": trie has " + live.size() + " words, expected " + expected.size());
+        check(versioned.equals(expected),
+                step + ": snapshot has " + versioned.size() + " words, expected " + expected.size());
+    }
+
+    private static String anyWord(TreeMap<String, String> copy, Random random) {
+        String word = copy.ceilingKey(randomWord(random));
+        return word != null ? word : copy.firstKey();
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return word.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
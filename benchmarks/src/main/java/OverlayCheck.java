@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Checks OverlayDictionary against a full private copy of the dictionary. Random users add, edit and
+ * remove words through their overlays and the same changes are made to a private copy; then every
+ * read of each overlay (lookups, prefix pages, fuzzy searches and the export) must match the copy,
+ * and the shared dictionary must be unchanged. Runs once over the mutable dictionary and once more
+ * after freezing it. The words are random, but DictionaryManagement still needs a dictionaries.txt
+ * on the class path, as the application does.
+ * Usage: java -cp target/benchmarks.jar:[directory of dictionaries.txt] OverlayCheck [words] [seed]
+ */
+public class OverlayCheck {
+
+    private static final int USERS = 5;
+    private static final int CHANGES_PER_USER = 300;
+    private static final Comparator<String> TRIE_ORDER = PersistentTrie::compare;
+
+    public static void main(String[] args) {
+        int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 7);
+
+        DictionaryManagement manager = DictionaryManagement.getInstance();
+        for (int i = 0; i < wordCount; i++) {
+            manager.addWord(randomWord(random), "meaning " + i);
+        }
+        TreeMap<String, String> baseCopy = new TreeMap<>(TRIE_ORDER);
+        manager.forEachWord(baseCopy::put);
+
+        checkUsers(manager, baseCopy, random, "mutable");
+        manager.freeze();
+        checkUsers(manager, baseCopy, random, "frozen");
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static void checkUsers(DictionaryManagement manager, TreeMap<String, String> baseCopy, Random random,
+                                   String name) {
+        List<String> baseWords = new ArrayList<>(baseCopy.keySet());
+        for (int user = 0; user < USERS; user++) {
+            OverlayDictionary overlay = manager.getOverlay(name + user);
+            TreeMap<String, String> copy = new TreeMap<>(baseCopy);
+            List<String> probes = new ArrayList<>();
+            for (int i = 0; i < CHANGES_PER_USER; i++) {
+                String word = random.nextInt(4) == 0 ? randomWord(random) : baseWords.get(random.nextInt(baseWords.size()));
+                probes.add(word);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        overlay.addWord(word, "added " + i);
+                        copy.merge(word, "added " + i, (meaning, added) -> meaning + "\n" + added);
+                        break;
+                    case 1:
+                        boolean edited = overlay.editWord(word, "edited " + i);
+                        check(edited == copy.containsKey(word), "edit of " + word + " returned " + edited);
+                        if (edited) {
+                            copy.put(word, "edited " + i);
+                        }
+                        break;
+                    default:
+                        boolean removed = overlay.removeWord(word);
+                        check(removed == (copy.remove(word) != null), "remove of " + word + " returned " + removed);
+                }
+            }
+            verify(overlay, copy, probes, random);
+
+            TreeMap<String, String> shared = new TreeMap<>(TRIE_ORDER);
+            manager.forEachWord(shared::put);
+            check(shared.equals(baseCopy), "the shared dictionary changed");
+            System.out.printf("%s%d: %d changes match the private copy%n", name, user, overlay.getChangeCount());
+        }
+    }
+
+    private static void verify(OverlayDictionary overlay, TreeMap<String, String> copy, List<String> probes,
+                               Random random) {
+        List<String> exported = new ArrayList<>();
+        overlay.forEachWord((word, meaning) -> {
+            exported.add(word);
+            check(meaning.equals(copy.get(word)), "export meaning of " + word);
+        });
+        List<String> words = new ArrayList<>(copy.keySet());
+        check(exported.equals(words), "export has " + exported.size() + " words, expected " + words.size());
+
+        for (String probe : probes) {
+            Word found = overlay.lookupWord(probe);
+            String meaning = copy.get(probe);
+            if (meaning != null) {
+                check(found != null && found.getWordTarget().equals(probe) && found.getWordExplain().equals(meaning),
+                        "lookup of " + probe);
+            } else {
+                check(found == null || !found.getWordTarget().equals(probe), "lookup of removed " + probe);
+            }
+        }
+
+        for (int i = 0; i < 30; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            String prefix = word.substring(0, Math.min(word.length(), random.nextInt(3)));
+            int limit = 1 + random.nextInt(40);
+            List<String> expected = new ArrayList<>();
+            for (String candidate : copy.tailMap(prefix).keySet()) {
+                if (!candidate.startsWith(prefix)) {
+                    break;
+                }
+                expected.add(candidate);
+            }
+            List<String> paged = new ArrayList<>();
+            String after = null;
+            while (true) {
+                List<Word> page = overlay.searchWords(prefix, after, limit);
+                for (Word pageWord : page) {
+                    paged.add(pageWord.getWordTarget());
+                    check(pageWord.getWordExplain().equals(copy.get(pageWord.getWordTarget())), "page meaning");
+                }
+                if (page.size() < limit) {
+                    break;
+                }
+                after = page.get(page.size() - 1).getWordTarget();
+            }
+            check(paged.equals(expected), "pages of \"" + prefix + "\" with limit " + limit);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            String target = i % 2 == 0 ? probes.get(random.nextInt(probes.size())) : randomWord(random);
+            int maxDistance = 1 + random.nextInt(2);
+            int limit = 1 + random.nextInt(20);
+            List<String> expected = new ArrayList<>();
+            for (Map.Entry<String, String> entry : copy.entrySet()) {
+                if (PhoneticIndex.editDistance(target, entry.getKey()) <= maxDistance) {
+                    expected.add(entry.getKey());
+                }
+            }
+            expected.sort(Comparator.<String>comparingInt(similar -> PhoneticIndex.editDistance(target, similar))
+                    .thenComparing(TRIE_ORDER));
+            List<String> found = new ArrayList<>();
+            for (Word similar : overlay.fuzzySearch(target, maxDistance, limit)) {
+                found.add(similar.getWordTarget());
+                check(similar.getWordExplain().equals(copy.get(similar.getWordTarget())), "fuzzy meaning");
+            }
+            check(found.equals(expected.subList(0, Math.min(limit, expected.size()))),
+                    "fuzzy search for " + target + " within " + maxDistance);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Checks wildcard pattern search against a regular expression scan. Random patterns with ?, *, [abc]
+ * and [^abc] are run through searchPattern, with and without length ranges and limits, and the words
+ * must be the first ones in trie order that the equivalent regular expression matches. Patterns that
+ * start with * and have a plain run are answered from the suffix index, the others by the trie walk.
+ * Runs once over the mutable dictionary and once more after freezing it. The words are random, but
+ * DictionaryManagement still needs a dictionaries.txt on the class path, as the application does.
+ * Usage: java -cp target/benchmarks.jar:[directory of dictionaries.txt] PatternCheck [words] [seed]
+ */
+public class PatternCheck {
+
+    private static final String LETTERS = "abcd-'";
+    private static final String SET_LETTERS = "abcd";
+    private static final int PATTERNS = 500;
+    private static final Comparator<String> TRIE_ORDER = PersistentTrie::compare;
+
+    public static void main(String[] args) {
+        int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 7);
+
+        DictionaryManagement manager = DictionaryManagement.getInstance();
+        for (int i = 0; i < wordCount; i++) {
+            manager.addWord(randomWord(random), "meaning " + i);
+        }
+        checkPatterns(manager, random, "mutable");
+        manager.freeze();
+        checkPatterns(manager, random, "frozen");
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static void checkPatterns(DictionaryManagement manager, Random random, String name) {
+        TreeMap<String, String> copy = new TreeMap<>(TRIE_ORDER);
+        manager.forEachWord(copy::put);
+        int matched = 0;
+        for (int i = 0; i < PATTERNS; i++) {
+            StringBuilder regex = new StringBuilder();
+            String pattern = randomPattern(random, regex);
+            Pattern compiled = Pattern.compile(regex.toString());
+            int minLength = 0;
+            int maxLength = Integer.MAX_VALUE;
+            if (random.nextInt(3) == 0) {
+                minLength = random.nextInt(6);
+                maxLength = minLength + random.nextInt(6);
+            }
+            int limit = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(30);
+
+            List<String> expected = new ArrayList<>();
+            for (String word : copy.keySet()) {
+                if (expected.size() < limit && word.length() >= minLength && word.length() <= maxLength
+                        && compiled.matcher(word).matches()) {
+                    expected.add(word);
+                }
+            }
+            List<String> found = new ArrayList<>();
+            for (Word word : manager.searchPattern(pattern, minLength, maxLength, limit)) {
+                found.add(word.getWordTarget());
+            }
+            check(found.equals(expected), name + " pattern " + pattern + " (regex " + regex + ") with lengths "
+                    + minLength + "-" + maxLength + " and limit " + limit + ": found " + found.size()
+                    + " words, expected " + expected.size());
+            matched += found.size();
+        }
+        System.out.printf("%s: %d patterns over %d words match the regex scan, %d words found%n",
+                name, PATTERNS, copy.size(), matched);
+    }
+
+    /**
+     * Builds a random pattern and appends the equivalent regular expression.
+     */
+    private static String randomPattern(Random random, StringBuilder regex) {
+        StringBuilder pattern = new StringBuilder();
+        // Half of the patterns start with a star and a plain run of one to three characters; runs of
+        // two or more are searched with the suffix index
+        if (random.nextBoolean()) {
+            StringBuilder run = new StringBuilder();
+            for (int i = 1 + random.nextInt(3); i > 0; i--) {
+                run.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+            }
+            pattern.append('*').append(run);
+            regex.append(".*").append(Pattern.quote(run.toString()));
+        }
+        for (int tokens = random.nextInt(5); tokens > 0; tokens--) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    pattern.append('?');
+                    regex.append('.');
+                    break;
+                case 1:
+                    pattern.append('*');
+                    regex.append(".*");
+                    break;
+                case 2:
+                    String set = randomSet(random);
+                    boolean negated = random.nextBoolean();
+                    pattern.append(negated ? "[^" : "[").append(set).append(']');
+                    regex.append(negated ? "[^" : "[").append(set).append(']');
+                    break;
+                default:
+                    char c = LETTERS.charAt(random.nextInt(LETTERS.length()));
+                    pattern.append(c);
+                    regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return pattern.toString();
+    }
+
+    private static String randomSet(Random random) {
+        if (random.nextInt(4) == 0) {
+            return "a-c";
+        }
+        StringBuilder set = new StringBuilder();
+        for (int i = 1 + random.nextInt(2); i > 0; i--) {
+            set.append(SET_LETTERS.charAt(random.nextInt(SET_LETTERS.length())));
+        }
+        return set.toString();
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
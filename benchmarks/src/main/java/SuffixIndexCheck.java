@@ -0,0 +1,151 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Checks the suffix index against linear contains and endsWith scans. First a SuffixIndex is built
+ * over random words and probed directly; then the dictionary's searchContaining and searchEndingWith
+ * are compared with a scan of its words, after changes that rebuild the index and once more after
+ * freezing. The probes include the empty string, every single character, strings that are in no
+ * word, and strings that some words contain twice. The words are random, but DictionaryManagement
+ * still needs a dictionaries.txt on the class path, as the application does.
+ * Usage: java -cp target/benchmarks.jar:[directory of dictionaries.txt] SuffixIndexCheck [words] [seed]
+ */
+public class SuffixIndexCheck {
+
+    // Few letters, so most probes match many words and repeated infixes are common
+    private static final String LETTERS = "abc-'";
+    private static final int PROBES = 300;
+    private static final Comparator<String> TRIE_ORDER = PersistentTrie::compare;
+
+    public static void main(String[] args) {
+        int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        Random random = new Random(args.length > 1 ? Long.parseLong(args[1]) : 7);
+
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < wordCount; i++) {
+            words.add(randomWord(random));
+        }
+        SuffixIndex index = new SuffixIndex(words, 0);
+        for (String probe : probes(words, random)) {
+            int limit = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(50);
+            check(toList(index.findContaining(probe, limit)).equals(scan(words, probe, false, limit)),
+                    "index words containing \"" + probe + "\" with limit " + limit);
+            check(toList(index.findEndingWith(probe, limit)).equals(scan(words, probe, true, limit)),
+                    "index words ending with \"" + probe + "\" with limit " + limit);
+        }
+        System.out.printf("index of %d words matches the scans%n", words.size());
+
+        DictionaryManagement manager = DictionaryManagement.getInstance();
+        for (String word : words) {
+            manager.addWord(word, "meaning of " + word);
+        }
+        checkDictionary(manager, random, "mutable");
+        List<String> removed = new ArrayList<>();
+        for (int i = 0; i < wordCount / 10; i++) {
+            removed.add(words.get(random.nextInt(words.size())));
+        }
+        manager.removeAll(removed);
+        for (int i = 0; i < wordCount / 10; i++) {
+            manager.addWord(randomWord(random), "added " + i);
+        }
+        checkDictionary(manager, random, "edited");
+        manager.freeze();
+        checkDictionary(manager, random, "frozen");
+        System.out.println("OK");
+        System.exit(0);
+    }
+
+    private static void checkDictionary(DictionaryManagement manager, Random random, String name) {
+        TreeMap<String, String> copy = new TreeMap<>(TRIE_ORDER);
+        manager.forEachWord(copy::put);
+        List<String> words = new ArrayList<>(copy.keySet());
+        for (String probe : probes(words, random)) {
+            int limit = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(50);
+            check(targets(manager.searchContaining(probe, limit)).equals(wordsAt(words, scan(words, probe, false, limit))),
+                    name + " words containing \"" + probe + "\" with limit " + limit);
+            check(targets(manager.searchEndingWith(probe, limit)).equals(wordsAt(words, scan(words, probe, true, limit))),
+                    name + " words ending with \"" + probe + "\" with limit " + limit);
+        }
+        System.out.printf("%s dictionary of %d words matches the scans%n", name, words.size());
+    }
+
+    private static List<String> probes(List<String> words, Random random) {
+        List<String> probes = new ArrayList<>();
+        probes.add("");
+        for (char c : LETTERS.toCharArray()) {
+            probes.add(String.valueOf(c));
+        }
+        probes.add("z");
+        probes.add("abcabcabcabc");
+        for (int i = 0; i < PROBES; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            int start = random.nextInt(word.length());
+            String infix = word.substring(start, start + 1 + random.nextInt(Math.min(4, word.length() - start)));
+            switch (i % 3) {
+                case 0:
+                    probes.add(infix);
+                    break;
+                case 1:
+                    // The end of a word, which a doubled word such as "abab" contains twice
+                    probes.add(word.substring(word.length() - Math.min(2, word.length())));
+                    break;
+                default:
+                    probes.add(infix + randomWord(random));
+            }
+        }
+        return probes;
+    }
+
+    private static List<Integer> scan(List<String> words, String probe, boolean ending, int limit) {
+        List<Integer> found = new ArrayList<>();
+        for (int i = 0; i < words.size() && found.size() < limit; i++) {
+            if (ending ? words.get(i).endsWith(probe) : words.get(i).contains(probe)) {
+                found.add(i);
+            }
+        }
+        return found;
+    }
+
+    private static List<Integer> toList(int[] ordinals) {
+        List<Integer> list = new ArrayList<>();
+        for (int ordinal : ordinals) {
+            list.add(ordinal);
+        }
+        return list;
+    }
+
+    private static List<String> wordsAt(List<String> words, List<Integer> ordinals) {
+        List<String> found = new ArrayList<>();
+        for (int ordinal : ordinals) {
+            found.add(words.get(ordinal));
+        }
+        return found;
+    }
+
+    private static List<String> targets(List<Word> words) {
+        List<String> targets = new ArrayList<>();
+        for (Word word : words) {
+            targets.add(word.getWordTarget());
+        }
+        return targets;
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        // Some words repeat themselves, such as "abab", so they contain their own infixes twice
+        return random.nextInt(4) == 0 ? word.toString() + word : word.toString();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
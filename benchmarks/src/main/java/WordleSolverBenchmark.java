@@ -0,0 +1,63 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+/**
+ * Solves every word of one length in the dictionary with WordleSolver and reports
+ * the average number of guesses and the wall time.
+ * Without a dictionary file it imports the application's, which must then be on the class path.
+ * Usage: java -cp target/benchmarks.jar WordleSolverBenchmark [word length] [dictionary file]
+ */
+public class WordleSolverBenchmark {
+
+    private static final int GIVE_UP_AFTER = 20;
+
+    public static void main(String[] args) throws IOException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        if (args.length > 1) {
+            try (Scanner scanner = new Scanner(new File(args[1]), StandardCharsets.UTF_8)) {
+                Dictionary.getInstance().importWords(scanner);
+            }
+        } else {
+            DictionaryManagement.getInstance().importFromFile();
+        }
+
+        long start = System.nanoTime();
+        WordleWordBank bank = WordleWordBank.forLength(length);
+        long bankNanos = System.nanoTime() - start;
+
+        WordleScorer scorer = new WordleScorer();
+        int solved = WordleScorer.solved(length);
+        long totalGuesses = 0;
+        int maxGuesses = 0;
+        int overSix = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < bank.size(); i++) {
+            String target = bank.word(i);
+            WordleSolver solver = new WordleSolver(bank);
+            int guesses = 0;
+            while (guesses < GIVE_UP_AFTER) {
+                String guess = solver.nextGuess();
+                guesses++;
+                int result = scorer.score(guess, target);
+                if (result == solved) {
+                    break;
+                }
+                solver.applyFeedback(guess, result);
+            }
+            totalGuesses += guesses;
+            maxGuesses = Math.max(maxGuesses, guesses);
+            if (guesses > 6) {
+                overSix++;
+            }
+        }
+        long solveNanos = System.nanoTime() - start;
+
+        System.out.printf("Words of length %d: %d (bank built in %d ms)%n", length, bank.size(), bankNanos / 1_000_000);
+        System.out.printf("Average guesses: %.3f, max: %d, over 6: %d%n",
+                bank.size() == 0 ? 0.0 : (double) totalGuesses / bank.size(), maxGuesses, overSix);
+        System.out.printf("Wall time: %d ms on %d cores%n", solveNanos / 1_000_000,
+                Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,124 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Gives the benchmarks access to the application classes.
+ * The application lives in the unnamed package, which JMH benchmarks cannot use because JMH requires
+ * them to be in a named package. DefaultAppBridge, in the unnamed package of this module, implements
+ * this interface and is found with ServiceLoader. Each handle is a thin wrapper, so calls through it
+ * are monomorphic and inlined by the JIT.
+ */
+public interface AppBridge {
+
+    /**
+     * Loads the bridge implementation.
+     *
+     * @return the bridge
+     */
+    static AppBridge load() {
+        return ServiceLoader.load(AppBridge.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No AppBridge implementation on the class path"));
+    }
+
+    /**
+     * Creates an empty trie.
+     *
+     * @return a handle to the new trie
+     */
+    TrieHandle newTrie();
+
+    /**
+     * Removes every word from the shared Dictionary.
+     */
+    void clearDictionary();
+
+    /**
+     * Imports a dictionary file into the shared Dictionary with Dictionary.importWords.
+     *
+     * @param path the file in the "{word}\t{meaning}" format
+     * @throws IOException if the file cannot be read
+     */
+    void importDictionary(Path path) throws IOException;
+
+    /**
+     * Exports the shared Dictionary with Dictionary.exportWords, which writes to System.out.
+     */
+    void exportDictionary();
+
+    /**
+     * Gets the number of words in the shared Dictionary.
+     *
+     * @return the number of words
+     */
+    int dictionarySize();
+
+    /**
+     * Creates a Wordle game.
+     *
+     * @return a handle to the new game
+     */
+    WordleHandle newWordleGame();
+
+    /**
+     * A Trie instance.
+     */
+    interface TrieHandle {
+        void addWord(String word, String meaning);
+
+        boolean deleteWord(String word);
+
+        Object lookupWord(String word);
+
+        List<?> getProposedString(String prefix);
+
+        /**
+         * Looks up a batch with Trie.lookupAll.
+         *
+         * @param words the words
+         * @return the results, aligned with the words
+         */
+        List<?> lookupAll(List<String> words);
+
+        /**
+         * Adds a batch with Trie.addAll.
+         *
+         * @param words    the words
+         * @param meanings the meaning of each word
+         * @return whether each word was new
+         */
+        boolean[] addAll(List<String> words, List<String> meanings);
+
+        /**
+         * Deletes a batch with Trie.deleteAll.
+         *
+         * @param words the words
+         * @return whether each word was deleted
+         */
+        boolean[] deleteAll(List<String> words);
+
+        /**
+         * Converts the trie with Trie.freeze.
+         *
+         * @return a read-only handle to the frozen dictionary, whose addWord and deleteWord throw
+         */
+        TrieHandle freeze();
+    }
+
+    /**
+     * A WordleGame instance.
+     */
+    interface WordleHandle {
+        /**
+         * Starts a new round with the given target and checks one guess against it.
+         *
+         * @param target the target word
+         * @param guess  the guess
+         * @return the feedback from WordleGame.checkGuess
+         */
+        String checkGuess(String target, String guess);
+    }
+}
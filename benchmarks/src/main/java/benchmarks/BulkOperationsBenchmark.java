@@ -0,0 +1,114 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One call per word against the bulk lookupAll, addAll and deleteAll, for a whole batch per
+ * operation. Batches are either in generation order, which is random with respect to the trie, or
+ * sorted. The churn benchmarks add a batch of absent words and delete it again, leaving the trie as
+ * it was; the bulk one includes building the entries, as a caller would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BulkOperationsBenchmark {
+
+    private static final int ENTRIES = 100000;
+    private static final long SEED = 42;
+
+    @Param({"1000", "100000"})
+    public int batch;
+
+    @Param({"random", "sorted"})
+    public String order;
+
+    private AppBridge.TrieHandle trie;
+    private List<String> hits;
+    private List<String> churnWords;
+    private List<String> churnMeanings;
+
+    @Setup
+    public void setUp() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(ENTRIES, SEED);
+        // Added in alphabetical order, as when importing the dictionary file, which lays the nodes
+        // out in memory in the order a sorted batch visits them
+        Integer[] alphabetical = new Integer[dictionary.size()];
+        Arrays.setAll(alphabetical, i -> i);
+        Arrays.sort(alphabetical, Comparator.comparing(dictionary::word));
+        trie = AppBridge.load().newTrie();
+        for (int i : alphabetical) {
+            trie.addWord(dictionary.word(i), dictionary.meaning(i));
+        }
+
+        hits = new ArrayList<>(batch);
+        int stride = Math.max(dictionary.size() / batch, 1);
+        for (int i = 0; i < batch; i++) {
+            hits.add(dictionary.word((i * stride) % dictionary.size()));
+        }
+        churnWords = new ArrayList<>(Arrays.asList(dictionary.absentWords(batch)));
+        if (order.equals("sorted")) {
+            Collections.sort(hits);
+            Collections.sort(churnWords);
+        }
+        churnMeanings = new ArrayList<>(batch);
+        for (String word : churnWords) {
+            churnMeanings.add("/" + word + "/");
+        }
+    }
+
+    @Benchmark
+    public int lookupEach() {
+        int found = 0;
+        for (String word : hits) {
+            if (trie.lookupWord(word) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<?> lookupAll() {
+        return trie.lookupAll(hits);
+    }
+
+    @Benchmark
+    public int churnEach() {
+        int deleted = 0;
+        for (int i = 0; i < churnWords.size(); i++) {
+            trie.addWord(churnWords.get(i), churnMeanings.get(i));
+        }
+        for (String word : churnWords) {
+            if (trie.deleteWord(word)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Benchmark
+    public boolean[] churnAll() {
+        trie.addAll(churnWords, churnMeanings);
+        return trie.deleteAll(churnWords);
+    }
+}
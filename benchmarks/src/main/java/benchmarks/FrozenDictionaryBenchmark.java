@@ -0,0 +1,96 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pointer trie against the frozen DAWG with packed meanings, on the same synthetic dictionary.
+ * Setup prints the heap retained by each structure, measured after a full GC, since memory is the
+ * main reason to freeze.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FrozenDictionaryBenchmark {
+
+    private static final int INPUTS = 4096; // a power of two, so the next input is index & (INPUTS - 1)
+    private static final long SEED = 42;
+
+    @Param({"100000", "1000000"})
+    public int entries;
+
+    @Param({"trie", "frozen"})
+    public String structure;
+
+    private AppBridge.TrieHandle dictionary;
+    private String[] hits;
+    private String[] misses;
+    private String[] longPrefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticDictionary words = new SyntheticDictionary(entries, SEED);
+        hits = new String[INPUTS];
+        longPrefixes = new String[INPUTS];
+        int stride = Math.max(words.size() / INPUTS, 1);
+        for (int i = 0; i < INPUTS; i++) {
+            String word = words.word((i * stride) % words.size());
+            hits[i] = word;
+            longPrefixes[i] = word.substring(0, Math.max(word.length() - 1, 1));
+        }
+        misses = words.absentWords(INPUTS);
+
+        long before = usedHeap();
+        AppBridge.TrieHandle trie = AppBridge.load().newTrie();
+        for (int i = 0; i < words.size(); i++) {
+            trie.addWord(words.word(i), words.meaning(i));
+        }
+        dictionary = structure.equals("frozen") ? trie.freeze() : trie;
+        trie = null;
+        System.out.printf("%n%s with %d entries retains %.1f MB%n", structure, entries,
+                (usedHeap() - before) / 1048576.0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private int nextIndex() {
+        return next++ & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public Object lookupHit() {
+        return dictionary.lookupWord(hits[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object lookupMiss() {
+        return dictionary.lookupWord(misses[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<?> proposeLongPrefix() {
+        return dictionary.getProposedString(longPrefixes[nextIndex()]);
+    }
+}
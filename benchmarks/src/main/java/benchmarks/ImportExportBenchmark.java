@@ -0,0 +1,96 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionary.importWords and Dictionary.exportWords on synthetic dictionaries of 10k to 5M entries.
+ * Every invocation processes the whole dictionary, so these run in single-shot mode. The 5M case needs
+ * a large heap; pass -p entries=... to skip it on small machines.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class ImportExportBenchmark {
+
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Input {
+        @Param({"10000", "100000", "1000000", "5000000"})
+        public int entries;
+
+        AppBridge bridge;
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            bridge = AppBridge.load();
+            file = SyntheticDictionary.file(entries, SEED);
+        }
+    }
+
+    /**
+     * Imports into an empty dictionary.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyDictionary {
+        @Setup(Level.Invocation)
+        public void clear(Input input) {
+            input.bridge.clearDictionary();
+        }
+    }
+
+    /**
+     * A loaded dictionary with System.out sent to a null stream, since exportWords prints to it.
+     * The characters are still formatted and encoded, only the write itself is dropped.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadedDictionary {
+        private PrintStream originalOut;
+
+        @Setup(Level.Trial)
+        public void load(Input input) throws IOException {
+            input.bridge.clearDictionary();
+            input.bridge.importDictionary(input.file);
+            originalOut = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8));
+        }
+
+        @TearDown(Level.Trial)
+        public void restore() {
+            System.setOut(originalOut);
+        }
+    }
+
+    @Benchmark
+    public int importWords(Input input, EmptyDictionary empty) throws IOException {
+        input.bridge.importDictionary(input.file);
+        return input.bridge.dictionarySize();
+    }
+
+    @Benchmark
+    public void exportWords(Input input, LoadedDictionary loaded) {
+        input.bridge.exportDictionary();
+    }
+}
@@ -0,0 +1,160 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic dictionary for benchmarks.
+ * Headwords are built from random syllables, so they share prefixes the way English words do, and a
+ * few are compounds joined by a hyphen or a space. The same count and seed always give the same words
+ * in the same order, so results are comparable between runs and machines.
+ */
+public final class SyntheticDictionary {
+
+    private static final String[] ONSETS = {
+            "", "b", "c", "d", "f", "g", "h", "l", "m", "n", "p", "r", "s", "t", "v", "w",
+            "br", "ch", "cl", "cr", "dr", "fl", "gr", "pl", "pr", "sh", "sl", "sp", "st", "str", "th", "tr"
+    };
+    private static final String[] VOWELS = {"a", "e", "i", "o", "u", "ea", "ai", "ou", "oo", "y"};
+    private static final String[] CODAS = {"", "", "", "n", "r", "s", "t", "l", "m", "ck", "ng", "nd", "st", "x"};
+    private static final String[] PARTS_OF_SPEECH = {"danh từ", "động từ", "tính từ", "phó từ"};
+
+    private final String[] words;
+    private final long seed;
+
+    /**
+     * Generates a dictionary.
+     *
+     * @param count the number of distinct headwords
+     * @param seed  the random seed
+     */
+    public SyntheticDictionary(int count, long seed) {
+        this.seed = seed;
+        this.words = new String[count];
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<String> seen = new HashSet<>(count * 2);
+        int n = 0;
+        while (n < count) {
+            String word = randomWord(random);
+            if (seen.add(word)) {
+                words[n++] = word;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of headwords.
+     *
+     * @return the number of headwords
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Gets a headword in generation order, which is random with respect to alphabetical order.
+     *
+     * @param index the index
+     * @return the headword
+     */
+    public String word(int index) {
+        return words[index];
+    }
+
+    /**
+     * Gets the meaning of a headword, in the multi-line format of the real dictionary.
+     *
+     * @param index the index of the headword
+     * @return the meaning
+     */
+    public String meaning(int index) {
+        return "/" + words[index] + "/\n* " + PARTS_OF_SPEECH[index % PARTS_OF_SPEECH.length]
+                + "\n- nghĩa số " + index + " của từ " + words[index];
+    }
+
+    /**
+     * Generates words that are not in this dictionary, from a seed derived from this one.
+     *
+     * @param count the number of words
+     * @return distinct words that are absent from the dictionary
+     */
+    public String[] absentWords(int count) {
+        Set<String> present = Set.of(words);
+        Set<String> seen = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(~seed);
+        String[] absent = new String[count];
+        int n = 0;
+        while (n < count) {
+            String word = randomWord(random);
+            if (!present.contains(word) && seen.add(word)) {
+                absent[n++] = word;
+            }
+        }
+        return absent;
+    }
+
+    /**
+     * Writes the dictionary in the "{word}\t{meaning}" import format, with line breaks in the meaning
+     * written as backslashes.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeTo(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < words.length; i++) {
+                writer.write(words[i]);
+                writer.write('\t');
+                writer.write(meaning(i).replace('\n', '\\'));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Gets the import file for a count and seed, writing it to the temporary directory the first time.
+     * Large dictionaries take a while to generate, so the file is shared by all forks and runs.
+     *
+     * @param count the number of headwords
+     * @param seed  the random seed
+     * @return the import file
+     */
+    public static Path file(int count, long seed) {
+        Path path = Path.of(System.getProperty("java.io.tmpdir"), "synthetic-dictionary-" + count + "-" + seed + ".txt");
+        if (!Files.exists(path)) {
+            try {
+                Path partial = Files.createTempFile(path.getParent(), "synthetic-dictionary", ".tmp");
+                new SyntheticDictionary(count, seed).writeTo(partial);
+                Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return path;
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 1 + random.nextInt(4);
+        for (int i = 0; i < syllables; i++) {
+            word.append(ONSETS[random.nextInt(ONSETS.length)])
+                    .append(VOWELS[random.nextInt(VOWELS.length)])
+                    .append(CODAS[random.nextInt(CODAS.length)]);
+        }
+        int joiner = random.nextInt(40);
+        if (joiner == 0) {
+            word.append('-').append(randomWord(random));
+        } else if (joiner == 1) {
+            word.append(' ').append(randomWord(random));
+        }
+        return word.toString();
+    }
+}
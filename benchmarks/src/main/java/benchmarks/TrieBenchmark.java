@@ -0,0 +1,103 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trie lookups, prefix queries and add/delete churn on a synthetic dictionary.
+ * Each benchmark walks through its inputs round-robin so the branch predictor and caches cannot
+ * settle on a single word.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TrieBenchmark {
+
+    private static final int INPUTS = 4096; // a power of two, so the next input is index & (INPUTS - 1)
+    private static final long SEED = 42;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private AppBridge.TrieHandle trie;
+    private String[] hits;
+    private String[] misses;
+    private String[] shortPrefixes;
+    private String[] longPrefixes;
+    private String[] churnWords;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticDictionary dictionary = new SyntheticDictionary(entries, SEED);
+        trie = AppBridge.load().newTrie();
+        for (int i = 0; i < dictionary.size(); i++) {
+            trie.addWord(dictionary.word(i), dictionary.meaning(i));
+        }
+
+        hits = new String[INPUTS];
+        shortPrefixes = new String[INPUTS];
+        longPrefixes = new String[INPUTS];
+        int stride = Math.max(dictionary.size() / INPUTS, 1);
+        for (int i = 0; i < INPUTS; i++) {
+            String word = dictionary.word((i * stride) % dictionary.size());
+            hits[i] = word;
+            // Two letters match a large share of the dictionary, all but the last letter only a few words
+            shortPrefixes[i] = word.substring(0, Math.min(2, word.length()));
+            longPrefixes[i] = word.substring(0, Math.max(word.length() - 1, 1));
+        }
+        String[] absent = dictionary.absentWords(2 * INPUTS);
+        misses = Arrays.copyOfRange(absent, 0, INPUTS);
+        churnWords = Arrays.copyOfRange(absent, INPUTS, 2 * INPUTS);
+    }
+
+    private int nextIndex() {
+        return next++ & (INPUTS - 1);
+    }
+
+    @Benchmark
+    public Object lookupHit() {
+        return trie.lookupWord(hits[nextIndex()]);
+    }
+
+    @Benchmark
+    public Object lookupMiss() {
+        return trie.lookupWord(misses[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<?> proposeShortPrefix() {
+        return trie.getProposedString(shortPrefixes[nextIndex()]);
+    }
+
+    @Benchmark
+    public List<?> proposeLongPrefix() {
+        return trie.getProposedString(longPrefixes[nextIndex()]);
+    }
+
+    /**
+     * Adds a word that is not in the dictionary and deletes it again, leaving the trie as it was.
+     */
+    @Benchmark
+    public boolean addDeleteChurn() {
+        String word = churnWords[nextIndex()];
+        trie.addWord(word, word);
+        return trie.deleteWord(word);
+    }
+}
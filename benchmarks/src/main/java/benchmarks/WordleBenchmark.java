@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WordleGame.checkGuess on five-letter words, pairing every target with a guess of the same length.
+ * Each call also resets the game to its target, which only clears two short lists.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordleBenchmark {
+
+    private static final int PAIRS = 1024; // a power of two, so the next pair is index & (PAIRS - 1)
+    private static final int LENGTH = 5;
+
+    private AppBridge.WordleHandle game;
+    private final String[] targets = new String[PAIRS];
+    private final String[] guesses = new String[PAIRS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        game = AppBridge.load().newWordleGame();
+        SyntheticDictionary dictionary = new SyntheticDictionary(100_000, 7);
+        int n = 0;
+        for (int i = 0; n < 2 * PAIRS && i < dictionary.size(); i++) {
+            String word = dictionary.word(i);
+            if (word.length() == LENGTH && word.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                if (n % 2 == 0) {
+                    targets[n / 2] = word;
+                } else {
+                    guesses[n / 2] = word;
+                }
+                n++;
+            }
+        }
+        if (n < 2 * PAIRS) {
+            throw new IllegalStateException("Not enough five-letter words: " + n);
+        }
+        // Some guesses repeat their target, which takes the "Correct!" path
+        for (int i = 0; i < PAIRS; i += 16) {
+            guesses[i] = targets[i];
+        }
+    }
+
+    @Benchmark
+    public String checkGuess() {
+        int i = next++ & (PAIRS - 1);
+        return game.checkGuess(targets[i], guesses[i]);
+    }
+}
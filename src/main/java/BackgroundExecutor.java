@@ -0,0 +1,153 @@
+import javafx.concurrent.Task;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Singleton executor that runs slow work (network, audio, dictionary updates) off the JavaFX thread.
+ * Reads are submitted to a named lane; each lane has at most one request in flight and submitting
+ * a new request cancels the previous one, so stale results are never applied to the UI.
+ * Changes are submitted to a serial lane instead, which runs them one after another in submission
+ * order and never cancels them, so a quick second edit cannot drop the first.
+ */
+public class BackgroundExecutor {
+
+    private static BackgroundExecutor instance = null;
+    private final ExecutorService executor;
+    private final Map<String, Task<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> serialLanes = new ConcurrentHashMap<>();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    private BackgroundExecutor() {
+        executor = Executors.newCachedThreadPool(this::newThread);
+    }
+
+    private Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "dictionary-worker-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Gets the singleton instance of BackgroundExecutor.
+     *
+     * @return the singleton instance
+     */
+    public static synchronized BackgroundExecutor getInstance() {
+        if (instance == null) {
+            instance = new BackgroundExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs work in the background on the given lane, cancelling the lane's previous request.
+     * The callbacks are invoked on the JavaFX thread and only if the request was not superseded.
+     *
+     * @param lane      the lane name, usually one per tab
+     * @param work      the work to run in the background
+     * @param onSuccess called with the result of the work
+     * @param onFailure called with the exception thrown by the work
+     * @param <T>       the result type
+     * @return the submitted task, whose running property can drive a progress indicator
+     */
+    public <T> Task<T> submit(String lane, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        // A superseded task may finish before it is cancelled, so only the lane's current task reports back
+        task.setOnSucceeded(e -> {
+            if (inFlight.remove(lane, task)) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            if (inFlight.remove(lane, task)) {
+                onFailure.accept(task.getException());
+            }
+        });
+        task.setOnCancelled(e -> inFlight.remove(lane, task));
+
+        Task<?> previous = inFlight.put(lane, task);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        executor.submit(task);
+        return task;
+    }
+
+    /**
+     * Runs a change in the background on the given serial lane, after the changes submitted to it
+     * before. Nothing is cancelled, and the callbacks of every change are invoked on the JavaFX thread.
+     *
+     * @param lane      the serial lane name, which must not be used with submit
+     * @param work      the change to run in the background
+     * @param onSuccess called with the result of the change
+     * @param onFailure called with the exception thrown by the change
+     * @param <T>       the result type
+     * @return the submitted task, whose running property can drive a progress indicator
+     */
+    public <T> Task<T> submitInOrder(String lane, Callable<T> work, Consumer<T> onSuccess,
+                                     Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        serialLanes.computeIfAbsent(lane, name -> Executors.newSingleThreadExecutor(this::newThread)).submit(task);
+        return task;
+    }
+
+    /**
+     * Runs a long task on the background pool outside of any lane, so it is never cancelled by other requests.
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Cancels the request currently in flight on the given lane, if any.
+     *
+     * @param lane the lane name
+     */
+    public void cancel(String lane) {
+        Task<?> task = inFlight.remove(lane);
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Checks whether the given lane has a request in flight.
+     *
+     * @param lane the lane name
+     * @return true if a request is running or scheduled on the lane
+     */
+    public boolean isBusy(String lane) {
+        return inFlight.containsKey(lane);
+    }
+
+    /**
+     * Cancels all in-flight requests and stops accepting new work. Changes already queued on serial
+     * lanes still run.
+     */
+    public void shutdown() {
+        inFlight.values().forEach(task -> task.cancel(true));
+        inFlight.clear();
+        executor.shutdownNow();
+        serialLanes.values().forEach(ExecutorService::shutdown);
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Runs dictionary commands read from a stream, one command per line, and writes one result line per
+ * command in input order.
+ * <pre>
+ * word                       looks up a word (any line without a tab)
+ * lookup TAB word            looks up a word
+ * search TAB prefix          lists the words starting with a prefix
+ * add TAB word TAB meaning   adds a word
+ * edit TAB word TAB meaning  changes the meaning of a word
+ * delete TAB word            deletes a word
+ * </pre>
+ * Result lines are "OK", "NOT_FOUND" or "ERROR", a tab, and the payload. Meanings are written with
+ * line breaks as backslashes, like the dictionary file. Input is processed in chunks: consecutive
+ * lookups and searches only read the dictionary, so they run in parallel, while a change runs alone
+ * at its position in the input, so every command sees the changes made by the lines before it.
+ * An add of a word with unsupported characters is an ERROR. The dictionary writes its own messages
+ * to the standard error, so only result lines reach the standard output.
+ */
+public class BatchProcessor {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int SEARCH_LIMIT = 100;
+
+    private final DictionaryManagement manager = DictionaryManagement.getInstance();
+    private final long[] statusCounts = new long[Status.values().length];
+    private long commandCount = 0;
+
+    /**
+     * The outcome of a command.
+     */
+    public enum Status {
+        OK, NOT_FOUND, ERROR
+    }
+
+    /**
+     * Processes every line of the input.
+     *
+     * @param in  the commands
+     * @param out the results, one line per command
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    public void process(BufferedReader in, Writer out) throws IOException {
+        String[] lines = new String[CHUNK_SIZE];
+        String[] results = new String[CHUNK_SIZE];
+        Status[] statuses = new Status[CHUNK_SIZE];
+        while (true) {
+            int count = 0;
+            String line;
+            while (count < CHUNK_SIZE && (line = in.readLine()) != null) {
+                lines[count++] = line;
+            }
+            if (count == 0) {
+                return;
+            }
+            runChunk(lines, count, results, statuses);
+            for (int i = 0; i < count; i++) {
+                out.write(statuses[i].name());
+                out.write('\t');
+                out.write(results[i]);
+                out.write('\n');
+                statusCounts[statuses[i].ordinal()]++;
+            }
+            commandCount += count;
+        }
+    }
+
+    /**
+     * Runs one chunk, splitting it into runs of read-only commands separated by changes.
+     */
+    private void runChunk(String[] lines, int count, String[] results, Status[] statuses) {
+        int start = 0;
+        while (start < count) {
+            int end = start;
+            while (end < count && isReadOnly(lines[end])) {
+                end++;
+            }
+            IntStream.range(start, end).parallel().forEach(i -> run(lines[i], i, results, statuses));
+            if (end < count) {
+                run(lines[end], end, results, statuses);
+                end++;
+            }
+            start = end;
+        }
+    }
+
+    private static boolean isReadOnly(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) {
+            return true;
+        }
+        String command = line.substring(0, tab);
+        return command.equals("lookup") || command.equals("search");
+    }
+
+    /**
+     * Runs one command and stores its result at the given index.
+     */
+    private void run(String line, int index, String[] results, Status[] statuses) {
+        String[] parts = line.split("\t", 3);
+        String command = parts.length == 1 ? "lookup" : parts[0];
+        String word = parts.length == 1 ? parts[0] : parts[1];
+        Status status;
+        String result;
+        try {
+            if (word.isEmpty()) {
+                throw new IllegalArgumentException("Missing word");
+            }
+            switch (command) {
+                case "lookup": {
+                    Word found = manager.lookupWord(word);
+                    status = found != null ? Status.OK : Status.NOT_FOUND;
+                    result = found != null ? found.getWordTarget() + '\t' + escape(found.getWordExplain()) : word;
+                    break;
+                }
+                case "search": {
+                    ArrayList<Word> words = manager.searchWords(word, null, SEARCH_LIMIT);
+                    StringBuilder joined = new StringBuilder(word);
+                    for (Word found : words) {
+                        joined.append('\t').append(found.getWordTarget());
+                    }
+                    status = words.isEmpty() ? Status.NOT_FOUND : Status.OK;
+                    result = joined.toString();
+                    break;
+                }
+                case "add":
+                    if (!manager.isValidWord(word)) {
+                        throw new IllegalArgumentException("Invalid word");
+                    }
+                    manager.addWord(word, unescape(requireMeaning(parts)));
+                    status = Status.OK;
+                    result = word;
+                    break;
+                case "edit":
+                    status = manager.editWord(word, unescape(requireMeaning(parts))) ? Status.OK : Status.NOT_FOUND;
+                    result = word;
+                    break;
+                case "delete":
+                    status = manager.removeWord(word) ? Status.OK : Status.NOT_FOUND;
+                    result = word;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + command);
+            }
+        } catch (RuntimeException e) {
+            status = Status.ERROR;
+            result = escape(line) + '\t' + e.getMessage();
+        }
+        results[index] = result;
+        statuses[index] = status;
+    }
+
+    private static String requireMeaning(String[] parts) {
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Missing meaning");
+        }
+        return parts[2];
+    }
+
+    private static String escape(String text) {
+        return text.replace('\n', '\\').replace('\t', ' ');
+    }
+
+    private static String unescape(String text) {
+        return text.replace('\\', '\n');
+    }
+
+    /**
+     * Gets the number of commands processed so far.
+     *
+     * @return the number of commands
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Gets the number of commands that ended with a status.
+     *
+     * @param status the status
+     * @return the number of commands
+     */
+    public long getCount(Status status) {
+        return statusCounts[status.ordinal()];
+    }
+}
@@ -1,13 +1,40 @@
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 /**
  * Singleton class representing a dictionary.
+ * Operations are guarded by a read-write lock so the dictionary can be used from background threads.
+ * Queries take the read lock and run in parallel with each other, while changes take the write lock.
+ * After many deletes the trie is compacted in the background and swapped in atomically.
+ * Every change is mirrored into a PersistentTrie, whose versions serve as snapshots for undo and for
+ * reads that must see a single point in time without holding the lock.
  */
 public class Dictionary {
 
+    // Compact once the deletes since the last compaction reach this many, or a tenth of the words
+    private static final int COMPACT_MIN_DELETES = 1000;
+    private static final int COMPACT_DELETE_FRACTION = 10;
+    // Patterns starting with * use the suffix index when they contain at least this many plain characters
+    private static final int MIN_INDEXED_LITERAL = 2;
+
     private static Dictionary instance = null;
-    private final Trie trie;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private Trie trie;
+    private long modCount = 0; // number of changes, to detect changes made during a compaction
+    private long headwordVersion = 0; // number of changes that added or removed words
+    private int deletesSinceCompaction = 0;
+    private final Object suffixIndexLock = new Object();
+    private volatile SuffixIndex suffixIndex = null;
+    private PhoneticIndex phoneticIndex = new PhoneticIndex();
+    private final PersistentTrie.Editor versions = new PersistentTrie().edit();
+    private volatile PersistentTrie snapshot = versions.snapshot();
 
     private Dictionary() {
         trie = new Trie();
@@ -18,7 +45,7 @@ public class Dictionary {
      *
      * @return the singleton instance
      */
-    public static Dictionary getInstance() {
+    public static synchronized Dictionary getInstance() {
         if (instance == null) {
             instance = new Dictionary();
         }
@@ -32,7 +59,18 @@ public class Dictionary {
      * @return the Word object if found, null otherwise
      */
     public Word lookupWord(String word) {
-        return trie.lookupWord(word);
+        return read(() -> trie.lookupWord(word));
+    }
+
+    /**
+     * Looks up the headword of an inflected form, such as "run" for "running".
+     *
+     * @param word       the inflected form
+     * @param lemmatizer the lemmatizer, whose cache stays valid until a word is added or removed
+     * @return the headword, or null if no candidate lemma is in the dictionary
+     */
+    public Word lookupLemma(String word, Lemmatizer lemmatizer) {
+        return read(() -> lemmatizer.lookup(word, headwordVersion, trie::lookupFirst));
     }
 
     /**
@@ -42,7 +80,23 @@ public class Dictionary {
      * @param meaning the meaning of the word
      */
     public void addWord(String word, String meaning) {
-        trie.addWord(word, meaning);
+        write(() -> addToTrie(word, meaning));
+    }
+
+    /**
+     * Adds a word to the trie, and to the phonetic index if it is a new headword.
+     * Must be called under the write lock.
+     */
+    private void addToTrie(String word, String meaning) {
+        int sizeBefore = trie.size();
+        Word added = trie.addWord(word, meaning);
+        if (added == null) {
+            return;
+        }
+        if (trie.size() != sizeBefore) {
+            phoneticIndex.add(added.getWordTarget());
+        }
+        versions.put(added.getWordTarget(), added.getWordExplain());
     }
 
     /**
@@ -52,7 +106,91 @@ public class Dictionary {
      * @return true if the word was successfully deleted
      */
     public boolean deleteWord(String word) {
-        return trie.deleteWord(word);
+        boolean deleted = write(() -> {
+            boolean removed = trie.deleteWord(word);
+            if (removed) {
+                phoneticIndex.remove(word.toLowerCase());
+                versions.remove(word.toLowerCase());
+                deletesSinceCompaction++;
+            }
+            return removed;
+        });
+        if (deleted) {
+            compactIfFragmented();
+        }
+        return deleted;
+    }
+
+    /**
+     * Looks up a batch of words under one read lock, sharing the trie walk between words with a
+     * common prefix.
+     *
+     * @param words the words to look up
+     * @return the Word object of each word, or null where it is not found, in the order of the input
+     */
+    public List<Word> lookupAll(List<String> words) {
+        return read(() -> trie.lookupAll(words));
+    }
+
+    /**
+     * Adds a batch of words under one write lock, sharing the trie walk between words with a common
+     * prefix.
+     *
+     * @param words the words and their meanings
+     * @return for each word in the order of the input, true if it was added as a new word, false if
+     * its meaning was appended to an existing one or it is invalid
+     */
+    public boolean[] addAll(List<Word> words) {
+        return write(() -> {
+            boolean[] added = trie.addAll(words);
+            List<String> headwords = new ArrayList<>(words.size());
+            for (int i = 0; i < added.length; i++) {
+                headwords.add(words.get(i).getWordTarget());
+                if (added[i]) {
+                    phoneticIndex.add(words.get(i).getWordTarget().toLowerCase());
+                }
+            }
+            // Meanings of existing words were appended to, so every word in the batch is mirrored
+            for (Word word : trie.lookupAll(headwords)) {
+                if (word != null) {
+                    versions.put(word.getWordTarget(), word.getWordExplain());
+                }
+            }
+            return added;
+        });
+    }
+
+    /**
+     * Deletes a batch of words under one write lock, sharing the trie walk between words with a
+     * common prefix.
+     *
+     * @param words the words to delete
+     * @return for each word in the order of the input, true if it was deleted
+     */
+    public boolean[] deleteAll(List<String> words) {
+        boolean[] deleted = write(() -> {
+            boolean[] removed = trie.deleteAll(words);
+            for (int i = 0; i < removed.length; i++) {
+                if (removed[i]) {
+                    phoneticIndex.remove(words.get(i).toLowerCase());
+                    versions.remove(words.get(i).toLowerCase());
+                    deletesSinceCompaction++;
+                }
+            }
+            return removed;
+        });
+        compactIfFragmented();
+        return deleted;
+    }
+
+    /**
+     * Checks whether a word has only characters the dictionary can store.
+     *
+     * @param word the word
+     * @return true if adding the word would store it rather than reject it
+     */
+    public boolean isValidWord(String word) {
+        return read(() -> trie.isValidWord(word));
     }
 
     /**
@@ -63,7 +201,18 @@ public class Dictionary {
      * @return true if the word was successfully edited
      */
     public boolean editWord(String word, String meaning) {
-        return trie.editWord(word, meaning);
+        return write(() -> {
+            int sizeBefore = trie.size();
+            boolean edited = trie.editWord(word, meaning);
+            // Editing a word that was deleted while a longer word kept its node adds it back
+            if (trie.size() != sizeBefore) {
+                phoneticIndex.add(trie.lookupWord(word).getWordTarget());
+            }
+            if (edited) {
+                versions.put(word.toLowerCase(), meaning);
+            }
+            return edited;
+        });
     }
 
     /**
@@ -72,7 +221,7 @@ public class Dictionary {
      * @return a list of all words
      */
     public ArrayList<Word> queryAllWords() {
-        return trie.queryAllWords();
+        return read(() -> trie.queryAllWords());
     }
 
     /**
@@ -82,7 +231,392 @@ public class Dictionary {
      * @return a list of words with the given prefix
      */
     public ArrayList<Word> getProposedString(String prefix) {
-        return trie.getProposedString(prefix);
+        return read(() -> trie.getProposedString(prefix));
+    }
+
+    /**
+     * Retrieves one page of words with the given prefix, after the last word of the previous page.
+     *
+     * @param prefix the prefix to search for
+     * @param after  the last word of the previous page, or null for the first page
+     * @param limit  the maximum number of words to return
+     * @return a list of at most limit words
+     */
+    public ArrayList<Word> getPage(String prefix, String after, int limit) {
+        return read(() -> trie.getWordsAfter(prefix, after, limit));
+    }
+
+    /**
+     * Gets the number of words in the dictionary.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return read(() -> trie.size());
+    }
+
+    /**
+     * Gets a version number that changes whenever words are added or removed, but not when only
+     * meanings change, so caches built from the words can tell when they are stale.
+     *
+     * @return the headword version
+     */
+    public long getHeadwordVersion() {
+        return read(() -> headwordVersion);
+    }
+
+    /**
+     * Computes the number of words that come before the given word in trie order.
+     *
+     * @param word the word to rank
+     * @return the rank of the word
+     */
+    public int rank(String word) {
+        return read(() -> trie.rank(word));
+    }
+
+    /**
+     * Selects the word with the given rank.
+     *
+     * @param k the rank, from 0 to size() - 1
+     * @return the k-th word in trie order, or null if k is out of range
+     */
+    public Word select(int k) {
+        return read(() -> trie.select(k));
+    }
+
+    /**
+     * Counts the words starting with a prefix.
+     *
+     * @param prefix the prefix
+     * @return the number of words with the prefix
+     */
+    public int countPrefix(String prefix) {
+        return read(() -> trie.countPrefix(prefix));
+    }
+
+    /**
+     * Counts the words in a range of trie order.
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, exclusive
+     * @return the number of words in the range
+     */
+    public int countRange(String from, String to) {
+        return read(() -> trie.countRange(from, to));
+    }
+
+    /**
+     * Retrieves the words in a range of trie order.
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, exclusive
+     * @return the words in the range
+     */
+    public ArrayList<Word> getRange(String from, String to) {
+        return read(() -> trie.getRange(from, to));
+    }
+
+    /**
+     * Counts the words whose length is within a range.
+     *
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @return the number of matching words
+     */
+    public int countWords(int minLength, int maxLength) {
+        return read(() -> trie.countWords(minLength, maxLength));
+    }
+
+    /**
+     * Retrieves all words of an exact length.
+     *
+     * @param length the word length
+     * @return the words of that length in trie order
+     */
+    public ArrayList<Word> getWordsOfLength(int length) {
+        return read(() -> trie.getWordsOfLength(length));
+    }
+
+    /**
+     * Finds the words within an edit distance of a given word, closest first.
+     *
+     * @param word        the word to match
+     * @param maxDistance the maximum Levenshtein distance
+     * @param limit       the maximum number of words to return
+     * @return at most limit words, ordered by distance
+     */
+    public ArrayList<Word> getSimilarWords(String word, int maxDistance, int limit) {
+        return read(() -> trie.getSimilarWords(word, maxDistance, limit));
+    }
+
+    /**
+     * Finds the words matching a pattern whose length is within a range.
+     *
+     * @param pattern   the pattern, see WordPattern
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @param limit     the maximum number of words to return
+     * @return at most limit words in trie order
+     */
+    public ArrayList<Word> getWordsMatching(WordPattern pattern, int minLength, int maxLength, int limit) {
+        return read(() -> {
+            // A leading star defeats prefix pruning, so start from the words containing the pattern's
+            // longest plain run, found with the suffix index, and check each against the pattern
+            if (pattern.startsWithStar() && pattern.getLongestLiteral().length() >= MIN_INDEXED_LITERAL) {
+                ArrayList<Word> words = new ArrayList<>();
+                for (int ordinal : suffixIndex().findContaining(pattern.getLongestLiteral(), Integer.MAX_VALUE)) {
+                    if (words.size() == limit) {
+                        break;
+                    }
+                    Word word = trie.select(ordinal);
+                    int length = word.getWordTarget().length();
+                    if (length >= minLength && length <= maxLength && pattern.matches(word.getWordTarget())) {
+                        words.add(word);
+                    }
+                }
+                return words;
+            }
+            return trie.getWordsMatching(pattern, minLength, maxLength, limit);
+        });
+    }
+
+    /**
+     * Finds the words that sound like a word spelled the way it is pronounced.
+     *
+     * @param word  the word as the user spelled it
+     * @param limit the maximum number of words to return
+     * @return at most limit words, closest in spelling first
+     */
+    public ArrayList<Word> getSoundsLike(String word, int limit) {
+        return read(() -> {
+            ArrayList<Word> words = new ArrayList<>();
+            for (String headword : phoneticIndex.find(word, limit)) {
+                words.add(trie.lookupWord(headword));
+            }
+            return words;
+        });
+    }
+
+    /**
+     * Finds the words that contain a string, such as every word containing "graph".
+     *
+     * @param infix the string to find
+     * @param limit the maximum number of words to return
+     * @return at most limit words in trie order
+     */
+    public ArrayList<Word> getWordsContaining(String infix, int limit) {
+        return read(() -> toWords(suffixIndex().findContaining(infix.toLowerCase(), limit)));
+    }
+
+    /**
+     * Finds the words that end with a string, such as every word ending in "tion".
+     *
+     * @param suffix the ending to find
+     * @param limit  the maximum number of words to return
+     * @return at most limit words in trie order
+     */
+    public ArrayList<Word> getWordsEndingWith(String suffix, int limit) {
+        return read(() -> toWords(suffixIndex().findEndingWith(suffix.toLowerCase(), limit)));
+    }
+
+    /**
+     * Gets the suffix index of the current words, rebuilding it first if words were added or removed
+     * since it was built. Changes to meanings keep it current. Must be called under the read lock.
+     *
+     * @return the current suffix index
+     */
+    private SuffixIndex suffixIndex() {
+        SuffixIndex index = suffixIndex;
+        if (index == null || index.getVersion() != headwordVersion) {
+            synchronized (suffixIndexLock) {
+                index = suffixIndex;
+                if (index == null || index.getVersion() != headwordVersion) {
+                    ArrayList<Word> words = trie.queryAllWords();
+                    ArrayList<String> headwords = new ArrayList<>(words.size());
+                    for (Word word : words) {
+                        headwords.add(word.getWordTarget());
+                    }
+                    index = new SuffixIndex(headwords, headwordVersion);
+                    suffixIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Maps ordinals from the suffix index to words. Must be called under the read lock, with an
+     * index that is current, so the ordinals are ranks in the trie.
+     */
+    private ArrayList<Word> toWords(int[] ordinals) {
+        ArrayList<Word> words = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            words.add(trie.select(ordinal));
+        }
+        return words;
+    }
+
+    /**
+     * Picks a uniformly random word whose length is within a range.
+     *
+     * @param random    the random number generator
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @return a random matching word, or null if there is none
+     */
+    public Word randomWord(Random random, int minLength, int maxLength) {
+        return read(() -> trie.randomWord(random, minLength, maxLength));
+    }
+
+    /**
+     * Walks a prefix in the dictionary, continuing from an earlier cursor when one is given.
+     *
+     * A cursor left over from before the dictionary was cleared or compacted, or from before a branch
+     * was pruned, is walked again from the root.
+     *
+     * @param from   the cursor to continue from, or null to start at the root
+     * @param suffix the characters to walk from the cursor
+     * @return the cursor for the walked prefix, or null if no word starts with it
+     */
+    public Trie.Cursor findPrefix(Trie.Cursor from, String suffix) {
+        return read(() -> {
+            if (from != null && !from.isCurrent(trie)) {
+                return trie.cursor().extend(from.getPrefix() + suffix);
+            }
+            return (from != null ? from : trie.cursor()).extend(suffix);
+        });
+    }
+
+    /**
+     * Retrieves the first words starting with a cursor's prefix.
+     *
+     * @param cursor the cursor to collect from
+     * @param limit  the maximum number of words to return
+     * @return a list of at most limit words
+     */
+    public ArrayList<Word> getSuggestions(Trie.Cursor cursor, int limit) {
+        return read(() -> cursor.collect(limit));
+    }
+
+    /**
+     * Takes a snapshot of the words and meanings, in O(1) and without waiting for the lock.
+     * The snapshot never changes, so long reads such as an export see a single point in time.
+     *
+     * @return the current version
+     */
+    public PersistentTrie snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Brings the dictionary back to an earlier or later version, such as one taken before an edit.
+     * Only the words that differ between the current version and that one are changed.
+     *
+     * @param version the version to restore
+     */
+    public void restore(PersistentTrie version) {
+        write(() -> {
+            boolean[] headwordsChanged = {false};
+            snapshot.diff(version, (word, from, to) -> {
+                if (to == null) {
+                    trie.deleteWord(word);
+                    phoneticIndex.remove(word);
+                    deletesSinceCompaction++;
+                    headwordsChanged[0] = true;
+                } else if (from == null) {
+                    trie.addWord(word, to);
+                    phoneticIndex.add(word);
+                    headwordsChanged[0] = true;
+                } else {
+                    trie.editWord(word, to);
+                }
+            });
+            // Words may be both added and removed, leaving the size as it was
+            if (headwordsChanged[0]) {
+                headwordVersion++;
+            }
+            versions.reset(version);
+        });
+        compactIfFragmented();
+    }
+
+    /**
+     * Removes every word from the dictionary.
+     */
+    public void clear() {
+        write(() -> {
+            trie = new Trie();
+            phoneticIndex = new PhoneticIndex();
+            versions.reset(new PersistentTrie());
+            deletesSinceCompaction = 0;
+        });
+    }
+
+    /**
+     * Replaces the trie with a compacted copy. The copy is built under the read lock, so lookups go on
+     * meanwhile, and swapped in under the write lock only if no change was made in between.
+     *
+     * @return true if the compacted trie was swapped in, false if a change got in the way
+     */
+    public boolean compact() {
+        long startModCount;
+        Trie compacted;
+        lock.readLock().lock();
+        try {
+            startModCount = modCount;
+            compacted = trie.compact();
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (modCount != startModCount) {
+                return false;
+            }
+            trie = compacted;
+            deletesSinceCompaction = 0;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a background compaction if enough words were deleted since the last one and none is
+     * running. It runs on the common pool rather than BackgroundExecutor, so it also works in the
+     * headless server and batch modes.
+     */
+    private void compactIfFragmented() {
+        boolean fragmented = read(() ->
+                deletesSinceCompaction >= Math.max(COMPACT_MIN_DELETES, trie.size() / COMPACT_DELETE_FRACTION));
+        if (fragmented && compacting.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    compact();
+                } finally {
+                    compacting.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Builds a read-only copy of the dictionary with a fraction of the memory.
+     *
+     * @return the frozen dictionary
+     */
+    public FrozenDictionary freeze() {
+        return read(() -> trie.freeze());
+    }
+
+    /**
+     * Computes structural statistics of the trie.
+     *
+     * @return the statistics
+     */
+    public Trie.Stats getStats() {
+        return read(() -> trie.getStats());
     }
 
     /**
@@ -92,21 +626,84 @@ public class Dictionary {
      * @param scanner the Scanner to read words from
      */
     public void importWords(Scanner scanner) {
-        while (scanner.hasNextLine()) {
-            String line = scanner.nextLine();
-            String[] parts = line.split("\t", 2);
-            addWord(parts[0], parts[1].replaceAll("\\\\", "\n"));
-        }
+        write(() -> {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                String[] parts = line.split("\t", 2);
+                addToTrie(parts[0], parts[1].replaceAll("\\\\", "\n"));
+            }
+        });
     }
 
     /**
      * Exports all words to the standard output.
      * Format: "{English word}\t{Vietnamese meaning}"
+     * The words come from a snapshot, so the export does not block changes and does not see the ones
+     * made while it runs.
      */
     public void exportWords() {
-        ArrayList<Word> words = trie.queryAllWords();
-        for (Word word : words) {
-            System.out.printf("%s\t%s\n", word.getWordTarget(), word.getWordExplain().replaceAll("\n", "\\\\"));
+        snapshot().forEach((word, meaning) ->
+                System.out.printf("%s\t%s\n", word, meaning.replaceAll("\n", "\\\\")));
+    }
+
+    /**
+     * Runs a query under the read lock.
+     *
+     * @param query the query
+     * @param <T>   the result type
+     * @return the result of the query
+     */
+    private <T> T read(Supplier<T> query) {
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a change under the write lock, and then publishes the new snapshot.
+     * No single change other than a restore both adds and removes words, so one that changes the size
+     * changed the set of headwords and makes the suffix index stale.
+     *
+     * @param change the change
+     * @param <T>    the result type
+     * @return the result of the change
+     */
+    private <T> T write(Supplier<T> change) {
+        lock.writeLock().lock();
+        try {
+            modCount++;
+            int sizeBefore = trie.size();
+            T result = change.get();
+            if (trie.size() != sizeBefore) {
+                headwordVersion++;
+            }
+            snapshot = versions.snapshot();
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a change without a result under the write lock, like write(Supplier).
+     *
+     * @param change the change
+     */
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            modCount++;
+            int sizeBefore = trie.size();
+            change.run();
+            if (trie.size() != sizeBefore) {
+                headwordVersion++;
+            }
+            snapshot = versions.snapshot();
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 }
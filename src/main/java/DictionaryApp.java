@@ -1,19 +1,49 @@
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Main application class for the Dictionary App.
  */
 public class DictionaryApp extends Application {
 
+    private static final int BROWSE_PAGE_SIZE = 200;
+    private static final int SOUNDS_LIKE_LIMIT = 5;
+    // Run with -Dsuperapp.debug=true to also print the startup timings and stall report to stdout
+    private static final boolean DEBUG = Boolean.getBoolean("superapp.debug");
+    private static long launchTime = System.nanoTime();
     private DictionaryManagement dictionaryManager = DictionaryManagement.getInstance();
+    private final BackgroundExecutor backgroundExecutor = BackgroundExecutor.getInstance();
+    private final UiStallMonitor stallMonitor = UiStallMonitor.getInstance();
+    private final SuggestionSearch suggestionSearch = new SuggestionSearch(20);
+    private final BooleanProperty dictionaryReady = new SimpleBooleanProperty(false);
+    private final Map<Tab, Supplier<VBox>> pendingTabs = new HashMap<>();
+    private Label debugOverlay;
+    private String startupTimings = "";
 
     /**
      * The entry point of the JavaFX application.
@@ -32,14 +62,16 @@ public class DictionaryApp extends Application {
         TabPane tabPane = new TabPane();
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
-        Tab searchTab = new Tab("Search", createTabContent(createSearchTab(), "search.css"));
-        Tab translateTab = new Tab("Translate", createTabContent(createTranslateTab(), "translate.css"));
-        Tab pronounceTab = new Tab("Pronounce", createTabContent(createPronounceTab(), "pronounce.css"));
-        Tab manageTab = new Tab("Manage", createTabContent(createManageTab(), "manage.css"));
-        Tab quizGameTab = new Tab("Quiz Game", createTabContent(createQuizGameTab(), "quizgame.css"));
-        Tab wordleGameTab = new Tab("Wordle Game", createTabContent(createWordleGameTab(), "wordlegame.css"));
+        Tab searchTab = createLazyTab("Search", this::createSearchTab, "search.css");
+        Tab translateTab = createLazyTab("Translate", this::createTranslateTab, "translate.css");
+        Tab pronounceTab = createLazyTab("Pronounce", this::createPronounceTab, "pronounce.css");
+        Tab manageTab = createLazyTab("Manage", this::createManageTab, "manage.css");
+        Tab quizGameTab = createLazyTab("Quiz Game", this::createQuizGameTab, "quizgame.css");
+        Tab wordleGameTab = createLazyTab("Wordle Game", this::createWordleGameTab, "wordlegame.css");
 
         tabPane.getTabs().addAll(searchTab, translateTab, pronounceTab, manageTab, quizGameTab, wordleGameTab);
+        tabPane.getSelectionModel().selectedItemProperty().addListener((observable, oldTab, newTab) -> buildTab(newTab));
+        buildTab(tabPane.getSelectionModel().getSelectedItem());
 
         sidebar.getChildren().addAll(
                 createSidebarItem("search.png", "Search", tabPane, searchTab),
@@ -53,12 +85,189 @@ public class DictionaryApp extends Application {
         BorderPane root = new BorderPane();
         root.setLeft(sidebar);
         root.setCenter(tabPane);
+        root.setTop(createLoadingBar());
 
-        Scene scene = new Scene(root, 1200, 800);
+        StackPane layers = new StackPane(root, createDebugOverlay());
+        Scene scene = new Scene(layers, 1200, 800);
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F12) {
+                debugOverlay.setVisible(!debugOverlay.isVisible());
+            }
+        });
+        if (DEBUG) {
+            stallMonitor.watchFrames();
+        }
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                logStartup("First frame");
+            }
+        });
         primaryStage.setScene(scene);
         primaryStage.show();
     }
 
+    /**
+     * Creates a tab whose content is only built the first time it is selected.
+     *
+     * @param title          the tab title.
+     * @param contentBuilder builds the tab content.
+     * @param cssFile        the CSS file to style the content.
+     * @return the tab, without content.
+     */
+    private Tab createLazyTab(String title, Supplier<VBox> contentBuilder, String cssFile) {
+        Tab tab = new Tab(title);
+        pendingTabs.put(tab, () -> createTabContent(contentBuilder.get(), cssFile));
+        return tab;
+    }
+
+    /**
+     * Builds the content of a lazy tab if it has not been built yet.
+     *
+     * @param tab the tab to build.
+     */
+    private void buildTab(Tab tab) {
+        Supplier<VBox> builder = tab != null ? pendingTabs.remove(tab) : null;
+        if (builder != null) {
+            stallMonitor.time("build tab: " + tab.getText(), () -> tab.setContent(builder.get()));
+        }
+    }
+
+    /**
+     * Creates the bar shown while the dictionary loads in the background, and starts loading it.
+     * Dictionary features are enabled once loading finishes.
+     *
+     * @return an HBox with the loading progress, hidden once the dictionary is ready.
+     */
+    private HBox createLoadingBar() {
+        Task<Void> loadTask = new Task<>() {
+            @Override
+            protected Void call() {
+                dictionaryManager.importFromFile(fraction -> updateProgress(fraction, 1));
+                ReviewScheduler.getInstance();
+                return null;
+            }
+        };
+
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(loadTask.progressProperty());
+        Label loadingLabel = new Label("Loading dictionary...");
+
+        HBox loadingBar = new HBox(10, loadingLabel, progressBar);
+        loadingBar.setPadding(new Insets(5, 10, 5, 10));
+        loadingBar.setAlignment(Pos.CENTER_LEFT);
+        loadingBar.managedProperty().bind(loadingBar.visibleProperty());
+
+        loadTask.setOnSucceeded(e -> {
+            loadingBar.setVisible(false);
+            dictionaryReady.set(true);
+            logStartup("Dictionary ready");
+        });
+        loadTask.setOnFailed(e -> {
+            loadingLabel.setText("Failed to load dictionary!");
+            loadTask.getException().printStackTrace();
+        });
+        backgroundExecutor.execute(loadTask);
+        return loadingBar;
+    }
+
+    /**
+     * Records how long after launch a startup milestone was reached, for the F12 overlay and, in debug
+     * mode, stdout.
+     *
+     * @param milestone what was reached.
+     */
+    private void logStartup(String milestone) {
+        String timing = String.format("%s after %d ms%n", milestone, (System.nanoTime() - launchTime) / 1_000_000);
+        startupTimings += timing;
+        if (DEBUG) {
+            System.out.print(timing);
+        }
+    }
+
+    /**
+     * Cancels any background work still in flight when the application exits. In debug mode the UI
+     * stall report, also shown in the F12 overlay, is printed on the way out.
+     */
+    @Override
+    public void stop() {
+        backgroundExecutor.shutdown();
+        ReviewScheduler.getInstance().save();
+        if (DEBUG) {
+            System.out.print(stallMonitor.report());
+        }
+    }
+
+    /**
+     * Creates the debug overlay that shows the startup timings and UI stall report, toggled with F12.
+     *
+     * @return the overlay label, hidden by default.
+     */
+    private Label createDebugOverlay() {
+        debugOverlay = new Label();
+        debugOverlay.setMouseTransparent(true);
+        debugOverlay.setVisible(false);
+        debugOverlay.setStyle("-fx-font-family: monospace; -fx-font-size: 12px; -fx-text-fill: white; "
+                + "-fx-background-color: rgba(0, 0, 0, 0.75); -fx-padding: 8px;");
+        StackPane.setAlignment(debugOverlay, Pos.BOTTOM_RIGHT);
+
+        Timeline refresh = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
+            if (debugOverlay.isVisible()) {
+                debugOverlay.setText(startupTimings + stallMonitor.report());
+            }
+        }));
+        refresh.setCycleCount(Animation.INDEFINITE);
+        refresh.play();
+        return debugOverlay;
+    }
+
+    /**
+     * Runs work on the given background lane and shows the indicator while it is in flight.
+     *
+     * @param lane      the background lane of the tab.
+     * @param indicator the progress indicator of the tab.
+     * @param work      the work to run off the JavaFX thread.
+     * @param onSuccess applied on the JavaFX thread with the result.
+     * @param onFailure applied on the JavaFX thread with the error.
+     * @param <T>       the result type.
+     */
+    private <T> void runInBackground(String lane, ProgressIndicator indicator, Callable<T> work,
+                                     Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = backgroundExecutor.submit(lane, work, onSuccess, onFailure);
+        indicator.visibleProperty().bind(task.runningProperty());
+    }
+
+    /**
+     * Runs a change in the background after the changes submitted before it on the same lane,
+     * without cancelling any of them, and shows the indicator until the last one is done.
+     *
+     * @param lane      the serial lane name
+     * @param indicator the progress indicator to show while the change is queued or running
+     * @param work      the change to run in the background
+     * @param onSuccess called on the JavaFX thread with the result
+     * @param onFailure called on the JavaFX thread with the exception
+     * @param <T>       the result type
+     */
+    private <T> void runInOrder(String lane, ProgressIndicator indicator, Callable<T> work,
+                                Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = backgroundExecutor.submitInOrder(lane, work, onSuccess, onFailure);
+        indicator.visibleProperty().bind(task.stateProperty().isNotEqualTo(Worker.State.SUCCEEDED)
+                .and(task.stateProperty().isNotEqualTo(Worker.State.FAILED)));
+    }
+
+    /**
+     * Creates a small progress indicator that is hidden until a background request starts.
+     *
+     * @return the progress indicator.
+     */
+    private ProgressIndicator createProgressIndicator() {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(24, 24);
+        indicator.setVisible(false);
+        return indicator;
+    }
+
     /**
      * Creates a sidebar item with an icon and a label.
      *
@@ -130,20 +339,153 @@ public class DictionaryApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setPrefHeight(400);
 
-        searchButton.setOnAction(e -> {
+        Button browseButton = new Button("Browse");
+        browseButton.getStyleClass().add("action-button");
+        browseButton.setStyle("-fx-font-size: 16px;"); // Increased font size
+
+        searchButton.disableProperty().bind(dictionaryReady.not());
+        browseButton.disableProperty().bind(dictionaryReady.not());
+
+        ProgressIndicator searchProgress = createProgressIndicator();
+
+        searchButton.setOnAction(stallMonitor.instrument("search", e -> {
             String word = searchField.getText();
-            Word result = dictionaryManager.lookupWord(word);
-            if (result != null) {
-                meaningLabel.setText(result.getWordExplain());
+            runInBackground("search", searchProgress, () -> {
+                        Word result = dictionaryManager.lookupWord(word);
+                        if (result != null) {
+                            // An inflected form shows the meaning of its headword
+                            return result.getWordTarget().equals(word.toLowerCase())
+                                    ? result.getWordExplain()
+                                    : "Showing " + result.getWordTarget() + ":\n" + result.getWordExplain();
+                        }
+                        // Suggest words that sound the same, for words spelled the way they are pronounced
+                        StringBuilder text = new StringBuilder("Word not found!");
+                        ArrayList<Word> soundsLike = dictionaryManager.soundsLike(word, SOUNDS_LIKE_LIMIT);
+                        if (!soundsLike.isEmpty()) {
+                            text.append("\nDid you mean:");
+                            soundsLike.forEach(similar -> text.append(' ').append(similar.getWordTarget()));
+                        }
+                        return text.toString();
+                    },
+                    meaningLabel::setText,
+                    ex -> {
+                        meaningLabel.setText("Search error!");
+                        ex.printStackTrace();
+                    });
+        }));
+
+        ListView<String> suggestionList = new ListView<>();
+        suggestionList.setStyle("-fx-font-size: 16px;"); // Increased font size
+        suggestionList.setPrefHeight(150);
+        suggestionList.setVisible(false);
+        suggestionList.managedProperty().bind(suggestionList.visibleProperty());
+
+        // Wait for a pause in typing before computing suggestions off the JavaFX thread
+        PauseTransition suggestionDelay = new PauseTransition(Duration.millis(150));
+        suggestionDelay.setOnFinished(stallMonitor.instrument("search: suggest", e -> {
+            if (!dictionaryReady.get()) {
+                return;
+            }
+            String prefix = searchField.getText();
+            backgroundExecutor.submit("suggest", () -> suggestionSearch.suggest(prefix),
+                    words -> {
+                        ArrayList<String> targets = new ArrayList<>();
+                        words.forEach(word -> targets.add(word.getWordTarget()));
+                        suggestionList.getItems().setAll(targets);
+                        suggestionList.setVisible(!targets.isEmpty());
+                    },
+                    Throwable::printStackTrace);
+        }));
+        searchField.textProperty().addListener((observable, oldText, newText) -> {
+            if (newText.isEmpty()) {
+                suggestionDelay.stop();
+                backgroundExecutor.cancel("suggest");
+                suggestionList.setVisible(false);
             } else {
-                meaningLabel.setText("Word not found!");
+                suggestionDelay.playFromStart();
             }
         });
+        suggestionList.setOnMouseClicked(stallMonitor.instrument("search: pick suggestion", e -> {
+            String selected = suggestionList.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                searchField.setText(selected);
+                suggestionDelay.stop();
+                suggestionList.setVisible(false);
+                searchButton.fire();
+            }
+        }));
+
+        ListView<Word> browseList = createBrowseList(searchProgress, meaningLabel);
+        browseButton.setOnAction(stallMonitor.instrument("search: browse", e -> loadBrowsePage(browseList,
+                searchProgress, new PagedWordList(searchField.getText(), BROWSE_PAGE_SIZE), true)));
+
+        HBox buttonBox = new HBox(10, searchButton, browseButton, searchProgress);
+        buttonBox.setAlignment(Pos.CENTER_LEFT);
 
-        vbox.getChildren().addAll(titleLabel, searchField, searchButton, scrollPane);
+        vbox.getChildren().addAll(titleLabel, searchField, suggestionList, buttonBox, browseList, scrollPane);
         return vbox;
     }
 
+    /**
+     * Creates the list that shows browse results.
+     * The list only creates cells for the visible rows and loads the next page when the user scrolls near the end.
+     *
+     * @param indicator    the progress indicator shown while a page is loading.
+     * @param meaningLabel the label that shows the meaning of the selected word.
+     * @return the browse list.
+     */
+    private ListView<Word> createBrowseList(ProgressIndicator indicator, Label meaningLabel) {
+        ListView<Word> browseList = new ListView<>();
+        browseList.setStyle("-fx-font-size: 16px;"); // Increased font size
+        browseList.setPrefHeight(250);
+        browseList.setFixedCellSize(30);
+        browseList.setCellFactory(listView -> new ListCell<>() {
+            @Override
+            protected void updateItem(Word word, boolean empty) {
+                super.updateItem(word, empty);
+                setText(empty || word == null ? null : word.getWordTarget());
+                if (!empty && getIndex() >= listView.getItems().size() - BROWSE_PAGE_SIZE / 4) {
+                    Object pages = listView.getProperties().get(PagedWordList.class);
+                    if (pages instanceof PagedWordList && !backgroundExecutor.isBusy("browse")) {
+                        loadBrowsePage(listView, indicator, (PagedWordList) pages, false);
+                    }
+                }
+            }
+        });
+        browseList.getSelectionModel().selectedItemProperty().addListener((observable, oldWord, newWord) -> {
+            if (newWord != null) {
+                meaningLabel.setText(newWord.getWordExplain());
+            }
+        });
+        return browseList;
+    }
+
+    /**
+     * Loads the next page of browse results in the background and appends it to the list.
+     *
+     * @param browseList the browse list.
+     * @param indicator  the progress indicator shown while the page is loading.
+     * @param pages      the pages being browsed.
+     * @param reset      true to replace the current results with the first page.
+     */
+    private void loadBrowsePage(ListView<Word> browseList, ProgressIndicator indicator, PagedWordList pages,
+                                boolean reset) {
+        if (reset) {
+            browseList.getItems().clear();
+            browseList.getProperties().put(PagedWordList.class, pages);
+        }
+        if (pages.isExhausted()) {
+            return;
+        }
+        runInBackground("browse", indicator, pages::nextPage,
+                page -> {
+                    if (browseList.getProperties().get(PagedWordList.class) == pages) {
+                        browseList.getItems().addAll(page);
+                    }
+                },
+                Throwable::printStackTrace);
+    }
+
     /**
      * Creates the Translate tab content.
      *
@@ -175,20 +517,23 @@ public class DictionaryApp extends Application {
         translationField.setStyle("-fx-font-size: 16px;"); // Increased font size
         translationField.setPrefHeight(100);
 
-        translateButton.setOnAction(e -> {
+        ProgressIndicator translateProgress = createProgressIndicator();
+
+        translateButton.setOnAction(stallMonitor.instrument("translate", e -> {
             String word = translateField.getText();
             String sourceLang = directionBox.getValue().equals("English to Vietnamese") ? "en" : "vi";
             String targetLang = directionBox.getValue().equals("English to Vietnamese") ? "vi" : "en";
-            try {
-                String translation = GoogleTranslate.translate(word, sourceLang, targetLang);
-                translationField.setText(translation);
-            } catch (Exception ex) {
-                translationField.setText("Translation error!");
-                ex.printStackTrace();
-            }
-        });
-
-        vbox.getChildren().addAll(titleLabel, translateField, directionBox, translateButton, translationField);
+            runInBackground("translate", translateProgress,
+                    () -> dictionaryManager.translateText(word, sourceLang, targetLang),
+                    translationField::setText,
+                    ex -> {
+                        translationField.setText("Translation error!");
+                        ex.printStackTrace();
+                    });
+        }));
+
+        vbox.getChildren().addAll(titleLabel, translateField, directionBox, translateButton, translateProgress,
+                translationField);
         return vbox;
     }
 
@@ -215,18 +560,24 @@ public class DictionaryApp extends Application {
         Label statusLabel = new Label();
         statusLabel.setStyle("-fx-font-size: 16px;"); // Increased font size
 
-        pronounceButton.setOnAction(e -> {
-            String word = pronounceField.getText();
-            try {
-                GoogleTranslate.speak(word, "en");
-                statusLabel.setText("Pronouncing: " + word);
-            } catch (Exception ex) {
-                statusLabel.setText("Pronunciation error!");
-                ex.printStackTrace();
-            }
-        });
+        ProgressIndicator pronounceProgress = createProgressIndicator();
 
-        vbox.getChildren().addAll(titleLabel, pronounceField, pronounceButton, statusLabel);
+        pronounceButton.setOnAction(stallMonitor.instrument("pronounce", e -> {
+            String word = pronounceField.getText();
+            statusLabel.setText("Pronouncing: " + word);
+            runInBackground("pronounce", pronounceProgress,
+                    () -> {
+                        dictionaryManager.speakText(word, "en");
+                        return word;
+                    },
+                    spoken -> statusLabel.setText("Pronounced: " + spoken),
+                    ex -> {
+                        statusLabel.setText("Pronunciation error!");
+                        ex.printStackTrace();
+                    });
+        }));
+
+        vbox.getChildren().addAll(titleLabel, pronounceField, pronounceButton, pronounceProgress, statusLabel);
         return vbox;
     }
 
@@ -258,16 +609,24 @@ public class DictionaryApp extends Application {
         Label addStatusLabel = new Label();
         addStatusLabel.setStyle("-fx-font-size: 16px;"); // Increased font size
 
-        addButton.setOnAction(e -> {
+        ProgressIndicator manageProgress = createProgressIndicator();
+        addButton.disableProperty().bind(dictionaryReady.not());
+
+        addButton.setOnAction(stallMonitor.instrument("manage: add", e -> {
             String word = addWordField.getText();
             String meaning = addMeaningField.getText();
             if (!word.isEmpty() && !meaning.isEmpty()) {
-                dictionaryManager.addWord(word, meaning);
-                addStatusLabel.setText("Word added successfully!");
+                runInOrder("manage", manageProgress,
+                        () -> {
+                            dictionaryManager.addWord(word, meaning);
+                            return true;
+                        },
+                        added -> addStatusLabel.setText("Word added successfully!"),
+                        ex -> addStatusLabel.setText("Failed to add word!"));
             } else {
                 addStatusLabel.setText("Word or meaning cannot be empty!");
             }
-        });
+        }));
 
         // Remove word section
         Label removeLabel = new Label("Remove Word");
@@ -285,14 +644,13 @@ public class DictionaryApp extends Application {
         Label removeStatusLabel = new Label();
         removeStatusLabel.setStyle("-fx-font-size: 16px;"); // Increased font size
 
-        removeButton.setOnAction(e -> {
+        removeButton.disableProperty().bind(dictionaryReady.not());
+        removeButton.setOnAction(stallMonitor.instrument("manage: remove", e -> {
             String word = removeWordField.getText();
-            if (dictionaryManager.removeWord(word)) {
-                removeStatusLabel.setText("Word removed successfully!");
-            } else {
-                removeStatusLabel.setText("Word not found!");
-            }
-        });
+            runInOrder("manage", manageProgress, () -> dictionaryManager.removeWord(word),
+                    removed -> removeStatusLabel.setText(removed ? "Word removed successfully!" : "Word not found!"),
+                    ex -> removeStatusLabel.setText("Failed to remove word!"));
+        }));
 
         // Edit word section
         Label editLabel = new Label("Edit Word");
@@ -314,24 +672,55 @@ public class DictionaryApp extends Application {
         Label editStatusLabel = new Label();
         editStatusLabel.setStyle("-fx-font-size: 16px;"); // Increased font size
 
-        editButton.setOnAction(e -> {
+        editButton.disableProperty().bind(dictionaryReady.not());
+        editButton.setOnAction(stallMonitor.instrument("manage: edit", e -> {
             String word = editWordField.getText();
             String meaning = editMeaningField.getText();
             if (!word.isEmpty() && !meaning.isEmpty()) {
-                if (dictionaryManager.editWord(word, meaning)) {
-                    editStatusLabel.setText("Word edited successfully!");
-                } else {
-                    editStatusLabel.setText("Word not found!");
-                }
+                runInOrder("manage", manageProgress, () -> dictionaryManager.editWord(word, meaning),
+                        edited -> editStatusLabel.setText(edited ? "Word edited successfully!" : "Word not found!"),
+                        ex -> editStatusLabel.setText("Failed to edit word!"));
             } else {
                 editStatusLabel.setText("Word or meaning cannot be empty!");
             }
-        });
+        }));
+
+        // Undo and redo section
+        Label historyLabel = new Label("Undo / Redo");
+        historyLabel.getStyleClass().add("title-label");
+        historyLabel.setStyle("-fx-font-size: 16px;"); // Increased font size
+
+        Button undoButton = new Button("Undo");
+        undoButton.getStyleClass().add("action-button");
+        undoButton.setStyle("-fx-font-size: 16px;"); // Increased font size
+
+        Button redoButton = new Button("Redo");
+        redoButton.getStyleClass().add("action-button");
+        redoButton.setStyle("-fx-font-size: 16px;"); // Increased font size
+
+        Label historyStatusLabel = new Label();
+        historyStatusLabel.setStyle("-fx-font-size: 16px;"); // Increased font size
+
+        undoButton.disableProperty().bind(dictionaryReady.not());
+        undoButton.setOnAction(stallMonitor.instrument("manage: undo", e ->
+                runInOrder("manage", manageProgress, () -> dictionaryManager.undo(),
+                        label -> historyStatusLabel.setText(label != null ? "Undid " + label + "." : "Nothing to undo!"),
+                        ex -> historyStatusLabel.setText("Failed to undo!"))));
+
+        redoButton.disableProperty().bind(dictionaryReady.not());
+        redoButton.setOnAction(stallMonitor.instrument("manage: redo", e ->
+                runInOrder("manage", manageProgress, () -> dictionaryManager.redo(),
+                        label -> historyStatusLabel.setText(label != null ? "Redid " + label + "." : "Nothing to redo!"),
+                        ex -> historyStatusLabel.setText("Failed to redo!"))));
+
+        HBox historyButtons = new HBox(10, undoButton, redoButton);
 
         vbox.getChildren().addAll(
                 addLabel, addWordField, addMeaningField, addButton, addStatusLabel,
                 removeLabel, removeWordField, removeButton, removeStatusLabel,
-                editLabel, editWordField, editMeaningField, editButton, editStatusLabel
+                editLabel, editWordField, editMeaningField, editButton, editStatusLabel,
+                historyLabel, historyButtons, historyStatusLabel,
+                manageProgress
         );
         return vbox;
     }
@@ -362,8 +751,19 @@ public class DictionaryApp extends Application {
         vbox.setAlignment(Pos.CENTER);
         vbox.setSpacing(20);
 
-        // Create WordleGameUI instance
-        WordleGameUI wordleGameUI = new WordleGameUI(vbox);
+        // Create WordleGameUI instance once the dictionary it draws words from is ready
+        if (dictionaryReady.get()) {
+            new WordleGameUI(vbox);
+        } else {
+            Label loadingLabel = new Label("Loading dictionary...");
+            vbox.getChildren().add(loadingLabel);
+            dictionaryReady.addListener((observable, wasReady, isReady) -> {
+                if (isReady) {
+                    vbox.getChildren().clear();
+                    new WordleGameUI(vbox);
+                }
+            });
+        }
 
         return vbox;
     }
@@ -374,7 +774,7 @@ public class DictionaryApp extends Application {
      * @param args the command line arguments.
      */
     public static void main(String[] args) {
-        DictionaryCommandline.loadDictionaryFromFile();
+        launchTime = System.nanoTime();
         launch(args);
     }
 }
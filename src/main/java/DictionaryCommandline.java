@@ -1,35 +1,62 @@
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 import static java.lang.System.exit;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 /**
  * A command-line interface for managing a dictionary.
  */
 public class DictionaryCommandline {
 
+    private static final int DISPLAY_PAGE_SIZE = 50;
+    private static final int REVIEW_BATCH_SIZE = 20;
+    private static final int PATTERN_SEARCH_LIMIT = 200;
+    private static final int SOUNDS_LIKE_LIMIT = 5;
     private final DictionaryManagement manager = DictionaryManagement.getInstance();
 
     /**
-     * Displays all words in the dictionary.
+     * Displays all words in the dictionary one page at a time.
      */
     private void displayAllWords() {
-        ArrayList<Word> words = manager.getAllWords();
-        int maxLength = words.stream().mapToInt(word -> word.getWordTarget().length()).max().orElse(0);
-
-        System.out.printf("%-8s| %-" + maxLength + "s | %s\n", "No", "English", "Vietnamese");
-        for (int i = 0; i < words.size(); i++) {
-            String[] meanings = words.get(i).getWordExplain().split("\n");
-            System.out.printf("%-8d| %-" + maxLength + "s | %s\n", i + 1, words.get(i).getWordTarget(), meanings[0]);
-            for (int j = 1; j < meanings.length; j++) {
-                System.out.printf("%-8s| %-" + maxLength + "s | %s\n", "", "", meanings[j]);
+        PagedWordList pages = new PagedWordList("", DISPLAY_PAGE_SIZE);
+        Scanner scanner = new Scanner(System.in);
+        int number = 0;
+
+        while (true) {
+            ArrayList<Word> words = pages.nextPage();
+            int maxLength = words.stream().mapToInt(word -> word.getWordTarget().length()).max().orElse(7);
+
+            System.out.printf("%-8s| %-" + maxLength + "s | %s\n", "No", "English", "Vietnamese");
+            for (Word word : words) {
+                String[] meanings = word.getWordExplain().split("\n");
+                System.out.printf("%-8d| %-" + maxLength + "s | %s\n", ++number, word.getWordTarget(), meanings[0]);
+                for (int j = 1; j < meanings.length; j++) {
+                    System.out.printf("%-8s| %-" + maxLength + "s | %s\n", "", "", meanings[j]);
+                }
+            }
+
+            if (pages.isExhausted()) {
+                System.out.println("Press any key to continue...");
+                scanner.nextLine();
+                return;
+            }
+            System.out.println("Press Enter for the next page or type q to stop...");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
             }
         }
-        System.out.println("Press any key to continue...");
-        Scanner scanner = new Scanner(System.in);
-        scanner.nextLine();
     }
 
     /**
@@ -44,7 +71,16 @@ public class DictionaryCommandline {
         System.out.println("Search result:");
         if (result == null) {
             System.out.println("No results found.");
+            ArrayList<Word> soundsLike = manager.soundsLike(word, SOUNDS_LIKE_LIMIT);
+            if (!soundsLike.isEmpty()) {
+                StringBuilder suggestions = new StringBuilder("Did you mean:");
+                soundsLike.forEach(similar -> suggestions.append(' ').append(similar.getWordTarget()));
+                System.out.println(suggestions);
+            }
         } else {
+            if (!result.getWordTarget().equals(word.toLowerCase())) {
+                System.out.println("Showing " + result.getWordTarget() + ":");
+            }
             System.out.println(result.getWordExplain());
         }
         System.out.println("Press any key to continue...");
@@ -109,14 +145,21 @@ public class DictionaryCommandline {
     }
 
     /**
-     * Searches for words with a specified prefix in the dictionary.
+     * Searches for words with a specified prefix in the dictionary, or for words matching a pattern
+     * such as "c?t" or "*ing" if the input has wildcards.
      */
     private void searchWords() {
         Scanner scanner = new Scanner(System.in);
-        System.out.print("Enter prefix to search: ");
+        System.out.print("Enter prefix or pattern (? * [abc]) to search: ");
         String prefix = scanner.nextLine();
 
-        ArrayList<Word> results = manager.searchWords(prefix);
+        ArrayList<Word> results;
+        try {
+            results = isPattern(prefix) ? manager.searchPattern(prefix, PATTERN_SEARCH_LIMIT) : manager.searchWords(prefix);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            results = new ArrayList<>();
+        }
         System.out.println("Search results:");
         if (results.isEmpty()) {
             System.out.println("No results found.");
@@ -128,6 +171,10 @@ public class DictionaryCommandline {
         scanner.nextLine();
     }
 
+    private static boolean isPattern(String text) {
+        return text.indexOf('?') >= 0 || text.indexOf('*') >= 0 || text.indexOf('[') >= 0;
+    }
+
     /**
      * Plays the quiz game using questions from a file.
      */
@@ -136,6 +183,65 @@ public class DictionaryCommandline {
         game.startQuiz();
     }
 
+    /**
+     * Reviews the words that are due, asking the user to rate how well each one was remembered.
+     */
+    private void reviewWords() {
+        ReviewScheduler scheduler = ReviewScheduler.getInstance();
+        List<String> dueWords = scheduler.getDueWords(ReviewScheduler.LOCAL_USER,
+                System.currentTimeMillis(), REVIEW_BATCH_SIZE);
+        Scanner scanner = new Scanner(System.in);
+        if (dueWords.isEmpty()) {
+            System.out.println("No words are due for review.");
+        }
+        for (String target : dueWords) {
+            System.out.println("Word: " + target);
+            System.out.println("Press enter to show the meaning...");
+            scanner.nextLine();
+            Word word = manager.lookupWord(target);
+            System.out.println(word == null ? "(no longer in the dictionary)" : word.getWordExplain());
+
+            int quality = -1;
+            while (quality < 0 || quality > 5) {
+                System.out.print("How well did you remember it? [0-5]: ");
+                try {
+                    quality = Integer.parseInt(scanner.nextLine().trim());
+                } catch (NumberFormatException e) {
+                    quality = -1;
+                }
+            }
+            scheduler.record(ReviewScheduler.LOCAL_USER, target, quality, System.currentTimeMillis());
+        }
+        scheduler.save();
+        System.out.println("Press any key to continue...");
+        scanner.nextLine();
+    }
+
+    /**
+     * Undoes the last edit, such as an add, remove, update or import.
+     */
+    private void undoEdit() {
+        String label = manager.undo();
+        System.out.println(label != null ? "Undid " + label + "." : "Nothing to undo.");
+    }
+
+    /**
+     * Applies the last undone edit again.
+     */
+    private void redoEdit() {
+        String label = manager.redo();
+        System.out.println(label != null ? "Redid " + label + "." : "Nothing to redo.");
+    }
+
+    /**
+     * Prints the dictionary metrics: operation counts and latencies, lookup hit rate and sizes.
+     */
+    private void showStatistics() {
+        System.out.print(DictionaryMetrics.getInstance().report());
+        System.out.println("Press any key to continue...");
+        new Scanner(System.in).nextLine();
+    }
+
     /**
      * Shows the main menu and returns the user's choice.
      *
@@ -152,7 +258,11 @@ public class DictionaryCommandline {
                 "[6] Search\n" +
                 "[7] Game\n" +
                 "[8] Import from file\n" +
-                "[9] Export to file");
+                "[9] Export to file\n" +
+                "[10] Review\n" +
+                "[11] Statistics\n" +
+                "[12] Undo\n" +
+                "[13] Redo");
         Scanner input = new Scanner(System.in);
         System.out.print("Your action: ");
         return input.nextInt();
@@ -166,14 +276,54 @@ public class DictionaryCommandline {
         manager.importFromFile();
     }
 
+    /**
+     * Runs commands from a file or the standard input without the menu, writing results to the standard
+     * output and a summary to the standard error.
+     *
+     * @param inputPath the command file, or null or "-" for the standard input
+     * @return the exit code: 0 if every command succeeded, 1 if some words were not found,
+     * 2 if some lines were invalid, 3 if the input or output failed
+     */
+    private static int runBatch(String inputPath) {
+        long start = System.nanoTime();
+        BatchProcessor processor = new BatchProcessor();
+        try (BufferedReader in = (inputPath == null || inputPath.equals("-"))
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(inputPath), StandardCharsets.UTF_8);
+             Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+                     StandardCharsets.UTF_8), 1 << 16)) {
+            processor.process(in, out);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 3;
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Processed %d commands in %.2f s (%.0f per second): %d ok, %d not found, %d errors%n",
+                processor.getCommandCount(), seconds, processor.getCommandCount() / seconds,
+                processor.getCount(BatchProcessor.Status.OK), processor.getCount(BatchProcessor.Status.NOT_FOUND),
+                processor.getCount(BatchProcessor.Status.ERROR));
+        if (processor.getCount(BatchProcessor.Status.ERROR) > 0) {
+            return 2;
+        }
+        return processor.getCount(BatchProcessor.Status.NOT_FOUND) > 0 ? 1 : 0;
+    }
+
+    /**
+     * Starts the interactive menu, or batch mode with "--batch [file]".
+     */
     public static void main(String[] args) {
         loadDictionaryFromFile();
+        if (args.length > 0 && args[0].equals("--batch")) {
+            exit(runBatch(args.length > 1 ? args[1] : null));
+        }
         DictionaryCommandline app = new DictionaryCommandline();
 
         while (true) {
             int choice = app.showMenu();
             switch (choice) {
                 case 0:
+                    ReviewScheduler.getInstance().save();
                     exit(0);
                     break;
                 case 1:
@@ -203,6 +353,18 @@ public class DictionaryCommandline {
                 case 9:
                     app.manager.exportToFile("output.txt");
                     break;
+                case 10:
+                    app.reviewWords();
+                    break;
+                case 11:
+                    app.showStatistics();
+                    break;
+                case 12:
+                    app.undoEdit();
+                    break;
+                case 13:
+                    app.redoEdit();
+                    break;
                 default:
                     System.out.println("Invalid action.");
             }
@@ -0,0 +1,92 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder events for dictionary operations.
+ * They cost almost nothing unless a recording is running, e.g. one started with
+ * -XX:StartFlightRecording or "jcmd &lt;pid&gt; JFR.start".
+ */
+public final class DictionaryEvents {
+
+    private DictionaryEvents() {
+    }
+
+    /**
+     * Base class of the dictionary events.
+     */
+    @Category("Dictionary")
+    public abstract static class DictionaryEvent extends Event {
+        @Label("Success")
+        boolean success;
+    }
+
+    @Name("dictionary.Import")
+    @Label("Dictionary Import")
+    @Description("Import of the dictionary file")
+    public static class Import extends DictionaryEvent {
+        @Label("Words")
+        int words;
+
+        @Label("File Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("dictionary.Export")
+    @Label("Dictionary Export")
+    @Description("Export of all words to a file")
+    public static class Export extends DictionaryEvent {
+        @Label("Path")
+        String path;
+
+        @Label("Words")
+        int words;
+    }
+
+    /**
+     * Lookups are frequent, so only slow ones are recorded by default and without a stack trace.
+     */
+    @Name("dictionary.Lookup")
+    @Label("Dictionary Lookup")
+    @Description("Lookup of one headword")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    public static class Lookup extends DictionaryEvent {
+        @Label("Word")
+        String word;
+
+        @Label("Hit")
+        boolean hit;
+    }
+
+    @Name("dictionary.Translate")
+    @Label("Translate")
+    @Description("Call to the translation service")
+    public static class Translate extends DictionaryEvent {
+        @Label("Source Language")
+        String sourceLang;
+
+        @Label("Target Language")
+        String targetLang;
+
+        @Label("Characters")
+        int characters;
+    }
+
+    @Name("dictionary.Speak")
+    @Label("Speak")
+    @Description("Download and playback of text-to-speech audio")
+    public static class Speak extends DictionaryEvent {
+        @Label("Language")
+        String lang;
+
+        @Label("Characters")
+        int characters;
+    }
+}
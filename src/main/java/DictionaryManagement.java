@@ -1,8 +1,16 @@
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
 
 /**
  * Manages dictionary operations such as adding, editing, removing words, and translating text.
@@ -11,8 +19,61 @@ public class DictionaryManagement {
 
     private static final String DICTIONARY_FILE_PATH =
             DictionaryManagement.class.getResource("/dictionaries.txt").getPath();
+    private static final int LEMMA_CACHE_SIZE = 4096;
+    // The frozen dictionary never changes, so its cache entries use a version the trie never has
+    private static final long FROZEN_VERSION = -1;
+    // Undo keeps this many edits, holding on to at most this many replaced nodes, about 30 MB. That is
+    // enough to undo re-importing a 100,000-word dictionary, which replaces its 330,000 nodes
+    private static final int UNDO_STEPS = 100;
+    private static final long UNDO_RETAINED_NODES = 350_000;
     private static DictionaryManagement instance = null;
     private final Dictionary dictionary = Dictionary.getInstance();
+    private final DictionaryMetrics metrics = DictionaryMetrics.getInstance();
+    private final Lemmatizer lemmatizer = new Lemmatizer(LEMMA_CACHE_SIZE);
+    private final EditHistory history = new EditHistory(UNDO_STEPS, UNDO_RETAINED_NODES);
+    private final ConcurrentHashMap<String, OverlayDictionary> overlays = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private volatile FrozenDictionary frozen = null;
+    private volatile SuffixIndex frozenSuffixIndex = null;
+    private PhoneticIndex frozenPhoneticIndex = null;
+    private LengthIndex frozenLengthIndex = null;
+
+    /**
+     * The ordinals of the frozen dictionary's words grouped by length, for random words and word
+     * lists of one length, which the trie answers from its per-node length counts.
+     */
+    private static class LengthIndex {
+        // The words of length n, in trie order, are ordinals[starts[n]] to ordinals[starts[n + 1] - 1]
+        final int[] ordinals;
+        final int[] starts;
+
+        LengthIndex(FrozenDictionary frozenDictionary) {
+            ArrayList<Word> words = frozenDictionary.queryAllWords();
+            int maxLength = 0;
+            for (Word word : words) {
+                maxLength = Math.max(maxLength, word.getWordTarget().length());
+            }
+            starts = new int[maxLength + 2];
+            for (Word word : words) {
+                starts[word.getWordTarget().length() + 1]++;
+            }
+            for (int length = 1; length < starts.length; length++) {
+                starts[length] += starts[length - 1];
+            }
+            ordinals = new int[words.size()];
+            int[] next = Arrays.copyOf(starts, maxLength + 1);
+            for (int i = 0; i < words.size(); i++) {
+                ordinals[next[words.get(i).getWordTarget().length()]++] = i;
+            }
+        }
+
+        /**
+         * Gets the position in ordinals of the first word of at least a length.
+         */
+        int start(long length) {
+            return starts[(int) Math.max(0, Math.min(length, starts.length - 1))];
+        }
+    }
 
     private DictionaryManagement() {
     }
@@ -22,7 +83,7 @@ public class DictionaryManagement {
      *
      * @return the singleton instance
      */
-    public static DictionaryManagement getInstance() {
+    public static synchronized DictionaryManagement getInstance() {
         if (instance == null) {
             instance = new DictionaryManagement();
         }
@@ -35,48 +96,380 @@ public class DictionaryManagement {
      * @return a list of all words
      */
     public ArrayList<Word> getAllWords() {
-        ArrayList<Word> words = dictionary.queryAllWords();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null ? frozenDictionary.queryAllWords() : dictionary.queryAllWords();
         return words != null ? new ArrayList<>(words) : new ArrayList<>();
     }
 
+    /**
+     * Checks whether the dictionary file has been imported.
+     * This never blocks, unlike dictionary queries made while an import is running.
+     *
+     * @return true once an import from file has finished
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Gets the number of words in the dictionary.
+     *
+     * @return the number of words
+     */
+    public int getWordCount() {
+        FrozenDictionary frozenDictionary = frozen;
+        return frozenDictionary != null ? frozenDictionary.size() : dictionary.size();
+    }
+
+    /**
+     * Switches to read-only mode for deployments that never change the words after loading.
+     * The dictionary is converted to a FrozenDictionary, which serves every read from then on,
+     * including the games and browsing, and the trie is cleared to free its memory. Adding, editing,
+     * removing and importing words fail afterwards. Edits and the switch are serialized, so no edit
+     * can land between the conversion and the switch and be lost.
+     *
+     * @return the frozen dictionary
+     */
+    public FrozenDictionary freeze() {
+        synchronized (history) {
+            if (frozen != null) {
+                return frozen;
+            }
+            FrozenDictionary frozenDictionary = dictionary.freeze();
+            frozen = frozenDictionary;
+            dictionary.clear();
+            history.clear();
+            return frozenDictionary;
+        }
+    }
+
+    /**
+     * Checks whether a word has only characters the dictionary can store.
+     *
+     * @param word the word
+     * @return true if addWord would store the word rather than reject it
+     */
+    public boolean isValidWord(String word) {
+        return dictionary.isValidWord(word);
+    }
+
+    /**
+     * Checks whether the dictionary has been frozen.
+     *
+     * @return true after freeze()
+     */
+    public boolean isFrozen() {
+        return frozen != null;
+    }
+
+    /**
+     * Fails if the dictionary has been frozen. Edits call it while holding the history lock, so the
+     * dictionary cannot be frozen before the edit that passed the check is done.
+     *
+     * @throws IllegalStateException if the dictionary is read-only
+     */
+    private void requireMutable() {
+        if (frozen != null) {
+            throw new IllegalStateException("The dictionary is frozen");
+        }
+    }
+
+    /**
+     * Computes structural statistics of the dictionary trie, to watch fragmentation after deletes.
+     *
+     * @return the statistics
+     */
+    public Trie.Stats getTrieStats() {
+        return dictionary.getStats();
+    }
+
+    /**
+     * Rebuilds the dictionary trie without dead nodes and unused slots. Compaction also runs by itself
+     * in the background after many deletes.
+     *
+     * @return true if the compacted trie was swapped in, false if a concurrent change got in the way
+     */
+    public boolean compact() {
+        return dictionary.compact();
+    }
+
+    /**
+     * Picks a uniformly random word whose length is within a range.
+     *
+     * @param random    the random number generator
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @return a random matching word, or null if there is none
+     */
+    public Word getRandomWord(Random random, int minLength, int maxLength) {
+        FrozenDictionary frozenDictionary = frozen;
+        if (frozenDictionary == null) {
+            return dictionary.randomWord(random, minLength, maxLength);
+        }
+        LengthIndex index = frozenLengthIndex(frozenDictionary);
+        int from = index.start(minLength);
+        int to = index.start((long) maxLength + 1);
+        return from < to ? frozenDictionary.wordAt(index.ordinals[from + random.nextInt(to - from)]) : null;
+    }
+
+    /**
+     * Gets all words of a length, such as to build a Wordle word bank.
+     *
+     * @param length the word length
+     * @return the words of that length in trie order
+     */
+    public ArrayList<Word> getWordsOfLength(int length) {
+        FrozenDictionary frozenDictionary = frozen;
+        if (frozenDictionary == null) {
+            return dictionary.getWordsOfLength(length);
+        }
+        LengthIndex index = frozenLengthIndex(frozenDictionary);
+        int to = index.start((long) length + 1);
+        ArrayList<Word> words = new ArrayList<>();
+        for (int i = index.start(length); i < to; i++) {
+            words.add(frozenDictionary.wordAt(index.ordinals[i]));
+        }
+        return words;
+    }
+
+    /**
+     * Gets a version number that changes whenever words are added or removed, so caches built from
+     * the words, such as the Wordle word banks, can tell when they are stale.
+     *
+     * @return the headword version
+     */
+    public long getHeadwordVersion() {
+        return frozen != null ? FROZEN_VERSION : dictionary.getHeadwordVersion();
+    }
+
+    /**
+     * Computes the number of words that come before a word in trie order. The word need not be in
+     * the dictionary.
+     *
+     * @param word the word to rank
+     * @return the rank of the word
+     */
+    public int rank(String word) {
+        FrozenDictionary frozenDictionary = frozen;
+        return frozenDictionary != null ? frozenDictionary.rank(word.toLowerCase()) : dictionary.rank(word);
+    }
+
+    /**
+     * Selects the word with the given rank in trie order.
+     *
+     * @param k the rank, from 0 to getWordCount() - 1
+     * @return the k-th word, or null if k is out of range
+     */
+    public Word select(int k) {
+        FrozenDictionary frozenDictionary = frozen;
+        if (frozenDictionary == null) {
+            return dictionary.select(k);
+        }
+        return k >= 0 && k < frozenDictionary.size() ? frozenDictionary.wordAt(k) : null;
+    }
+
+    /**
+     * Counts the words starting with a prefix.
+     *
+     * @param prefix the prefix
+     * @return the number of words with the prefix
+     */
+    public int countPrefix(String prefix) {
+        FrozenDictionary frozenDictionary = frozen;
+        return frozenDictionary != null ? frozenDictionary.countPrefix(prefix) : dictionary.countPrefix(prefix);
+    }
+
     /**
      * Imports words from a file into the dictionary.
      * The file should be located at src/main/resources/dictionaries.txt.
      */
     public void importFromFile() {
-        String filePath = System.getProperty("user.dir") + "/src/main/resources/dictionaries.txt";
-        try (Scanner scanner = new Scanner(new FileReader(filePath))) {
-            dictionary.importWords(scanner);
+        importFromFile(fraction -> {
+        });
+    }
+
+    /**
+     * Imports words from a file into the dictionary, reporting how much of the file has been read.
+     * The file should be located at src/main/resources/dictionaries.txt.
+     *
+     * @param onProgress called with the fraction of the file read so far, between 0 and 1
+     */
+    public void importFromFile(DoubleConsumer onProgress) {
+        requireMutable();
+        File file = new File(System.getProperty("user.dir") + "/src/main/resources/dictionaries.txt");
+        DictionaryEvents.Import event = new DictionaryEvents.Import();
+        long start = metrics.begin(event);
+        boolean success = false;
+        try (Scanner scanner = new Scanner(new ProgressInputStream(new FileInputStream(file), file.length(), onProgress),
+                StandardCharsets.UTF_8)) {
+            if (loaded) {
+                recordEdit("import", () -> {
+                    dictionary.importWords(scanner);
+                    return null;
+                });
+            } else {
+                synchronized (history) {
+                    requireMutable();
+                    dictionary.importWords(scanner); // loading the dictionary at startup is not an edit to undo
+                }
+            }
+            loaded = true;
+            success = true;
+            onProgress.accept(1);
         } catch (FileNotFoundException e) {
             e.printStackTrace();
+        } finally {
+            event.words = dictionary.size();
+            event.bytes = file.length();
+            metrics.recordImport(event.words, event.bytes);
+            metrics.end(DictionaryMetrics.Operation.IMPORT, event, start, success);
         }
     }
 
     /**
      * Exports all words in the dictionary to a specified file.
+     * The export writes a snapshot, so edits made meanwhile neither wait for it nor show up in the file.
+     * The file is written in UTF-8, like the dictionary file that importFromFile reads.
      *
      * @param outputPath the path of the output file
      */
     public void exportToFile(String outputPath) {
-        try (PrintStream out = new PrintStream(new FileOutputStream(outputPath))) {
-            PrintStream originalOut = System.out; // Store original System.out
-            System.setOut(out); // Redirect System.out to the file
-            dictionary.exportWords(); // Export dictionary words
-            System.setOut(originalOut); // Restore original System.out
+        DictionaryEvents.Export event = new DictionaryEvents.Export();
+        long start = metrics.begin(event);
+        boolean success = false;
+        // Lines go to the file's own stream rather than a redirected System.out, which other threads print to
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(outputPath)), false,
+                StandardCharsets.UTF_8)) {
+            forEachWord((word, meaning) -> out.printf("%s\t%s\n", word, meaning.replaceAll("\n", "\\\\")));
+            if (out.checkError()) {
+                throw new IOException("Failed to write " + outputPath);
+            }
+            success = true;
             System.out.println("Dictionary has been exported to file!");
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            event.path = outputPath;
+            event.words = getWordCount();
+            metrics.end(DictionaryMetrics.Operation.EXPORT, event, start, success);
         }
     }
 
     /**
-     * Looks up a word in the dictionary.
+     * Passes every word and its meaning to an action in trie order. The words come from a
+     * snapshot, or from the frozen dictionary, so edits made meanwhile do not show up.
+     *
+     * @param action called with each lower-case word and its meaning
+     */
+    public void forEachWord(BiConsumer<String, String> action) {
+        FrozenDictionary frozenDictionary = frozen;
+        if (frozenDictionary != null) {
+            for (Word word : frozenDictionary.queryAllWords()) {
+                action.accept(word.getWordTarget(), word.getWordExplain());
+            }
+        } else {
+            dictionary.snapshot().forEach(action);
+        }
+    }
+
+    /**
+     * Gets a user's overlay: the user's own added, edited and removed words on top of this shared
+     * dictionary, which the overlay never changes. Overlays also work on a frozen dictionary.
+     *
+     * @param user the user name
+     * @return the user's overlay, created empty on first use
+     */
+    public OverlayDictionary getOverlay(String user) {
+        return overlays.computeIfAbsent(user, name -> new OverlayDictionary(this));
+    }
+
+    /**
+     * Gets a user's overlay without creating one, for reads: a user without an overlay sees this
+     * dictionary as it is.
+     *
+     * @param user the user name
+     * @return the user's overlay, or null if the user has not changed any word
+     */
+    public OverlayDictionary findOverlay(String user) {
+        return overlays.get(user);
+    }
+
+    /**
+     * Describes the user overlays for the statistics report.
+     *
+     * @return the number of overlays and of words changed in them
+     */
+    public String getOverlaySummary() {
+        long changes = 0;
+        for (OverlayDictionary overlay : overlays.values()) {
+            changes += overlay.getChangeCount();
+        }
+        return String.format("%d users, %d changed words", overlays.size(), changes);
+    }
+
+    /**
+     * Looks up a word in the dictionary. An inflected form that is not a headword itself, such as
+     * "running" or "studies", finds its headword instead; compare getWordTarget() with the word to
+     * tell.
      *
      * @param word the word to look up
      * @return the word object if found, null otherwise
      */
     public Word lookupWord(String word) {
-        return dictionary.lookupWord(word);
+        DictionaryEvents.Lookup event = new DictionaryEvents.Lookup();
+        long start = metrics.begin(event);
+        FrozenDictionary frozenDictionary = frozen;
+        Word result = frozenDictionary != null ? frozenDictionary.lookupWord(word) : dictionary.lookupWord(word);
+        if (result == null) {
+            result = frozenDictionary != null
+                    ? lemmatizer.lookup(word, FROZEN_VERSION, frozenDictionary::lookupFirst)
+                    : dictionary.lookupLemma(word, lemmatizer);
+        }
+        event.word = word;
+        event.hit = result != null;
+        metrics.recordLookup(event.hit);
+        metrics.end(DictionaryMetrics.Operation.LOOKUP, event, start, true);
+        return result;
+    }
+
+    /**
+     * Looks up a batch of words, such as all the words of a text, faster than one lookupWord call per
+     * word. Inflected forms find their headwords as with lookupWord.
+     *
+     * @param words the words to look up
+     * @return the word object of each word, or null where it is not found, in the order of the input
+     */
+    public List<Word> lookupAll(List<String> words) {
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        List<Word> results;
+        if (frozenDictionary != null) {
+            results = new ArrayList<>(words.size());
+            for (String word : words) {
+                results.add(frozenDictionary.lookupWord(word));
+            }
+        } else {
+            results = dictionary.lookupAll(words);
+        }
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, frozenDictionary != null
+                        ? lemmatizer.lookup(words.get(i), FROZEN_VERSION, frozenDictionary::lookupFirst)
+                        : dictionary.lookupLemma(words.get(i), lemmatizer));
+            }
+            metrics.recordLookup(results.get(i) != null);
+        }
+        metrics.end(DictionaryMetrics.Operation.LOOKUP_ALL, start, true);
+        return results;
+    }
+
+    /**
+     * Gets the lemmatizer that lookups fall back on, for its cache statistics.
+     *
+     * @return the lemmatizer
+     */
+    public Lemmatizer getLemmatizer() {
+        return lemmatizer;
     }
 
     /**
@@ -86,8 +479,189 @@ public class DictionaryManagement {
      * @return a list of words with the given prefix
      */
     public ArrayList<Word> searchWords(String prefix) {
-        ArrayList<Word> words = dictionary.getProposedString(prefix);
-        return words != null ? new ArrayList<>(words) : new ArrayList<>();
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null
+                ? frozenDictionary.getProposedString(prefix) : dictionary.getProposedString(prefix);
+        ArrayList<Word> result = words != null ? new ArrayList<>(words) : new ArrayList<>();
+        metrics.recordSearch(result.size());
+        metrics.end(DictionaryMetrics.Operation.SEARCH, start, true);
+        return result;
+    }
+
+    /**
+     * Searches for one page of words with the given prefix, in trie order.
+     *
+     * @param prefix the prefix to search for
+     * @param after  the last word of the previous page, or null for the first page
+     * @param limit  the maximum number of words to return
+     * @return a list of at most limit words
+     */
+    public ArrayList<Word> searchWords(String prefix, String after, int limit) {
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null
+                ? frozenDictionary.getWordsAfter(prefix, after, limit) : dictionary.getPage(prefix, after, limit);
+        metrics.recordSearch(words.size());
+        metrics.end(DictionaryMetrics.Operation.SEARCH, start, true);
+        return words;
+    }
+
+    /**
+     * Searches for words that are spelled like the given word, for example to correct a typo.
+     *
+     * @param word        the word to match
+     * @param maxDistance the maximum number of inserted, deleted or replaced characters
+     * @param limit       the maximum number of words to return
+     * @return at most limit words, closest first
+     */
+    public ArrayList<Word> fuzzySearch(String word, int maxDistance, int limit) {
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null
+                ? frozenDictionary.getSimilarWords(word, maxDistance, limit) : dictionary.getSimilarWords(word, maxDistance, limit);
+        metrics.end(DictionaryMetrics.Operation.FUZZY_SEARCH, start, true);
+        return words;
+    }
+
+    /**
+     * Searches for words that sound like a word the user spelled the way it is pronounced, such as
+     * "fonetik" for "phonetic". Useful when a lookup fails and edit distance is too strict.
+     *
+     * @param word  the word as the user spelled it
+     * @param limit the maximum number of words to return
+     * @return at most limit words, closest in spelling first
+     */
+    public ArrayList<Word> soundsLike(String word, int limit) {
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words;
+        if (frozenDictionary != null) {
+            words = new ArrayList<>();
+            for (String headword : frozenPhoneticIndex(frozenDictionary).find(word, limit)) {
+                words.add(frozenDictionary.lookupWord(headword));
+            }
+        } else {
+            words = dictionary.getSoundsLike(word, limit);
+        }
+        metrics.end(DictionaryMetrics.Operation.SOUNDS_LIKE, start, true);
+        return words;
+    }
+
+    /**
+     * Gets the phonetic index of the frozen dictionary, building it on first use.
+     */
+    private synchronized PhoneticIndex frozenPhoneticIndex(FrozenDictionary frozenDictionary) {
+        if (frozenPhoneticIndex == null) {
+            PhoneticIndex index = new PhoneticIndex();
+            for (Word word : frozenDictionary.queryAllWords()) {
+                index.add(word.getWordTarget());
+            }
+            frozenPhoneticIndex = index;
+        }
+        return frozenPhoneticIndex;
+    }
+
+    /**
+     * Searches for words matching a crossword-style pattern, such as "c?t", "*ing" or "[aeiou]??e".
+     *
+     * @param pattern the pattern, see WordPattern
+     * @param limit   the maximum number of words to return
+     * @return at most limit words in trie order
+     * @throws IllegalArgumentException if the pattern is malformed
+     */
+    public ArrayList<Word> searchPattern(String pattern, int limit) {
+        return searchPattern(pattern, 0, Integer.MAX_VALUE, limit);
+    }
+
+    /**
+     * Searches for words matching a pattern whose length is within a range.
+     *
+     * @param pattern   the pattern, see WordPattern
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @param limit     the maximum number of words to return
+     * @return at most limit words in trie order
+     * @throws IllegalArgumentException if the pattern is malformed
+     */
+    public ArrayList<Word> searchPattern(String pattern, int minLength, int maxLength, int limit) {
+        long start = metrics.begin();
+        WordPattern compiled = WordPattern.compile(pattern);
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null
+                ? frozenDictionary.getWordsMatching(compiled, minLength, maxLength, limit)
+                : dictionary.getWordsMatching(compiled, minLength, maxLength, limit);
+        metrics.recordSearch(words.size());
+        metrics.end(DictionaryMetrics.Operation.SEARCH, start, true);
+        return words;
+    }
+
+    /**
+     * Searches for words that contain a string anywhere, such as "graph" in "photography".
+     *
+     * @param infix the string to search for
+     * @param limit the maximum number of words to return
+     * @return at most limit words in trie order
+     */
+    public ArrayList<Word> searchContaining(String infix, int limit) {
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null
+                ? frozenWords(frozenDictionary, frozenSuffixIndex(frozenDictionary).findContaining(infix.toLowerCase(), limit))
+                : dictionary.getWordsContaining(infix, limit);
+        metrics.recordSearch(words.size());
+        metrics.end(DictionaryMetrics.Operation.SEARCH, start, true);
+        return words;
+    }
+
+    /**
+     * Searches for words that end with a string, such as "tion".
+     *
+     * @param suffix the ending to search for
+     * @param limit  the maximum number of words to return
+     * @return at most limit words in trie order
+     */
+    public ArrayList<Word> searchEndingWith(String suffix, int limit) {
+        long start = metrics.begin();
+        FrozenDictionary frozenDictionary = frozen;
+        ArrayList<Word> words = frozenDictionary != null
+                ? frozenWords(frozenDictionary, frozenSuffixIndex(frozenDictionary).findEndingWith(suffix.toLowerCase(), limit))
+                : dictionary.getWordsEndingWith(suffix, limit);
+        metrics.recordSearch(words.size());
+        metrics.end(DictionaryMetrics.Operation.SEARCH, start, true);
+        return words;
+    }
+
+    /**
+     * Gets the length index of the frozen dictionary, building it on first use.
+     */
+    private synchronized LengthIndex frozenLengthIndex(FrozenDictionary frozenDictionary) {
+        if (frozenLengthIndex == null) {
+            frozenLengthIndex = new LengthIndex(frozenDictionary);
+        }
+        return frozenLengthIndex;
+    }
+
+    /**
+     * Gets the suffix index of the frozen dictionary, building it on first use.
+     */
+    private synchronized SuffixIndex frozenSuffixIndex(FrozenDictionary frozenDictionary) {
+        if (frozenSuffixIndex == null) {
+            ArrayList<String> headwords = new ArrayList<>(frozenDictionary.size());
+            for (Word word : frozenDictionary.queryAllWords()) {
+                headwords.add(word.getWordTarget());
+            }
+            frozenSuffixIndex = new SuffixIndex(headwords, 0);
+        }
+        return frozenSuffixIndex;
+    }
+
+    private static ArrayList<Word> frozenWords(FrozenDictionary frozenDictionary, int[] ordinals) {
+        ArrayList<Word> words = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            words.add(frozenDictionary.wordAt(ordinal));
+        }
+        return words;
     }
 
     /**
@@ -97,7 +671,12 @@ public class DictionaryManagement {
      * @param meaning the meaning of the word
      */
     public void addWord(String word, String meaning) {
-        dictionary.addWord(word, meaning);
+        long start = metrics.begin();
+        recordEdit("add \"" + word + "\"", () -> {
+            dictionary.addWord(word, meaning);
+            return null;
+        });
+        metrics.end(DictionaryMetrics.Operation.ADD, start, true);
     }
 
     /**
@@ -107,7 +686,37 @@ public class DictionaryManagement {
      * @return true if the word was removed successfully, false otherwise
      */
     public boolean removeWord(String word) {
-        return dictionary.deleteWord(word);
+        long start = metrics.begin();
+        boolean removed = recordEdit("remove \"" + word + "\"", () -> dictionary.deleteWord(word));
+        metrics.end(DictionaryMetrics.Operation.REMOVE, start, removed);
+        return removed;
+    }
+
+    /**
+     * Adds a batch of words, such as the entries of a file, faster than one addWord call per word.
+     *
+     * @param words the words and their meanings
+     * @return for each word in the order of the input, true if it was added as a new word, false if
+     * its meaning was appended to an existing one or it is invalid
+     */
+    public boolean[] addAll(List<Word> words) {
+        long start = metrics.begin();
+        boolean[] added = recordEdit("add " + words.size() + " words", () -> dictionary.addAll(words));
+        metrics.end(DictionaryMetrics.Operation.ADD_ALL, start, true);
+        return added;
+    }
+
+    /**
+     * Removes a batch of words, faster than one removeWord call per word.
+     *
+     * @param words the words to remove
+     * @return for each word in the order of the input, true if it was removed
+     */
+    public boolean[] removeAll(List<String> words) {
+        long start = metrics.begin();
+        boolean[] removed = recordEdit("remove " + words.size() + " words", () -> dictionary.deleteAll(words));
+        metrics.end(DictionaryMetrics.Operation.REMOVE_ALL, start, true);
+        return removed;
     }
 
     /**
@@ -120,7 +729,19 @@ public class DictionaryManagement {
      * @throws IOException if an I/O error occurs
      */
     public String translateText(String text, String sourceLang, String targetLang) throws IOException {
-        return GoogleTranslate.translate(text, sourceLang, targetLang);
+        DictionaryEvents.Translate event = new DictionaryEvents.Translate();
+        long start = metrics.begin(event);
+        boolean success = false;
+        try {
+            String translation = GoogleTranslate.translate(text, sourceLang, targetLang);
+            success = true;
+            return translation;
+        } finally {
+            event.sourceLang = sourceLang;
+            event.targetLang = targetLang;
+            event.characters = text.length();
+            metrics.end(DictionaryMetrics.Operation.TRANSLATE, event, start, success);
+        }
     }
 
     /**
@@ -134,7 +755,17 @@ public class DictionaryManagement {
      */
     public void speakText(String text, String lang)
             throws IOException, UnsupportedAudioFileException, LineUnavailableException {
-        GoogleTranslate.speak(text, lang);
+        DictionaryEvents.Speak event = new DictionaryEvents.Speak();
+        long start = metrics.begin(event);
+        boolean success = false;
+        try {
+            GoogleTranslate.speak(text, lang);
+            success = true;
+        } finally {
+            event.lang = lang;
+            event.characters = text.length();
+            metrics.end(DictionaryMetrics.Operation.SPEAK, event, start, success);
+        }
     }
 
     /**
@@ -145,6 +776,152 @@ public class DictionaryManagement {
      * @return true if the word was edited successfully, false otherwise
      */
     public boolean editWord(String word, String newMeaning) {
-        return dictionary.editWord(word, newMeaning);
+        long start = metrics.begin();
+        boolean edited = recordEdit("edit \"" + word + "\"", () -> dictionary.editWord(word, newMeaning));
+        metrics.end(DictionaryMetrics.Operation.EDIT, start, edited);
+        return edited;
+    }
+
+    /**
+     * Undoes the most recent edit that has not been undone yet, such as an add, edit, remove or import.
+     * Only the words the edit changed are touched, so this is fast even for a large dictionary.
+     *
+     * @return the description of the undone edit, such as "add \"apple\"", or null if there is none
+     */
+    public String undo() {
+        long start = metrics.begin();
+        String label = null;
+        synchronized (history) {
+            requireMutable();
+            String undoLabel = history.getUndoLabel();
+            PersistentTrie version = history.undo(dictionary.snapshot());
+            if (version != null) {
+                dictionary.restore(version);
+                label = undoLabel;
+            }
+        }
+        metrics.end(DictionaryMetrics.Operation.UNDO, start, label != null);
+        return label;
+    }
+
+    /**
+     * Applies the most recently undone edit again. Any new edit after an undo discards what could be
+     * redone.
+     *
+     * @return the description of the redone edit, or null if there is none
+     */
+    public String redo() {
+        long start = metrics.begin();
+        String label = null;
+        synchronized (history) {
+            requireMutable();
+            String redoLabel = history.getRedoLabel();
+            PersistentTrie version = history.redo(dictionary.snapshot());
+            if (version != null) {
+                dictionary.restore(version);
+                label = redoLabel;
+            }
+        }
+        metrics.end(DictionaryMetrics.Operation.REDO, start, label != null);
+        return label;
+    }
+
+    /**
+     * Gets the description of the edit that undo() would revert.
+     *
+     * @return the description, or null if there is nothing to undo
+     */
+    public String getUndoLabel() {
+        synchronized (history) {
+            return history.getUndoLabel();
+        }
+    }
+
+    /**
+     * Gets the description of the edit that redo() would apply again.
+     *
+     * @return the description, or null if there is nothing to redo
+     */
+    public String getRedoLabel() {
+        synchronized (history) {
+            return history.getRedoLabel();
+        }
+    }
+
+    /**
+     * Describes the undo history for the statistics report.
+     *
+     * @return the number of undo and redo steps and the trie nodes they keep alive
+     */
+    public String getHistorySummary() {
+        synchronized (history) {
+            return String.format("%d undo, %d redo steps, %d retained nodes",
+                    history.getUndoCount(), history.getRedoCount(), history.getRetainedNodes());
+        }
+    }
+
+    /**
+     * Takes a point-in-time view of the words, in O(1). Queries on the view see neither the edits
+     * made after it was taken nor any half-applied edit. It is empty once the dictionary is frozen,
+     * as the frozen dictionary itself never changes.
+     *
+     * @return the current version of the dictionary
+     */
+    public PersistentTrie snapshot() {
+        return dictionary.snapshot();
+    }
+
+    /**
+     * Runs an edit and records it in the undo history. Edits are serialized on the history, so the
+     * versions before and after belong to this edit alone, and freezing cannot come in between.
+     *
+     * @param label a short description of the edit
+     * @param edit  the edit
+     * @param <T>   the result type
+     * @return the result of the edit
+     * @throws IllegalStateException if the dictionary is frozen
+     */
+    private <T> T recordEdit(String label, Supplier<T> edit) {
+        synchronized (history) {
+            requireMutable();
+            PersistentTrie before = dictionary.snapshot();
+            T result = edit.get();
+            history.record(label, before, dictionary.snapshot());
+            return result;
+        }
+    }
+
+    /**
+     * Input stream that reports the fraction of a file read so far.
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+        private final long totalBytes;
+        private final DoubleConsumer onProgress;
+        private long bytesRead = 0;
+
+        ProgressInputStream(InputStream in, long totalBytes, DoubleConsumer onProgress) {
+            super(in);
+            this.totalBytes = Math.max(totalBytes, 1);
+            this.onProgress = onProgress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                bytesRead += count;
+                onProgress.accept(Math.min(1.0, (double) bytesRead / totalBytes));
+            }
+            return count;
+        }
     }
 }
@@ -0,0 +1,294 @@
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Singleton metrics for DictionaryManagement: per-operation counters and latency histograms, lookup hit
+ * and miss counts, and import and search sizes. Recording uses LongAdders and the lock-free
+ * LatencyHistogram and allocates nothing, so it is always on. The metrics are published over JMX as
+ * DictionaryApp:type=DictionaryMetrics and printed by the command line Statistics action.
+ */
+public class DictionaryMetrics implements DictionaryMetricsMXBean {
+
+    /**
+     * The instrumented dictionary operations.
+     */
+    public enum Operation {
+        IMPORT, EXPORT, LOOKUP, LOOKUP_ALL, SEARCH, FUZZY_SEARCH, SOUNDS_LIKE, ADD, ADD_ALL, EDIT, REMOVE, REMOVE_ALL,
+        UNDO, REDO, TRANSLATE, SPEAK
+    }
+
+    private static DictionaryMetrics instance = null;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final LongAdder lookupHits = new LongAdder();
+    private final LongAdder lookupMisses = new LongAdder();
+    private final LongAdder searchResults = new LongAdder();
+    private volatile long importedWords = 0;
+    private volatile long importedBytes = 0;
+
+    private DictionaryMetrics() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Gets the singleton instance, registering it with the platform MBean server on first use.
+     *
+     * @return the singleton instance
+     */
+    public static synchronized DictionaryMetrics getInstance() {
+        if (instance == null) {
+            instance = new DictionaryMetrics();
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(instance, new ObjectName("DictionaryApp:type=DictionaryMetrics"));
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return the start time to pass to end
+     */
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Starts timing an operation that also emits a Flight Recorder event.
+     *
+     * @param event the event for the operation
+     * @return the start time to pass to end
+     */
+    public long begin(DictionaryEvents.DictionaryEvent event) {
+        event.begin();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the duration and outcome of an operation.
+     *
+     * @param operation the operation
+     * @param start     the time returned by begin
+     * @param success   false if the operation failed
+     */
+    public void end(Operation operation, long start, boolean success) {
+        latencies.get(operation).record(System.nanoTime() - start);
+        if (!success) {
+            failures.get(operation).increment();
+        }
+    }
+
+    /**
+     * Records an operation and commits its Flight Recorder event if a recording wants it.
+     *
+     * @param operation the operation
+     * @param event     the event passed to begin, with its fields filled in
+     * @param start     the time returned by begin
+     * @param success   false if the operation failed
+     */
+    public void end(Operation operation, DictionaryEvents.DictionaryEvent event, long start, boolean success) {
+        end(operation, start, success);
+        event.end();
+        if (event.shouldCommit()) {
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts a lookup as a hit or a miss.
+     *
+     * @param hit true if the word was found
+     */
+    public void recordLookup(boolean hit) {
+        (hit ? lookupHits : lookupMisses).increment();
+    }
+
+    /**
+     * Records the number of words returned by a prefix search.
+     *
+     * @param results the number of results
+     */
+    public void recordSearch(int results) {
+        searchResults.add(results);
+    }
+
+    /**
+     * Records the size of the last import.
+     *
+     * @param words the number of words in the dictionary after the import
+     * @param bytes the size of the imported file
+     */
+    public void recordImport(int words, long bytes) {
+        importedWords = words;
+        importedBytes = bytes;
+    }
+
+    /**
+     * Gets the latency histogram of an operation.
+     *
+     * @param operation the operation
+     * @return the histogram
+     */
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    @Override
+    public int getWordCount() {
+        return DictionaryManagement.getInstance().getWordCount();
+    }
+
+    @Override
+    public long getLookupHits() {
+        return lookupHits.sum();
+    }
+
+    @Override
+    public long getLookupMisses() {
+        return lookupMisses.sum();
+    }
+
+    @Override
+    public double getLookupHitRate() {
+        long hits = lookupHits.sum();
+        long total = hits + lookupMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public long getImportedWords() {
+        return importedWords;
+    }
+
+    @Override
+    public long getImportedBytes() {
+        return importedBytes;
+    }
+
+    @Override
+    public double getMeanSearchResults() {
+        long searches = latencies.get(Operation.SEARCH).getCount();
+        return searches == 0 ? 0 : (double) searchResults.sum() / searches;
+    }
+
+    @Override
+    public Map<String, OperationStats> getOperations() {
+        Map<String, OperationStats> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            operations.put(operation.name().toLowerCase(),
+                    new OperationStats(latencies.get(operation), failures.get(operation).sum()));
+        }
+        return operations;
+    }
+
+    @Override
+    public void reset() {
+        latencies.values().forEach(LatencyHistogram::reset);
+        failures.values().forEach(LongAdder::reset);
+        lookupHits.reset();
+        lookupMisses.reset();
+        searchResults.reset();
+    }
+
+    /**
+     * Computes the trie structure statistics. This visits every node, so it is an operation rather
+     * than an attribute that JMX consoles poll.
+     *
+     * @return the statistics as text
+     */
+    @Override
+    public String trieStats() {
+        return Dictionary.getInstance().getStats().toString();
+    }
+
+    @Override
+    public boolean compactTrie() {
+        return Dictionary.getInstance().compact();
+    }
+
+    /**
+     * Builds a report of all metrics.
+     *
+     * @return the report, one line per operation that has run
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Words: %d, last import: %d words from %d bytes%n",
+                getWordCount(), importedWords, importedBytes));
+        report.append(String.format("Lookups: %d hits, %d misses, hit rate %.1f%%%n",
+                getLookupHits(), getLookupMisses(), getLookupHitRate() * 100));
+        report.append(String.format("Mean search results: %.1f%n", getMeanSearchResults()));
+        Lemmatizer lemmatizer = DictionaryManagement.getInstance().getLemmatizer();
+        report.append(String.format("Lemma cache: %d hits, %d misses, hit rate %.1f%%%n",
+                lemmatizer.getHits(), lemmatizer.getMisses(), lemmatizer.getHitRate() * 100));
+        report.append(String.format("Undo history: %s%n", DictionaryManagement.getInstance().getHistorySummary()));
+        report.append(String.format("User overlays: %s%n", DictionaryManagement.getInstance().getOverlaySummary()));
+        report.append(String.format("Trie: %s%n", trieStats()));
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            if (histogram.getCount() > 0) {
+                report.append(String.format("%-13s failed=%d %s%n", operation.name().toLowerCase(),
+                        failures.get(operation).sum(), histogram));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Snapshot of one operation's metrics, shown as a composite value over JMX.
+     */
+    public static class OperationStats {
+        private final long count;
+        private final long failures;
+        private final double meanMicros;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        OperationStats(LatencyHistogram histogram, long failures) {
+            this.count = histogram.getCount();
+            this.failures = failures;
+            this.meanMicros = histogram.getMeanNanos() / 1000;
+            this.p50Micros = histogram.getPercentileNanos(50) / 1000;
+            this.p99Micros = histogram.getPercentileNanos(99) / 1000;
+            this.maxMicros = histogram.getMaxNanos() / 1000;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+    }
+}
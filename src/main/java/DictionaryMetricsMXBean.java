@@ -0,0 +1,29 @@
+import java.util.Map;
+
+/**
+ * JMX view of the dictionary metrics, registered as DictionaryApp:type=DictionaryMetrics.
+ */
+public interface DictionaryMetricsMXBean {
+
+    int getWordCount();
+
+    long getLookupHits();
+
+    long getLookupMisses();
+
+    double getLookupHitRate();
+
+    long getImportedWords();
+
+    long getImportedBytes();
+
+    double getMeanSearchResults();
+
+    Map<String, DictionaryMetrics.OperationStats> getOperations();
+
+    void reset();
+
+    String trieStats();
+
+    boolean compactTrie();
+}
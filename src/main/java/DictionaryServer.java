@@ -0,0 +1,449 @@
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Headless HTTP server that serves the dictionary as JSON, using the JDK's built-in HTTP server.
+ * Endpoints:
+ * <pre>
+ * GET    /lookup?word=w                        the word and its meaning, or 404
+ * GET    /prefix?q=p[&amp;after=w][&amp;limit=n]      one page of words starting with p
+ * GET    /fuzzy?q=w[&amp;distance=d][&amp;limit=n]    words spelled like w, closest first
+ * POST   /words {"word": w, "meaning": m}      adds a word, or 400 if it has unsupported characters
+ * PUT    /words {"word": w, "meaning": m}      edits a word, or 404
+ * DELETE /words?word=w                         deletes a word, or 404
+ * GET    /export                               every word and its meaning
+ * </pre>
+ * Every endpoint takes an optional user=u parameter. With it, the request reads and changes that
+ * user's overlay, which stacks the user's own words over the shared dictionary without changing it,
+ * also when the shared dictionary is frozen.
+ * Requests run on a fixed pool of worker threads with a bounded queue. When the queue is full the
+ * request is answered at once with 503 and a Retry-After header instead of being queued, so the
+ * number of requests in flight is bounded. Connections are kept alive, and word lists are gzipped
+ * for clients that accept it. Responses are written with Gson's streaming writer, so no JSON tree
+ * is built.
+ */
+public class DictionaryServer {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_DISTANCE = 3;
+    // Set while a request that did not fit in the queue runs on the server's dispatcher thread
+    private static final ThreadLocal<Boolean> SHEDDING = ThreadLocal.withInitial(() -> false);
+
+    private final DictionaryManagement manager = DictionaryManagement.getInstance();
+    private final HttpServer server;
+    private final ThreadPoolExecutor workers;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a server. The dictionary should already be imported.
+     * Headers and chunks are separate writes, so unless the JVM runs with
+     * -Dsun.net.httpserver.nodelay=true, as main sets it, each response waits for a delayed ACK.
+     *
+     * @param port     the port, or 0 for any free port
+     * @param threads  the number of worker threads
+     * @param maxQueue the number of requests that may wait for a worker before new ones are rejected
+     * @throws IOException if the port cannot be bound
+     */
+    public DictionaryServer(int port, int threads, int maxQueue) throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueue),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dictionary-http-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    SHEDDING.set(true);
+                    try {
+                        task.run();
+                    } finally {
+                        SHEDDING.set(false);
+                    }
+                });
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(workers);
+        server.createContext("/lookup", exchange -> handle(exchange, "GET", this::lookup));
+        server.createContext("/prefix", exchange -> handle(exchange, "GET", this::prefix));
+        server.createContext("/fuzzy", exchange -> handle(exchange, "GET", this::fuzzy));
+        server.createContext("/words", exchange -> handle(exchange, null, this::words));
+        server.createContext("/export", exchange -> handle(exchange, "GET", this::export));
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, giving requests in progress up to a second to finish.
+     */
+    public void stop() {
+        server.stop(1);
+        workers.shutdown();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of requests rejected because the server was overloaded.
+     *
+     * @return the number of 503 responses
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private void lookup(HttpExchange exchange) throws IOException {
+        OverlayDictionary overlay = overlay(exchange);
+        String lookedUp = requireParameter(exchange, "word");
+        Word word = overlay != null ? overlay.lookupWord(lookedUp) : manager.lookupWord(lookedUp);
+        if (word == null) {
+            sendError(exchange, 404, "Word not found");
+            return;
+        }
+        send(exchange, 200, false, json -> writeWord(json, word));
+    }
+
+    private void prefix(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parameters(exchange);
+        String prefix = parameters.getOrDefault("q", "");
+        int limit = intParameter(parameters, "limit", 50, 1, MAX_LIMIT);
+        OverlayDictionary overlay = overlay(exchange);
+        List<Word> words = overlay != null
+                ? overlay.searchWords(prefix, parameters.get("after"), limit)
+                : manager.searchWords(prefix, parameters.get("after"), limit);
+        send(exchange, 200, true, json -> {
+            json.beginObject();
+            writeWordArray(json, words);
+            // The client passes the last word as "after" to get the next page
+            json.name("next").value(!words.isEmpty() && words.size() == limit
+                    ? words.get(words.size() - 1).getWordTarget() : null);
+            json.endObject();
+        });
+    }
+
+    private void fuzzy(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parameters(exchange);
+        String word = parameters.get("q");
+        if (word == null || word.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: q");
+        }
+        int distance = intParameter(parameters, "distance", 2, 0, MAX_DISTANCE);
+        int limit = intParameter(parameters, "limit", 20, 1, MAX_LIMIT);
+        OverlayDictionary overlay = overlay(exchange);
+        List<Word> words = overlay != null
+                ? overlay.fuzzySearch(word, distance, limit) : manager.fuzzySearch(word, distance, limit);
+        send(exchange, 200, true, json -> {
+            json.beginObject();
+            writeWordArray(json, words);
+            json.endObject();
+        });
+    }
+
+    private void words(HttpExchange exchange) throws IOException {
+        OverlayDictionary overlay = overlay(exchange);
+        switch (exchange.getRequestMethod()) {
+            case "POST": {
+                String[] entry = readEntry(exchange);
+                if (overlay != null) {
+                    if (!overlay.addWord(entry[0], entry[1])) {
+                        throw new IllegalArgumentException("Invalid word");
+                    }
+                } else {
+                    if (!manager.isValidWord(entry[0])) {
+                        throw new IllegalArgumentException("Invalid word");
+                    }
+                    manager.addWord(entry[0], entry[1]);
+                }
+                send(exchange, 201, false, json -> json.beginObject().name("added").value(entry[0]).endObject());
+                break;
+            }
+            case "PUT": {
+                String[] entry = readEntry(exchange);
+                boolean edited = overlay != null
+                        ? overlay.editWord(entry[0], entry[1]) : manager.editWord(entry[0], entry[1]);
+                if (!edited) {
+                    sendError(exchange, 404, "Word not found");
+                    return;
+                }
+                send(exchange, 200, false, json -> json.beginObject().name("edited").value(entry[0]).endObject());
+                break;
+            }
+            case "DELETE": {
+                String word = requireParameter(exchange, "word");
+                boolean removed = overlay != null ? overlay.removeWord(word) : manager.removeWord(word);
+                if (!removed) {
+                    sendError(exchange, 404, "Word not found");
+                    return;
+                }
+                send(exchange, 200, false, json -> json.beginObject().name("deleted").value(word).endObject());
+                break;
+            }
+            default:
+                exchange.getResponseHeaders().set("Allow", "POST, PUT, DELETE");
+                sendError(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void export(HttpExchange exchange) throws IOException {
+        OverlayDictionary overlay = overlay(exchange);
+        send(exchange, 200, true, json -> {
+            json.beginObject();
+            json.name("words").beginArray();
+            BiConsumer<String, String> writeEntry = (word, meaning) -> {
+                try {
+                    json.beginObject().name("word").value(word).name("meaning").value(meaning).endObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                if (overlay != null) {
+                    overlay.forEachWord(writeEntry);
+                } else {
+                    manager.forEachWord(writeEntry);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            json.endArray();
+            json.endObject();
+        });
+    }
+
+    /**
+     * Gets the overlay of the user named in the request. Only requests that change words create one,
+     * so users who only read cost nothing.
+     *
+     * @return the overlay, or null if the request has no user parameter or reads for a user without one
+     */
+    private OverlayDictionary overlay(HttpExchange exchange) {
+        String user = parameters(exchange).get("user");
+        if (user == null || user.isEmpty()) {
+            return null;
+        }
+        return exchange.getRequestMethod().equals("GET") ? manager.findOverlay(user) : manager.getOverlay(user);
+    }
+
+    /**
+     * Runs a route, turning bad input into 400 and unexpected errors into 500, and rejecting the
+     * request with 503 if it did not fit in the worker queue.
+     *
+     * @param exchange the request
+     * @param method   the only allowed method, or null if the route checks the method itself
+     * @param route    the route
+     */
+    private void handle(HttpExchange exchange, String method, Route route) {
+        try (exchange) {
+            if (SHEDDING.get()) {
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Server busy");
+            } else if (method != null && !method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                sendError(exchange, 405, "Method not allowed");
+            } else {
+                try {
+                    route.handle(exchange);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    sendError(exchange, 400, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            // The client went away, the exchange is closed above
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Streams a JSON response. Compressible responses are gzipped when the client accepts it.
+     * The length is not known in advance, so the body is sent with chunked encoding, which keeps the
+     * connection reusable.
+     */
+    private void send(HttpExchange exchange, int status, boolean compressible, JsonBody body) throws IOException {
+        boolean gzip = compressible && acceptsGzip(exchange);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        }
+        exchange.sendResponseHeaders(status, 0);
+        OutputStream out = exchange.getResponseBody();
+        if (gzip) {
+            out = new GZIPOutputStream(out, 8192);
+        }
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+            json.setSerializeNulls(true);
+            body.write(json);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, false, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        List<String> encodings = exchange.getRequestHeaders().get("Accept-Encoding");
+        return encodings != null && encodings.stream().anyMatch(value -> value.contains("gzip"));
+    }
+
+    private static void writeWord(JsonWriter json, Word word) throws IOException {
+        json.beginObject();
+        json.name("word").value(word.getWordTarget());
+        json.name("meaning").value(word.getWordExplain());
+        json.endObject();
+    }
+
+    private static void writeWordArray(JsonWriter json, List<Word> words) throws IOException {
+        json.name("words").beginArray();
+        for (Word word : words) {
+            writeWord(json, word);
+        }
+        json.endArray();
+    }
+
+    /**
+     * Reads a {"word": ..., "meaning": ...} request body with the streaming reader.
+     *
+     * @return the word and the meaning
+     */
+    private static String[] readEntry(HttpExchange exchange) throws IOException {
+        String word = null;
+        String meaning = null;
+        try (JsonReader json = new JsonReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "word":
+                        word = json.nextString();
+                        break;
+                    case "meaning":
+                        meaning = json.nextString();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        if (word == null || word.isEmpty() || meaning == null) {
+            throw new IllegalArgumentException("Body must have \"word\" and \"meaning\"");
+        }
+        return new String[]{word, meaning};
+    }
+
+    private static Map<String, String> parameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String requireParameter(HttpExchange exchange, String name) {
+        String value = parameters(exchange).get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    private static int intParameter(Map<String, String> parameters, String name, int defaultValue, int min, int max) {
+        String value = parameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(min, Math.min(Integer.parseInt(value), max));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number");
+        }
+    }
+
+    /**
+     * A request handler that may fail with an IOException.
+     */
+    private interface Route {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Writes a response body.
+     */
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Imports the dictionary and serves it until the process is stopped. Turns on TCP_NODELAY for the
+     * JDK's HTTP server unless the launch command sets sun.net.httpserver.nodelay.
+     * With --frozen the dictionary is frozen after the import: it takes a fraction of the memory, and
+     * requests that change words are answered with 400 unless they name a user.
+     * Usage: DictionaryServer [--frozen] [port] [threads] [queue size]
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        boolean frozen = args.length > 0 && args[0].equals("--frozen");
+        if (frozen) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        int maxQueue = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        DictionaryManagement.getInstance().importFromFile();
+        if (frozen) {
+            System.out.println("Frozen: " + DictionaryManagement.getInstance().freeze());
+        }
+        DictionaryServer server = new DictionaryServer(port, threads, maxQueue);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.printf("Serving %d words on http://localhost:%d with %d threads%n",
+                DictionaryManagement.getInstance().getWordCount(), server.getPort(), threads);
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.ArrayDeque;
+
+/**
+ * Multi-level undo and redo of dictionary edits. Each step keeps the PersistentTrie versions from
+ * before and after an edit; undoing restores the first and redoing restores the second.
+ *
+ * Versions share most of their nodes, so what a step costs is the nodes its edit copied or removed,
+ * which stay alive only because the step keeps the older version. The history keeps at most a number
+ * of steps and at most a number of such nodes, and forgets the oldest steps first. An edit that alone
+ * exceeds the node budget, such as importing over a large dictionary, cannot be undone.
+ * The methods are not synchronized; DictionaryManagement serializes edits and history changes.
+ */
+public class EditHistory {
+
+    private static class Step {
+        final String label;
+        final PersistentTrie before;
+        final PersistentTrie after;
+
+        Step(String label, PersistentTrie before, PersistentTrie after) {
+            this.label = label;
+            this.before = before;
+            this.after = after;
+        }
+
+        int retainedNodes() {
+            return after.getReplacedNodes();
+        }
+    }
+
+    private final int maxSteps;
+    private final long maxRetainedNodes;
+    private final ArrayDeque<Step> undoSteps = new ArrayDeque<>(); // newest first
+    private final ArrayDeque<Step> redoSteps = new ArrayDeque<>(); // next to redo first
+    private long retainedNodes = 0;
+
+    /**
+     * Constructs an empty history.
+     *
+     * @param maxSteps         the maximum number of undo and redo steps kept
+     * @param maxRetainedNodes the maximum number of trie nodes kept alive only by the history
+     */
+    public EditHistory(int maxSteps, long maxRetainedNodes) {
+        this.maxSteps = maxSteps;
+        this.maxRetainedNodes = maxRetainedNodes;
+    }
+
+    /**
+     * Records an edit. Edits that changed nothing are not recorded, and a new edit discards the steps
+     * that could be redone.
+     *
+     * @param label  a short description, such as "add \"apple\""
+     * @param before the version before the edit
+     * @param after  the version after the edit
+     */
+    public void record(String label, PersistentTrie before, PersistentTrie after) {
+        if (before == after) {
+            return;
+        }
+        for (Step step : redoSteps) {
+            retainedNodes -= step.retainedNodes();
+        }
+        redoSteps.clear();
+        Step step = new Step(label, before, after);
+        undoSteps.push(step);
+        retainedNodes += step.retainedNodes();
+        while (!undoSteps.isEmpty() && (undoSteps.size() > maxSteps || retainedNodes > maxRetainedNodes)) {
+            retainedNodes -= undoSteps.removeLast().retainedNodes();
+        }
+    }
+
+    /**
+     * Takes the step to undo, if the current version is the one it left behind. A version that does
+     * not match means the dictionary was changed without being recorded, such as by a clear, and the
+     * history is dropped.
+     *
+     * @param current the current version
+     * @return the version to restore, or null if there is nothing to undo
+     */
+    public PersistentTrie undo(PersistentTrie current) {
+        Step step = undoSteps.peek();
+        if (step == null) {
+            return null;
+        }
+        if (step.after != current) {
+            clear();
+            return null;
+        }
+        redoSteps.push(undoSteps.pop());
+        return step.before;
+    }
+
+    /**
+     * Takes the step to redo, if the current version is the one it was undone to.
+     *
+     * @param current the current version
+     * @return the version to restore, or null if there is nothing to redo
+     */
+    public PersistentTrie redo(PersistentTrie current) {
+        Step step = redoSteps.peek();
+        if (step == null) {
+            return null;
+        }
+        if (step.before != current) {
+            clear();
+            return null;
+        }
+        undoSteps.push(redoSteps.pop());
+        return step.after;
+    }
+
+    /**
+     * Gets the description of the edit that undo would revert.
+     *
+     * @return the label, or null if there is nothing to undo
+     */
+    public String getUndoLabel() {
+        Step step = undoSteps.peek();
+        return step != null ? step.label : null;
+    }
+
+    /**
+     * Gets the description of the edit that redo would apply again.
+     *
+     * @return the label, or null if there is nothing to redo
+     */
+    public String getRedoLabel() {
+        Step step = redoSteps.peek();
+        return step != null ? step.label : null;
+    }
+
+    /**
+     * Gets the number of steps that can be undone.
+     *
+     * @return the number of undo steps
+     */
+    public int getUndoCount() {
+        return undoSteps.size();
+    }
+
+    /**
+     * Gets the number of steps that can be redone.
+     *
+     * @return the number of redo steps
+     */
+    public int getRedoCount() {
+        return redoSteps.size();
+    }
+
+    /**
+     * Gets the number of trie nodes kept alive only by the history.
+     *
+     * @return the estimated number of retained nodes
+     */
+    public long getRetainedNodes() {
+        return retainedNodes;
+    }
+
+    /**
+     * Forgets every step.
+     */
+    public void clear() {
+        undoSteps.clear();
+        redoSteps.clear();
+        retainedNodes = 0;
+    }
+}
@@ -0,0 +1,647 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Read-only dictionary for deployments that never change the words after loading.
+ * The headwords are stored as a minimized acyclic automaton (a DAWG), which shares common suffixes as
+ * well as prefixes, packed into a few flat arrays. Every state records how many words it accepts, so
+ * walking a word also counts the words before it in trie order. That count is a minimal perfect hash
+ * of the word: it maps the n headwords onto 0 .. n-1 without collisions and is used as the index of
+ * the word's meaning in one packed UTF-8 array. Word objects are only created for query results.
+ */
+public class FrozenDictionary {
+
+    private final int[] charOrder;       // position of each character in trie order, -1 if not in the charset
+    private final int[] firstTransition; // the transitions of state s are firstTransition[s] .. firstTransition[s + 1] - 1
+    private final int[] wordCounts;      // number of words accepted from each state
+    private final BitSet finals;         // states that end a word
+    private final char[] labels;
+    private final int[] targets;
+    private final byte[] meanings;       // meaning i is meanings[meaningOffsets[i] .. meaningOffsets[i + 1] - 1]
+    private final int[] meaningOffsets;
+
+    private FrozenDictionary(int[] charOrder, int[] firstTransition, int[] wordCounts, BitSet finals,
+                             char[] labels, int[] targets, byte[] meanings, int[] meaningOffsets) {
+        this.charOrder = charOrder;
+        this.firstTransition = firstTransition;
+        this.wordCounts = wordCounts;
+        this.finals = finals;
+        this.labels = labels;
+        this.targets = targets;
+        this.meanings = meanings;
+        this.meaningOffsets = meaningOffsets;
+    }
+
+    /**
+     * Builds a frozen dictionary in one pass over sorted words, minimizing the automaton as it goes
+     * with the algorithm of Daciuk et al., so the unminimized trie is never built.
+     *
+     * @param words    the words in trie order, without duplicates
+     * @param alphabet the characters in trie order
+     * @return the frozen dictionary
+     * @throws IllegalArgumentException if the words are not sorted in trie order
+     */
+    static FrozenDictionary build(List<Word> words, char[] alphabet) {
+        int maxChar = 0;
+        for (char c : alphabet) {
+            maxChar = Math.max(maxChar, c);
+        }
+        int[] charOrder = new int[maxChar + 1];
+        Arrays.fill(charOrder, -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            charOrder[alphabet[i]] = i;
+        }
+
+        Builder builder = new Builder();
+        ByteArrayOutputStream meanings = new ByteArrayOutputStream();
+        int[] meaningOffsets = new int[words.size() + 1];
+        String previous = null;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i).getWordTarget();
+            if (previous != null && compare(word, previous, charOrder) <= 0) {
+                throw new IllegalArgumentException("Words are not in trie order: " + previous + ", " + word);
+            }
+            builder.add(word);
+            meanings.writeBytes(words.get(i).getWordExplain().getBytes(StandardCharsets.UTF_8));
+            meaningOffsets[i + 1] = meanings.size();
+            previous = word;
+        }
+        State root = builder.finish();
+
+        // Number the states depth first, so a lookup mostly moves forwards through the arrays
+        ArrayList<State> states = new ArrayList<>();
+        number(root, states);
+        int transitionCount = 0;
+        for (State state : states) {
+            transitionCount += state.size;
+        }
+        int[] firstTransition = new int[states.size() + 1];
+        int[] wordCounts = new int[states.size()];
+        BitSet finals = new BitSet(states.size());
+        char[] labels = new char[transitionCount];
+        int[] targets = new int[transitionCount];
+        int t = 0;
+        for (State state : states) {
+            firstTransition[state.id] = t;
+            wordCounts[state.id] = countWords(state);
+            finals.set(state.id, state.isFinal);
+            for (int i = 0; i < state.size; i++) {
+                labels[t] = state.labels[i];
+                targets[t] = state.targets[i].id;
+                t++;
+            }
+        }
+        firstTransition[states.size()] = t;
+        return new FrozenDictionary(charOrder, firstTransition, wordCounts, finals, labels, targets,
+                meanings.toByteArray(), meaningOffsets);
+    }
+
+    private static void number(State state, ArrayList<State> states) {
+        state.id = states.size();
+        states.add(state);
+        for (int i = 0; i < state.size; i++) {
+            if (state.targets[i].id < 0) {
+                number(state.targets[i], states);
+            }
+        }
+    }
+
+    private static int countWords(State state) {
+        if (state.wordCount < 0) {
+            int count = state.isFinal ? 1 : 0;
+            for (int i = 0; i < state.size; i++) {
+                count += countWords(state.targets[i]);
+            }
+            state.wordCount = count;
+        }
+        return state.wordCount;
+    }
+
+    private static int compare(String a, String b, int[] charOrder) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return Integer.compare(order(a.charAt(i), charOrder), order(b.charAt(i), charOrder));
+            }
+        }
+        return Integer.compare(a.length(), b.length());
+    }
+
+    private static int order(char c, int[] charOrder) {
+        return (c < charOrder.length && charOrder[c] >= 0) ? charOrder[c] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Looks up a word.
+     *
+     * @param word the word to look up
+     * @return a new Word with the meaning if found, null otherwise
+     */
+    public Word lookupWord(String word) {
+        String lowerCaseWord = word.toLowerCase();
+        int index = indexOf(lowerCaseWord);
+        return (index >= 0) ? new Word(lowerCaseWord, meaning(index)) : null;
+    }
+
+    /**
+     * Looks up several words and returns the first one in the dictionary.
+     *
+     * @param candidates the lower-case words, in order of preference
+     * @return a new Word for the first word found, or null if none is in the dictionary
+     */
+    public Word lookupFirst(List<String> candidates) {
+        for (String candidate : candidates) {
+            int index = indexOf(candidate);
+            if (index >= 0) {
+                return new Word(candidate, meaning(index));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the perfect hash of a word: its position in trie order among all words.
+     *
+     * @param word the lower-case word
+     * @return the index of the word from 0 to size() - 1, or -1 if it is not in the dictionary
+     */
+    public int indexOf(String word) {
+        int state = 0;
+        int index = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (finals.get(state)) {
+                index++;
+            }
+            char c = word.charAt(i);
+            int t = firstTransition[state];
+            int end = firstTransition[state + 1];
+            while (t < end && labels[t] != c) {
+                index += wordCounts[targets[t]];
+                t++;
+            }
+            if (t == end) {
+                return -1;
+            }
+            state = targets[t];
+        }
+        return finals.get(state) ? index : -1;
+    }
+
+    /**
+     * Gets the meaning of the word at an index.
+     *
+     * @param index the index returned by indexOf
+     * @return the meaning
+     */
+    public String meaning(int index) {
+        int start = meaningOffsets[index];
+        return new String(meanings, start, meaningOffsets[index + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of words.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return wordCounts[0];
+    }
+
+    /**
+     * Counts the words that come before a string in trie order. The string need not be a word.
+     *
+     * @param word the lower-case string
+     * @return the number of smaller words
+     */
+    public int rank(String word) {
+        int state = 0;
+        int index = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (finals.get(state)) {
+                index++;
+            }
+            char c = word.charAt(i);
+            int order = order(c, charOrder);
+            int t = firstTransition[state];
+            int end = firstTransition[state + 1];
+            while (t < end && order(labels[t], charOrder) < order) {
+                index += wordCounts[targets[t]];
+                t++;
+            }
+            if (t == end || labels[t] != c) {
+                return index;
+            }
+            state = targets[t];
+        }
+        return index;
+    }
+
+    /**
+     * Gets the word and meaning at an index.
+     *
+     * @param index the index from 0 to size() - 1
+     * @return a new Word
+     */
+    public Word wordAt(int index) {
+        return new Word(headwordAt(index), meaning(index));
+    }
+
+    /**
+     * Gets the headword at an index, the inverse of indexOf.
+     *
+     * @param index the index from 0 to size() - 1
+     * @return the headword
+     */
+    private String headwordAt(int index) {
+        StringBuilder word = new StringBuilder();
+        int state = 0;
+        int k = index;
+        while (true) {
+            if (finals.get(state)) {
+                if (k == 0) {
+                    return word.toString();
+                }
+                k--;
+            }
+            for (int t = firstTransition[state]; ; t++) {
+                int count = wordCounts[targets[t]];
+                if (k < count) {
+                    word.append(labels[t]);
+                    state = targets[t];
+                    break;
+                }
+                k -= count;
+            }
+        }
+    }
+
+    /**
+     * Walks a prefix from the start state.
+     *
+     * @param prefix the lower-case prefix
+     * @return the state reached and the index of its first word, or null if no word starts with the prefix
+     */
+    private int[] walk(String prefix) {
+        int state = 0;
+        int index = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (finals.get(state)) {
+                index++;
+            }
+            char c = prefix.charAt(i);
+            int t = firstTransition[state];
+            int end = firstTransition[state + 1];
+            while (t < end && labels[t] != c) {
+                index += wordCounts[targets[t]];
+                t++;
+            }
+            if (t == end) {
+                return null;
+            }
+            state = targets[t];
+        }
+        return new int[]{state, index};
+    }
+
+    /**
+     * Counts the words starting with a prefix.
+     *
+     * @param prefix the prefix
+     * @return the number of words with the prefix
+     */
+    public int countPrefix(String prefix) {
+        int[] start = walk(prefix.toLowerCase());
+        return (start != null) ? wordCounts[start[0]] : 0;
+    }
+
+    /**
+     * Searches for words with a given prefix.
+     *
+     * @param prefix the prefix to search for
+     * @return a list of words with the given prefix in trie order, or null if there is none
+     */
+    public ArrayList<Word> getProposedString(String prefix) {
+        String lowerCasePrefix = prefix.toLowerCase();
+        int[] start = walk(lowerCasePrefix);
+        if (start == null) {
+            return null;
+        }
+        ArrayList<Word> words = new ArrayList<>(wordCounts[start[0]]);
+        collectWords(start[0], new StringBuilder(lowerCasePrefix), start[1], words);
+        return words;
+    }
+
+    /**
+     * Retrieves all words in trie order.
+     *
+     * @return a list of all words
+     */
+    public ArrayList<Word> queryAllWords() {
+        return getProposedString("");
+    }
+
+    /**
+     * Adds the words accepted from a state, in trie order.
+     *
+     * @param state the state
+     * @param path  the string that reaches the state
+     * @param index the index of the first word accepted from the state
+     * @param words the list to add to
+     */
+    private void collectWords(int state, StringBuilder path, int index, ArrayList<Word> words) {
+        if (finals.get(state)) {
+            words.add(new Word(path.toString(), meaning(index)));
+            index++;
+        }
+        for (int t = firstTransition[state]; t < firstTransition[state + 1]; t++) {
+            path.append(labels[t]);
+            collectWords(targets[t], path, index, words);
+            path.setLength(path.length() - 1);
+            index += wordCounts[targets[t]];
+        }
+    }
+
+    /**
+     * Retrieves one page of words with a given prefix, in trie order, after a given word.
+     * The page is found by rank, so its cost does not depend on how many pages came before it.
+     *
+     * @param prefix the prefix of the words to return
+     * @param after  the last word of the previous page, or null for the first page
+     * @param limit  the maximum number of words to return
+     * @return a list of at most limit words, empty if there are no more words
+     */
+    public ArrayList<Word> getWordsAfter(String prefix, String after, int limit) {
+        ArrayList<Word> words = new ArrayList<>();
+        int[] start = walk(prefix.toLowerCase());
+        if (start == null) {
+            return words;
+        }
+        int from = start[1];
+        int to = from + wordCounts[start[0]];
+        if (after != null) {
+            String lowerCaseAfter = after.toLowerCase();
+            from = Math.max(from, rank(lowerCaseAfter) + (indexOf(lowerCaseAfter) >= 0 ? 1 : 0));
+        }
+        for (int i = from; i < to && words.size() < limit; i++) {
+            words.add(wordAt(i));
+        }
+        return words;
+    }
+
+    /**
+     * Finds the words matching a pattern, in trie order. Like Trie.getWordsMatching, the automaton is
+     * walked along the pattern and paths on which no pattern position is active are cut off.
+     *
+     * @param pattern   the pattern, see WordPattern
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @param limit     the maximum number of words to return
+     * @return at most limit matching words
+     */
+    public ArrayList<Word> getWordsMatching(WordPattern pattern, int minLength, int maxLength, int limit) {
+        ArrayList<Word> words = new ArrayList<>();
+        collectMatchingWords(0, new StringBuilder(), 0, pattern, pattern.start(), minLength, maxLength, words, limit);
+        return words;
+    }
+
+    private void collectMatchingWords(int state, StringBuilder path, int index, WordPattern pattern, long states,
+                                      int minLength, int maxLength, ArrayList<Word> words, int limit) {
+        int depth = path.length();
+        if (depth + pattern.minRemaining(states) > maxLength) {
+            return;
+        }
+        if (finals.get(state)) {
+            if (depth >= minLength && pattern.accepts(states) && words.size() < limit) {
+                words.add(new Word(path.toString(), meaning(index)));
+            }
+            index++;
+        }
+        for (int t = firstTransition[state]; t < firstTransition[state + 1] && words.size() < limit; t++) {
+            long next = pattern.step(states, labels[t]);
+            if (next != 0) {
+                path.append(labels[t]);
+                collectMatchingWords(targets[t], path, index, pattern, next, minLength, maxLength, words, limit);
+                path.setLength(depth);
+            }
+            index += wordCounts[targets[t]];
+        }
+    }
+
+    /**
+     * Finds the words within a Levenshtein distance of a given word, closest first.
+     * Like Trie.getSimilarWords, the automaton is walked depth first with one row of the edit distance
+     * table per state, and paths whose row has no entry within the distance are cut off.
+     *
+     * @param word        the word to match
+     * @param maxDistance the maximum number of inserted, deleted or replaced characters
+     * @param limit       the maximum number of words to return
+     * @return at most limit words, ordered by distance and then in trie order
+     */
+    public ArrayList<Word> getSimilarWords(String word, int maxDistance, int limit) {
+        String target = word.toLowerCase();
+        ArrayList<ArrayList<Word>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxDistance; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        int[] firstRow = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            firstRow[j] = j;
+        }
+        if (finals.get(0) && target.length() <= maxDistance) {
+            byDistance.get(target.length()).add(new Word("", meaning(0)));
+        }
+        int index = finals.get(0) ? 1 : 0;
+        StringBuilder path = new StringBuilder();
+        for (int t = firstTransition[0]; t < firstTransition[1]; t++) {
+            path.append(labels[t]);
+            collectSimilarWords(targets[t], path, index, target, firstRow, maxDistance, byDistance);
+            path.setLength(0);
+            index += wordCounts[targets[t]];
+        }
+
+        ArrayList<Word> words = new ArrayList<>();
+        for (ArrayList<Word> sameDistance : byDistance) {
+            for (Word similar : sameDistance) {
+                if (words.size() == limit) {
+                    return words;
+                }
+                words.add(similar);
+            }
+        }
+        return words;
+    }
+
+    private void collectSimilarWords(int state, StringBuilder path, int index, String target, int[] parentRow,
+                                     int maxDistance, ArrayList<ArrayList<Word>> byDistance) {
+        char c = path.charAt(path.length() - 1);
+        int n = target.length();
+        int[] row = new int[n + 1];
+        row[0] = parentRow[0] + 1;
+        int rowMin = row[0];
+        for (int j = 1; j <= n; j++) {
+            int replace = parentRow[j - 1] + (target.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(replace, Math.min(row[j - 1] + 1, parentRow[j] + 1));
+            rowMin = Math.min(rowMin, row[j]);
+        }
+        if (finals.get(state)) {
+            if (row[n] <= maxDistance) {
+                byDistance.get(row[n]).add(new Word(path.toString(), meaning(index)));
+            }
+            index++;
+        }
+        if (rowMin > maxDistance) {
+            return;
+        }
+        for (int t = firstTransition[state]; t < firstTransition[state + 1]; t++) {
+            path.append(labels[t]);
+            collectSimilarWords(targets[t], path, index, target, row, maxDistance, byDistance);
+            path.setLength(path.length() - 1);
+            index += wordCounts[targets[t]];
+        }
+    }
+
+    /**
+     * Gets the number of automaton states.
+     *
+     * @return the number of states
+     */
+    public int getStateCount() {
+        return wordCounts.length;
+    }
+
+    /**
+     * Gets the number of automaton transitions.
+     *
+     * @return the number of transitions
+     */
+    public int getTransitionCount() {
+        return labels.length;
+    }
+
+    /**
+     * Estimates the memory used by the automaton and the packed meanings.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedBytes() {
+        return arrayBytes(firstTransition.length, 4) + arrayBytes(wordCounts.length, 4)
+                + arrayBytes((finals.length() + 63) / 64, 8) + arrayBytes(labels.length, 2)
+                + arrayBytes(targets.length, 4) + arrayBytes(meanings.length, 1)
+                + arrayBytes(meaningOffsets.length, 4) + arrayBytes(charOrder.length, 4);
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d words, %d states, %d transitions, %.1f MB",
+                size(), getStateCount(), getTransitionCount(), getEstimatedBytes() / 1048576.0);
+    }
+
+    /**
+     * A state of the automaton while it is being built.
+     * Registered states are never changed again, so they can be compared by value: two states are
+     * equivalent if they are both final or both not, and have the same labels leading to the same states.
+     */
+    private static final class State {
+        private static final char[] NO_LABELS = new char[0];
+        private static final State[] NO_TARGETS = new State[0];
+
+        char[] labels = NO_LABELS;
+        State[] targets = NO_TARGETS;
+        int size = 0;
+        boolean isFinal = false;
+        int id = -1;
+        int wordCount = -1;
+
+        void append(char label, State target) {
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(2, size * 2));
+                targets = Arrays.copyOf(targets, labels.length);
+            }
+            labels[size] = label;
+            targets[size] = target;
+            size++;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            if (isFinal != other.isFinal || size != other.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = isFinal ? 1 : 0;
+            for (int i = 0; i < size; i++) {
+                hash = 31 * hash + labels[i];
+                hash = 31 * hash + System.identityHashCode(targets[i]);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Incremental construction from sorted words. Only the path of the last word added can still
+     * change; when the next word leaves that path, the states below the branch point are replaced by
+     * equivalent registered states or registered themselves.
+     */
+    private static final class Builder {
+        private final State root = new State();
+        private final HashMap<State, State> register = new HashMap<>();
+
+        void add(String word) {
+            State state = root;
+            int i = 0;
+            while (i < word.length() && state.size > 0 && state.labels[state.size - 1] == word.charAt(i)) {
+                state = state.targets[state.size - 1];
+                i++;
+            }
+            if (state.size > 0) {
+                replaceOrRegister(state);
+            }
+            for (; i < word.length(); i++) {
+                State next = new State();
+                state.append(word.charAt(i), next);
+                state = next;
+            }
+            state.isFinal = true;
+        }
+
+        State finish() {
+            if (root.size > 0) {
+                replaceOrRegister(root);
+            }
+            return root;
+        }
+
+        private void replaceOrRegister(State state) {
+            State child = state.targets[state.size - 1];
+            if (child.size > 0) {
+                replaceOrRegister(child);
+            }
+            State registered = register.putIfAbsent(child, child);
+            if (registered != null) {
+                state.targets[state.size - 1] = registered;
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Headless engine that runs many Wordle and Quiz games at once, independent of the JavaFX UI.
+ * Sessions live in a concurrent map keyed by session id and only hold a few counters; the word banks
+ * and the question bank are immutable and shared by every session. Sessions that stay idle longer
+ * than the timeout are evicted by a background thread.
+ */
+public class GameSessionEngine {
+
+    private static final ThreadLocal<WordleScorer> SCORERS = ThreadLocal.withInitial(WordleScorer::new);
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong(1);
+    private final IntFunction<WordleWordBank> wordBanks;
+    private final List<QuizzGame.Question> questions;
+    private final long idleTimeoutNanos;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Constructs an engine that draws Wordle words from the dictionary and quiz questions from the game data.
+     *
+     * @param idleTimeoutMillis how long a session may stay idle before it is evicted
+     */
+    public GameSessionEngine(long idleTimeoutMillis) {
+        this(WordleWordBank::forLength, loadDefaultQuestions(), idleTimeoutMillis);
+    }
+
+    /**
+     * Constructs an engine with the given shared banks.
+     *
+     * @param wordBanks         gives the word bank for a word length
+     * @param questions         the question bank, shared by all quiz sessions
+     * @param idleTimeoutMillis how long a session may stay idle before it is evicted
+     */
+    public GameSessionEngine(IntFunction<WordleWordBank> wordBanks, List<QuizzGame.Question> questions,
+                             long idleTimeoutMillis) {
+        this.wordBanks = wordBanks;
+        this.questions = Collections.unmodifiableList(questions);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeoutMillis / 2, 1);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private static List<QuizzGame.Question> loadDefaultQuestions() {
+        QuizzGame game = new QuizzGame();
+        game.loadDefaultQuestions();
+        return game.getQuestions();
+    }
+
+    /**
+     * Starts a Wordle game with a random target word.
+     *
+     * @param length the word length
+     * @return the session id
+     * @throws IllegalArgumentException if the dictionary has no word of that length
+     */
+    public long startWordle(int length) {
+        WordleWordBank bank = wordBanks.apply(length);
+        if (bank.size() == 0) {
+            throw new IllegalArgumentException("No words of length " + length);
+        }
+        long id = nextSessionId.getAndIncrement();
+        sessions.put(id, new WordleSession(bank, ThreadLocalRandom.current().nextInt(bank.size())));
+        return id;
+    }
+
+    /**
+     * Scores a guess in a Wordle session.
+     *
+     * @param sessionId the session id
+     * @param guess     the guess, with the length of the target word
+     * @return the packed result from WordleScorer
+     * @throws IllegalArgumentException if the session does not exist or the guess has the wrong length
+     * @throws IllegalStateException    if the game is already over
+     */
+    public int guess(long sessionId, String guess) {
+        WordleSession session = getSession(sessionId, WordleSession.class);
+        String lowerCaseGuess = guess.toLowerCase();
+        if (lowerCaseGuess.length() != session.bank.getLength()) {
+            throw new IllegalArgumentException("Guess must have " + session.bank.getLength() + " letters");
+        }
+        synchronized (session) {
+            if (session.isOver()) {
+                throw new IllegalStateException("Game is over");
+            }
+            int result = SCORERS.get().score(lowerCaseGuess, session.bank.word(session.targetIndex));
+            session.attempts++;
+            session.solved = result == WordleScorer.solved(lowerCaseGuess.length());
+            return result;
+        }
+    }
+
+    /**
+     * Checks whether a Wordle session has been solved or has used all its attempts.
+     *
+     * @param sessionId the session id
+     * @return true if the game is over
+     */
+    public boolean isWordleOver(long sessionId) {
+        WordleSession session = getSession(sessionId, WordleSession.class);
+        synchronized (session) {
+            return session.isOver();
+        }
+    }
+
+    /**
+     * Starts a quiz that asks every question of the bank once, in a random order.
+     *
+     * @return the session id
+     */
+    public long startQuiz() {
+        int size = questions.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int start = size == 0 ? 0 : random.nextInt(size);
+        int step = 1;
+        // A step coprime with the bank size visits every question once without storing a permutation
+        while (size > 1) {
+            step = 1 + random.nextInt(size - 1);
+            if (gcd(step, size) == 1) {
+                break;
+            }
+        }
+        long id = nextSessionId.getAndIncrement();
+        sessions.put(id, new QuizSession(start, step));
+        return id;
+    }
+
+    /**
+     * Gets the current question of a quiz session.
+     *
+     * @param sessionId the session id
+     * @return the current question, or null if the quiz is over
+     */
+    public QuizzGame.Question getQuestion(long sessionId) {
+        QuizSession session = getSession(sessionId, QuizSession.class);
+        synchronized (session) {
+            return session.answered < questions.size() ? questions.get(session.currentIndex(questions.size())) : null;
+        }
+    }
+
+    /**
+     * Answers the current question of a quiz session and moves to the next one.
+     *
+     * @param sessionId the session id
+     * @param answer    the chosen option, from 'A' to 'D'
+     * @return true if the answer is correct
+     * @throws IllegalStateException if the quiz is already over
+     */
+    public boolean answer(long sessionId, char answer) {
+        QuizSession session = getSession(sessionId, QuizSession.class);
+        synchronized (session) {
+            if (session.answered >= questions.size()) {
+                throw new IllegalStateException("Quiz is over");
+            }
+            boolean correct = questions.get(session.currentIndex(questions.size())).getCorrectAnswer() == answer;
+            if (correct) {
+                session.score++;
+            }
+            session.answered++;
+            return correct;
+        }
+    }
+
+    /**
+     * Gets the score of a quiz session.
+     *
+     * @param sessionId the session id
+     * @return the number of correct answers so far
+     */
+    public int getScore(long sessionId) {
+        QuizSession session = getSession(sessionId, QuizSession.class);
+        synchronized (session) {
+            return session.score;
+        }
+    }
+
+    /**
+     * Ends a session and frees its state.
+     *
+     * @param sessionId the session id
+     */
+    public void end(long sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * Gets the number of live sessions.
+     *
+     * @return the number of sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Removes every session that has been idle longer than the timeout.
+     *
+     * @return the number of evicted sessions
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> now - session.lastAccess > idleTimeoutNanos);
+        return Math.max(before - sessions.size(), 0);
+    }
+
+    /**
+     * Stops the eviction thread.
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    private <T extends Session> T getSession(long sessionId, Class<T> type) {
+        Session session = sessions.get(sessionId);
+        if (!type.isInstance(session)) {
+            throw new IllegalArgumentException("No such session: " + sessionId);
+        }
+        session.lastAccess = System.nanoTime();
+        return type.cast(session);
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * State shared by all sessions.
+     */
+    private abstract static class Session {
+        volatile long lastAccess = System.nanoTime();
+    }
+
+    /**
+     * A Wordle game: the target is an index into the shared word bank.
+     */
+    private static class WordleSession extends Session {
+        private static final int MAX_ATTEMPTS = 6;
+        final WordleWordBank bank;
+        final int targetIndex;
+        int attempts = 0;
+        boolean solved = false;
+
+        WordleSession(WordleWordBank bank, int targetIndex) {
+            this.bank = bank;
+            this.targetIndex = targetIndex;
+        }
+
+        boolean isOver() {
+            return solved || attempts >= MAX_ATTEMPTS;
+        }
+    }
+
+    /**
+     * A quiz: the question order is start, start + step, ... modulo the bank size.
+     */
+    private static class QuizSession extends Session {
+        final int start;
+        final int step;
+        int answered = 0;
+        int score = 0;
+
+        QuizSession(int start, int step) {
+            this.start = start;
+            this.step = step;
+        }
+
+        int currentIndex(int size) {
+            return (int) ((start + (long) answered * step) % size);
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.apache.http.util.EntityUtils;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonParser;
 import javazoom.jl.decoder.JavaLayerException;
-import javazoom.jl.player.advanced.AdvancedPlayer;
+import javazoom.jl.player.Player;
 
 import java.io.*;
 import java.net.*;
@@ -39,6 +39,8 @@ public class GoogleTranslate {
 
     /**
      * Converts text to speech and plays the audio.
+     * Interrupting the calling thread, as cancelling its background task does, stops the playback
+     * and closes the player, so a cancelled clip does not play over the next one.
      *
      * @param text     The text to convert to speech.
      * @param language The language code of the text (e.g., "en" for English).
@@ -51,8 +53,14 @@ public class GoogleTranslate {
         try (InputStream audioSrc = new URL(urlStr).openStream();
              InputStream bufferedIn = new BufferedInputStream(audioSrc)) {
 
-            AdvancedPlayer player = new AdvancedPlayer(bufferedIn);
-            player.play();
+            Player player = new Player(bufferedIn);
+            try {
+                // One frame at a time, so an interrupt is noticed within a few milliseconds
+                while (!Thread.currentThread().isInterrupted() && player.play(1)) {
+                }
+            } finally {
+                player.close();
+            }
         } catch (JavaLayerException e) {
             throw new IOException("Error playing MP3", e);
         }
@@ -0,0 +1,228 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Rule-based English lemmatizer, for looking up an inflected form such as "running" or "studies"
+ * under its headword. Irregular forms come from an exceptions table; regular ones are undone by
+ * suffix rules, which give a few candidate lemmas in order of preference. The first candidate that
+ * is a headword wins. Resolutions are memoized in a fixed-size cache, so a repeated inflected lookup
+ * costs one hash probe.
+ */
+public class Lemmatizer {
+
+    // Irregular forms and their lemmas, as "form lemma" pairs
+    private static final String[] EXCEPTIONS = {
+            "am be", "are be", "is be", "was be", "were be", "been be", "being be",
+            "has have", "had have", "having have", "does do", "did do", "done do",
+            "went go", "gone go", "goes go", "ran run", "saw see", "seen see", "took take", "taken take",
+            "came come", "gave give", "given give", "ate eat", "eaten eat", "wrote write", "written write",
+            "spoke speak", "spoken speak", "knew know", "known know", "thought think", "bought buy",
+            "brought bring", "caught catch", "taught teach", "made make", "said say", "paid pay",
+            "felt feel", "kept keep", "left leave", "lost lose", "met meet", "sat sit", "stood stand",
+            "understood understand", "told tell", "sold sell", "found find", "held hold", "began begin",
+            "begun begin", "broke break", "broken break", "chose choose", "chosen choose", "drove drive",
+            "driven drive", "fell fall", "fallen fall", "flew fly", "flown fly", "forgot forget",
+            "forgotten forget", "froze freeze", "frozen freeze", "grew grow", "grown grow", "hid hide",
+            "hidden hide", "rode ride", "ridden ride", "rose rise", "risen rise", "sang sing", "sung sing",
+            "spent spend", "stole steal", "stolen steal", "swam swim", "swum swim", "threw throw",
+            "thrown throw", "woke wake", "woken wake", "wore wear", "worn wear", "won win", "built build",
+            "sent send", "slept sleep", "meant mean", "led lead", "fed feed", "fought fight",
+            "heard hear", "dug dig", "drew draw", "drawn draw", "drank drink", "drunk drink",
+            "children child", "men man", "women woman", "mice mouse", "feet foot", "teeth tooth",
+            "geese goose", "people person", "oxen ox", "lice louse", "dice die",
+            "better good", "best good", "worse bad", "worst bad", "more many", "most many",
+            "less little", "least little", "further far", "furthest far",
+            "analyses analysis", "crises crisis", "theses thesis", "criteria criterion",
+            "phenomena phenomenon", "data datum", "media medium", "cacti cactus", "fungi fungus",
+            "nuclei nucleus", "radii radius", "stimuli stimulus", "indices index", "matrices matrix"
+    };
+
+    // Suffix rules as {ending, replacement}, tried in this order
+    private static final String[][] RULES = {
+            {"'s", ""}, {"ies", "y"}, {"ied", "y"}, {"iest", "y"}, {"ier", "y"}, {"ily", "y"},
+            {"ves", "f"}, {"ves", "fe"}, {"sses", "ss"}, {"shes", "sh"}, {"ches", "ch"}, {"xes", "x"},
+            {"zes", "z"}, {"oes", "o"}, {"s", ""}, {"ses", "s"}, {"ing", ""}, {"ed", ""}, {"est", ""}, {"er", ""},
+            {"ly", ""}
+    };
+
+    // Shortest stem a rule may leave, so "sing" and "red" are not cut down to "s" and "r"
+    private static final int MIN_STEM_LENGTH = 2;
+    private static final HashMap<String, String> exceptions = new HashMap<>();
+
+    static {
+        for (String pair : EXCEPTIONS) {
+            int space = pair.indexOf(' ');
+            exceptions.put(pair.substring(0, space), pair.substring(space + 1));
+        }
+    }
+
+    private final Entry[] cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * A memoized resolution. Entries are immutable, so threads can share the cache without locking.
+     */
+    private static final class Entry {
+        final String form;
+        final Word lemma; // null if no candidate was a headword
+        final long version;
+
+        Entry(String form, Word lemma, long version) {
+            this.form = form;
+            this.lemma = lemma;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Constructs a lemmatizer.
+     *
+     * @param cacheSize the number of resolutions to remember, rounded up to a power of two of at least 2
+     */
+    public Lemmatizer(int cacheSize) {
+        cache = new Entry[Math.max(2, Integer.highestOneBit(Math.max(1, cacheSize - 1)) << 1)];
+    }
+
+    /**
+     * Finds the headword of an inflected form. The cache is two-way set-associative: a form can only
+     * be in the two slots of its set, the more recently used first, and a new form evicts the other.
+     * An entry is only used while the words it was resolved against are unchanged, which the caller
+     * tells by the version.
+     *
+     * @param word       the inflected form
+     * @param version    the version of the words, which changes whenever a word is added or removed
+     * @param firstFound finds the first of several lower-case words that is a headword, or null
+     * @return the headword, or null if no candidate lemma is a headword
+     */
+    public Word lookup(String word, long version, Function<List<String>, Word> firstFound) {
+        String form = word.toLowerCase();
+        int hash = form.hashCode();
+        int first = ((hash ^ (hash >>> 16)) << 1) & (cache.length - 1);
+        Entry recent = cache[first];
+        if (isFor(recent, form, version)) {
+            hits.increment();
+            return recent.lemma;
+        }
+        Entry older = cache[first + 1];
+        if (isFor(older, form, version)) {
+            hits.increment();
+            cache[first] = older;
+            cache[first + 1] = recent;
+            return older.lemma;
+        }
+        misses.increment();
+        List<String> candidates = candidates(form);
+        Word lemma = candidates.isEmpty() ? null : firstFound.apply(candidates);
+        cache[first + 1] = recent;
+        cache[first] = new Entry(form, lemma, version);
+        return lemma;
+    }
+
+    private static boolean isFor(Entry entry, String form, long version) {
+        return entry != null && entry.version == version && entry.form.equals(form);
+    }
+
+    /**
+     * Lists the possible lemmas of a word, most likely first. A suffix rule whose stem ends in a
+     * doubled consonant also tries the stem without it ("running" to "run"), and one whose stem ends
+     * in a single vowel and consonant tries the stem with an "e" first ("hoping" to "hope" before
+     * "hop").
+     *
+     * @param word the lower-case word
+     * @return the candidates, without the word itself
+     */
+    public static List<String> candidates(String word) {
+        ArrayList<String> candidates = new ArrayList<>();
+        String exception = exceptions.get(word);
+        if (exception != null) {
+            candidates.add(exception);
+        }
+        for (String[] rule : RULES) {
+            String ending = rule[0];
+            if (!word.endsWith(ending) || word.length() - ending.length() < MIN_STEM_LENGTH) {
+                continue;
+            }
+            String stem = word.substring(0, word.length() - ending.length());
+            if (!rule[1].isEmpty()) {
+                addCandidate(candidates, stem + rule[1]);
+            } else if (ending.equals("s")) {
+                // "glass" and "bus" are not plurals
+                if (!stem.endsWith("s") && !stem.endsWith("u")) {
+                    addCandidate(candidates, stem);
+                }
+            } else if (ending.equals("'s") || ending.equals("ly")) {
+                addCandidate(candidates, stem);
+            } else if (endsWithDoubledConsonant(stem)) {
+                addCandidate(candidates, stem);
+                addCandidate(candidates, stem.substring(0, stem.length() - 1));
+            } else if (endsWithShortSyllable(stem)) {
+                addCandidate(candidates, stem + "e");
+                addCandidate(candidates, stem);
+            } else {
+                addCandidate(candidates, stem);
+                addCandidate(candidates, stem + "e");
+            }
+        }
+        return candidates;
+    }
+
+    private static void addCandidate(ArrayList<String> candidates, String candidate) {
+        if (!candidates.contains(candidate)) {
+            candidates.add(candidate);
+        }
+    }
+
+    private static boolean endsWithDoubledConsonant(String stem) {
+        int n = stem.length();
+        char last = stem.charAt(n - 1);
+        return n >= 3 && last == stem.charAt(n - 2) && !isVowel(last);
+    }
+
+    /**
+     * Checks whether a stem ends in one vowel and one consonant other than w, x or y, like "hop" or
+     * "mak", where a dropped "e" is likely.
+     */
+    private static boolean endsWithShortSyllable(String stem) {
+        int n = stem.length();
+        char last = stem.charAt(n - 1);
+        return !isVowel(last) && last != 'w' && last != 'x' && last != 'y'
+                && isVowel(stem.charAt(n - 2)) && (n == 2 || !isVowel(stem.charAt(n - 3)));
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to try the candidates.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     *
+     * @return the hit rate between 0 and 1, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
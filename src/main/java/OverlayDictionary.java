@@ -0,0 +1,292 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.BiConsumer;
+
+/**
+ * One user's changes to the shared dictionary, kept apart from it so that each user sees their own
+ * words without a private copy of the dictionary.
+ * The overlay holds a small delta over the base: the words the user added or edited, with their
+ * meanings, and tombstones for the base words the user removed. Reads merge the delta into the base
+ * and writes only ever touch the delta, so the base is shared by every overlay and an overlay costs
+ * about a hundred bytes per changed character rather than a dictionary.
+ * The delta is made of PersistentTrie versions swapped in as a whole, so reads take no lock.
+ * Later changes to a base word that the user edited or removed do not show through.
+ */
+public class OverlayDictionary {
+
+    /**
+     * The words added or edited and the base words removed, replaced together on every change.
+     */
+    private static class Delta {
+        final PersistentTrie changes;
+        final PersistentTrie tombstones; // meanings are unused
+
+        Delta(PersistentTrie changes, PersistentTrie tombstones) {
+            this.changes = changes;
+            this.tombstones = tombstones;
+        }
+    }
+
+    private final DictionaryManagement base;
+    private volatile Delta delta = new Delta(new PersistentTrie(), new PersistentTrie());
+
+    /**
+     * Constructs an empty overlay.
+     *
+     * @param base the shared dictionary, which the overlay reads but never changes
+     */
+    public OverlayDictionary(DictionaryManagement base) {
+        this.base = base;
+    }
+
+    /**
+     * Looks up a word, first among the user's changes and then in the base. As in the base, an
+     * inflected form of a headword finds the headword.
+     *
+     * @param word the word to look up
+     * @return the word object if found, null otherwise
+     */
+    public Word lookupWord(String word) {
+        Delta current = delta;
+        String lowerCaseWord = word.toLowerCase();
+        Word changed = current.changes.lookupWord(lowerCaseWord);
+        if (changed != null) {
+            return changed;
+        }
+        if (current.tombstones.getMeaning(lowerCaseWord) != null) {
+            return null;
+        }
+        Word found = base.lookupWord(word);
+        if (found == null || found.getWordTarget().equals(lowerCaseWord)) {
+            return found; // the delta has already been checked for this word
+        }
+        return resolve(current, found);
+    }
+
+    /**
+     * Searches for one page of words with the given prefix, in trie order, merging the base
+     * pages with the user's changes.
+     *
+     * @param prefix the prefix to search for
+     * @param after  the last word of the previous page, or null for the first page
+     * @param limit  the maximum number of words to return
+     * @return a list of at most limit words
+     */
+    public ArrayList<Word> searchWords(String prefix, String after, int limit) {
+        Delta current = delta;
+        String lowerCasePrefix = prefix.toLowerCase();
+        String lowerCaseAfter = after != null ? after.toLowerCase() : null;
+        ArrayList<Word> words = new ArrayList<>();
+        if (lowerCaseAfter != null && !lowerCaseAfter.startsWith(lowerCasePrefix)) {
+            return words;
+        }
+        ArrayList<Word> changes = new ArrayList<>();
+        for (Word word : current.changes.getProposedString(lowerCasePrefix)) {
+            if (lowerCaseAfter == null || PersistentTrie.compare(word.getWordTarget(), lowerCaseAfter) > 0) {
+                changes.add(word);
+            }
+        }
+
+        int next = 0;
+        String cursor = lowerCaseAfter;
+        while (words.size() < limit) {
+            // Removed and replaced base words are skipped, so a page may need more than one base page
+            int wanted = limit - words.size();
+            ArrayList<Word> page = base.searchWords(lowerCasePrefix, cursor, wanted);
+            for (Word baseWord : page) {
+                String headword = baseWord.getWordTarget();
+                while (next < changes.size() && words.size() < limit
+                        && PersistentTrie.compare(changes.get(next).getWordTarget(), headword) < 0) {
+                    words.add(changes.get(next++));
+                }
+                if (words.size() == limit) {
+                    return words;
+                }
+                if (next < changes.size() && changes.get(next).getWordTarget().equals(headword)) {
+                    words.add(changes.get(next++));
+                } else if (current.tombstones.getMeaning(headword) == null) {
+                    words.add(baseWord);
+                }
+                cursor = headword;
+                if (words.size() == limit) {
+                    return words;
+                }
+            }
+            if (page.size() < wanted) {
+                break;
+            }
+        }
+        while (next < changes.size() && words.size() < limit) {
+            words.add(changes.get(next++));
+        }
+        return words;
+    }
+
+    /**
+     * Searches for words the user sees that are spelled like the given word. The base is asked for
+     * enough extra words to make up for the ones the user removed, and the user's changes, which are
+     * few, are matched one by one.
+     *
+     * @param word        the word to match
+     * @param maxDistance the maximum number of inserted, deleted or replaced characters
+     * @param limit       the maximum number of words to return
+     * @return at most limit words, ordered by distance and then in trie order
+     */
+    public ArrayList<Word> fuzzySearch(String word, int maxDistance, int limit) {
+        Delta current = delta;
+        String target = word.toLowerCase();
+        int baseLimit = (int) Math.min(Integer.MAX_VALUE, (long) limit + current.tombstones.size());
+        ArrayList<Word> words = new ArrayList<>();
+        for (Word baseWord : base.fuzzySearch(target, maxDistance, baseLimit)) {
+            String headword = baseWord.getWordTarget();
+            if (current.changes.getMeaning(headword) == null && current.tombstones.getMeaning(headword) == null) {
+                words.add(baseWord);
+            }
+        }
+        for (Word change : current.changes.queryAllWords()) {
+            if (PhoneticIndex.editDistance(target, change.getWordTarget()) <= maxDistance) {
+                words.add(change);
+            }
+        }
+        words.sort(Comparator.<Word>comparingInt(similar -> PhoneticIndex.editDistance(target, similar.getWordTarget()))
+                .thenComparing(Word::getWordTarget, PersistentTrie::compare));
+        return words.size() > limit ? new ArrayList<>(words.subList(0, limit)) : words;
+    }
+
+    /**
+     * Passes every word the user sees and its meaning to an action in trie order, such as for
+     * an export. The base words are streamed and the user's changes merged in on the way.
+     *
+     * @param action called with each lower-case word and its meaning
+     */
+    public void forEachWord(BiConsumer<String, String> action) {
+        Delta current = delta;
+        ArrayList<Word> changes = current.changes.queryAllWords();
+        int[] next = {0};
+        base.forEachWord((word, meaning) -> {
+            while (next[0] < changes.size() && PersistentTrie.compare(changes.get(next[0]).getWordTarget(), word) < 0) {
+                Word change = changes.get(next[0]++);
+                action.accept(change.getWordTarget(), change.getWordExplain());
+            }
+            if (next[0] < changes.size() && changes.get(next[0]).getWordTarget().equals(word)) {
+                Word change = changes.get(next[0]++);
+                action.accept(change.getWordTarget(), change.getWordExplain());
+            } else if (current.tombstones.getMeaning(word) == null) {
+                action.accept(word, meaning);
+            }
+        });
+        for (int i = next[0]; i < changes.size(); i++) {
+            action.accept(changes.get(i).getWordTarget(), changes.get(i).getWordExplain());
+        }
+    }
+
+    /**
+     * Adds a word for this user. As in the base, a word the user already sees gets the meaning
+     * appended.
+     *
+     * @param word    the word to add
+     * @param meaning the meaning of the word
+     * @return false if the word has characters the dictionary cannot store, in which case nothing is added
+     */
+    public synchronized boolean addWord(String word, String meaning) {
+        String lowerCaseWord = word.toLowerCase();
+        Word existing = lookupExact(lowerCaseWord);
+        return put(lowerCaseWord, existing != null ? existing.getWordExplain() + "\n" + meaning : meaning);
+    }
+
+    /**
+     * Edits a word for this user.
+     *
+     * @param word       the word to edit
+     * @param newMeaning the new meaning of the word
+     * @return true if the word was edited, false if the user does not see it
+     */
+    public synchronized boolean editWord(String word, String newMeaning) {
+        String lowerCaseWord = word.toLowerCase();
+        return lookupExact(lowerCaseWord) != null && put(lowerCaseWord, newMeaning);
+    }
+
+    /**
+     * Removes a word for this user, leaving a tombstone if it is a base word.
+     *
+     * @param word the word to remove
+     * @return true if the word was removed, false if the user does not see it
+     */
+    public synchronized boolean removeWord(String word) {
+        String lowerCaseWord = word.toLowerCase();
+        if (lookupExact(lowerCaseWord) == null) {
+            return false;
+        }
+        Delta current = delta;
+        PersistentTrie.Editor changes = current.changes.edit();
+        changes.remove(lowerCaseWord);
+        PersistentTrie tombstones = current.tombstones;
+        if (isBaseWord(lowerCaseWord)) {
+            PersistentTrie.Editor editor = tombstones.edit();
+            editor.put(lowerCaseWord, "");
+            tombstones = editor.snapshot();
+        }
+        delta = new Delta(changes.snapshot(), tombstones);
+        return true;
+    }
+
+    /**
+     * Drops all of this user's changes, so the user sees the base again.
+     */
+    public synchronized void reset() {
+        delta = new Delta(new PersistentTrie(), new PersistentTrie());
+    }
+
+    /**
+     * Gets the number of words the user added, edited or removed.
+     *
+     * @return the number of words in the delta
+     */
+    public int getChangeCount() {
+        Delta current = delta;
+        return current.changes.size() + current.tombstones.size();
+    }
+
+    /**
+     * Sets the user's meaning of a word, lifting its tombstone if it has one.
+     *
+     * @return false if the word has unsupported characters
+     */
+    private boolean put(String lowerCaseWord, String meaning) {
+        Delta current = delta;
+        PersistentTrie.Editor changes = current.changes.edit();
+        if (!changes.put(lowerCaseWord, meaning)) {
+            return false;
+        }
+        PersistentTrie.Editor tombstones = current.tombstones.edit();
+        tombstones.remove(lowerCaseWord);
+        delta = new Delta(changes.snapshot(), tombstones.snapshot());
+        return true;
+    }
+
+    /**
+     * Looks up the word the user sees under exactly this spelling, without finding headwords of
+     * inflected forms.
+     */
+    private Word lookupExact(String lowerCaseWord) {
+        Word found = lookupWord(lowerCaseWord);
+        return found != null && found.getWordTarget().equals(lowerCaseWord) ? found : null;
+    }
+
+    private boolean isBaseWord(String lowerCaseWord) {
+        Word found = base.lookupWord(lowerCaseWord);
+        return found != null && found.getWordTarget().equals(lowerCaseWord);
+    }
+
+    /**
+     * Applies the user's changes to the headword that the base found for an inflected form.
+     */
+    private static Word resolve(Delta current, Word baseWord) {
+        String headword = baseWord.getWordTarget();
+        Word changed = current.changes.lookupWord(headword);
+        if (changed != null) {
+            return changed;
+        }
+        return current.tombstones.getMeaning(headword) != null ? null : baseWord;
+    }
+}
@@ -0,0 +1,54 @@
+import java.util.ArrayList;
+
+/**
+ * Reads the words with a given prefix from the dictionary one page at a time.
+ * Each page continues after the last word of the previous one, so browsing the whole dictionary
+ * never copies it into a single list.
+ */
+public class PagedWordList {
+
+    private final DictionaryManagement dictionary = DictionaryManagement.getInstance();
+    private final String prefix;
+    private final int pageSize;
+    private String lastWord = null;
+    private boolean exhausted = false;
+
+    /**
+     * Constructs a PagedWordList.
+     *
+     * @param prefix   the prefix of the words to browse, empty for the whole dictionary
+     * @param pageSize the number of words per page
+     */
+    public PagedWordList(String prefix, int pageSize) {
+        this.prefix = prefix;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Reads the next page of words.
+     *
+     * @return a list of at most pageSize words, empty once all words have been read
+     */
+    public synchronized ArrayList<Word> nextPage() {
+        if (exhausted) {
+            return new ArrayList<>();
+        }
+        ArrayList<Word> page = dictionary.searchWords(prefix, lastWord, pageSize);
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        if (!page.isEmpty()) {
+            lastWord = page.get(page.size() - 1).getWordTarget();
+        }
+        return page;
+    }
+
+    /**
+     * Checks whether all words have been read.
+     *
+     * @return true if there are no more pages
+     */
+    public synchronized boolean isExhausted() {
+        return exhausted;
+    }
+}
@@ -0,0 +1,374 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable trie of words and their meanings, the versioned counterpart of Trie.
+ * A version is never changed: a change copies only the nodes on the path of its word and shares all
+ * other nodes with the previous version, so it costs O(word length) nodes, and keeping a version
+ * around costs nothing until later changes copy its nodes.
+ * Changes are made through an Editor, which copies a node at most once between two snapshots, so a
+ * run of changes such as an import builds each node only once.
+ */
+public final class PersistentTrie {
+
+    // Children are ordered like Trie's charset, so both list words in the same order
+    private static final String ALPHABET = "- .'abcdefghijklmnopqrstuvwxyz";
+    private static final int[] ASCII_INDEX = new int[128];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    static {
+        Arrays.fill(ASCII_INDEX, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            ASCII_INDEX[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private static class Node {
+        Node[] children;
+        String meaning;
+        // The editor run that created the node; only that run may still change it in place
+        final Object owner;
+
+        Node(Node[] children, String meaning, Object owner) {
+            this.children = children;
+            this.meaning = meaning;
+            this.owner = owner;
+        }
+
+        Node child(int index) {
+            return index < children.length ? children[index] : null;
+        }
+
+        boolean isEmpty() {
+            if (meaning != null) {
+                return false;
+            }
+            for (Node child : children) {
+                if (child != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Receives one difference between two versions.
+     */
+    public interface Change {
+        /**
+         * Called for a word whose meaning differs.
+         *
+         * @param word the lower-case word
+         * @param from the meaning in the first version, or null if the word is not in it
+         * @param to   the meaning in the second version, or null if the word is not in it
+         */
+        void accept(String word, String from, String to);
+    }
+
+    private final Node root; // null when there are no words
+    private final int size;
+    private final int replacedNodes;
+
+    /**
+     * Constructs an empty version.
+     */
+    public PersistentTrie() {
+        this(null, 0, 0);
+    }
+
+    private PersistentTrie(Node root, int size, int replacedNodes) {
+        this.root = root;
+        this.size = size;
+        this.replacedNodes = replacedNodes;
+    }
+
+    /**
+     * Starts editing from this version, which stays unchanged.
+     *
+     * @return an editor whose first snapshot is this version
+     */
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+    /**
+     * Gets the number of words.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of nodes of the previous version that this one no longer shares, because the
+     * changes between them copied or removed them. This is the memory that keeping the previous
+     * version costs on top of this one.
+     *
+     * @return the number of replaced nodes
+     */
+    public int getReplacedNodes() {
+        return replacedNodes;
+    }
+
+    /**
+     * Looks up the meaning of a word.
+     *
+     * @param word the word, in any case
+     * @return the meaning, or null if the word is not in this version
+     */
+    public String getMeaning(String word) {
+        Node node = find(root, word.toLowerCase());
+        return node != null ? node.meaning : null;
+    }
+
+    /**
+     * Looks up a word. The result is a copy, so changing it does not change the version.
+     *
+     * @param word the word, in any case
+     * @return the Word object if found, null otherwise
+     */
+    public Word lookupWord(String word) {
+        String lowerCaseWord = word.toLowerCase();
+        Node node = find(root, lowerCaseWord);
+        return node != null && node.meaning != null ? new Word(lowerCaseWord, node.meaning) : null;
+    }
+
+    /**
+     * Retrieves all words in trie order.
+     *
+     * @return a list of all words
+     */
+    public ArrayList<Word> queryAllWords() {
+        return getProposedString("");
+    }
+
+    /**
+     * Retrieves the words with a prefix in trie order.
+     *
+     * @param prefix the prefix, in any case
+     * @return a list of the words with the prefix
+     */
+    public ArrayList<Word> getProposedString(String prefix) {
+        String lowerCasePrefix = prefix.toLowerCase();
+        ArrayList<Word> words = new ArrayList<>();
+        forEach(find(root, lowerCasePrefix), new StringBuilder(lowerCasePrefix),
+                (word, meaning) -> words.add(new Word(word, meaning)));
+        return words;
+    }
+
+    /**
+     * Passes every word and its meaning to an action in trie order, without building a list.
+     *
+     * @param action called with each lower-case word and its meaning
+     */
+    public void forEach(BiConsumer<String, String> action) {
+        forEach(root, new StringBuilder(), action);
+    }
+
+    private static void forEach(Node node, StringBuilder prefix, BiConsumer<String, String> action) {
+        if (node == null) {
+            return;
+        }
+        if (node.meaning != null) {
+            action.accept(prefix.toString(), node.meaning);
+        }
+        for (int i = 0; i < node.children.length; i++) {
+            if (node.children[i] != null) {
+                prefix.append(ALPHABET.charAt(i));
+                forEach(node.children[i], prefix, action);
+                prefix.setLength(prefix.length() - 1);
+            }
+        }
+    }
+
+    /**
+     * Finds the words whose meaning differs between this version and another, in trie order.
+     * Subtrees the two versions share are skipped, so the cost depends on the changes between the
+     * versions rather than on the number of words.
+     *
+     * @param to     the other version
+     * @param change called for each word that was added, removed or changed from this version to the other
+     */
+    public void diff(PersistentTrie to, Change change) {
+        diff(root, to.root, new StringBuilder(), change);
+    }
+
+    private static void diff(Node from, Node to, StringBuilder prefix, Change change) {
+        if (from == to) {
+            return;
+        }
+        String fromMeaning = from != null ? from.meaning : null;
+        String toMeaning = to != null ? to.meaning : null;
+        if (!Objects.equals(fromMeaning, toMeaning)) {
+            change.accept(prefix.toString(), fromMeaning, toMeaning);
+        }
+        int children = Math.max(from != null ? from.children.length : 0, to != null ? to.children.length : 0);
+        for (int i = 0; i < children; i++) {
+            prefix.append(ALPHABET.charAt(i));
+            diff(from != null ? from.child(i) : null, to != null ? to.child(i) : null, prefix, change);
+            prefix.setLength(prefix.length() - 1);
+        }
+    }
+
+    /**
+     * Walks a lower-case string from a node.
+     *
+     * @return the node of the string, or null if no word starts with it
+     */
+    private static Node find(Node node, String word) {
+        for (int i = 0; i < word.length() && node != null; i++) {
+            int index = indexOf(word.charAt(i));
+            node = index >= 0 ? node.child(index) : null;
+        }
+        return node;
+    }
+
+    /**
+     * Compares two lower-case words in trie order, the order in which Trie and this class list words:
+     * a word comes before the words it is a prefix of, and otherwise the first differing characters
+     * decide in the order of Trie's charset.
+     *
+     * @param a a word of supported characters
+     * @param b a word of supported characters
+     * @return a negative number, zero or a positive number as a comes before, equals or comes after b
+     */
+    public static int compare(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return Integer.compare(indexOf(a.charAt(i)), indexOf(b.charAt(i)));
+            }
+        }
+        return Integer.compare(a.length(), b.length());
+    }
+
+    private static int indexOf(char c) {
+        return c < ASCII_INDEX.length ? ASCII_INDEX[c] : -1;
+    }
+
+    /**
+     * Makes new versions from an existing one. The nodes an editor creates belong to it and are
+     * changed in place until the next snapshot, after which they are shared and copied again.
+     * An editor is not thread-safe.
+     */
+    public static final class Editor {
+        private Node root;
+        private int size;
+        private PersistentTrie last;
+        private Object owner = new Object();
+        private int replacedNodes = 0;
+
+        private Editor(PersistentTrie from) {
+            reset(from);
+        }
+
+        /**
+         * Sets the meaning of a word, adding it if needed.
+         *
+         * @param word    the lower-case word
+         * @param meaning the meaning
+         * @return false if the word has a character Trie does not support
+         */
+        public boolean put(String word, String meaning) {
+            for (int i = 0; i < word.length(); i++) {
+                if (indexOf(word.charAt(i)) < 0) {
+                    return false;
+                }
+            }
+            Node node = find(root, word);
+            if (node == null || !meaning.equals(node.meaning)) {
+                root = put(root, word, 0, meaning);
+            }
+            return true;
+        }
+
+        private Node put(Node node, String word, int depth, String meaning) {
+            Node editable = editable(node);
+            if (depth == word.length()) {
+                if (editable.meaning == null) {
+                    size++;
+                }
+                editable.meaning = meaning;
+                return editable;
+            }
+            int index = indexOf(word.charAt(depth));
+            Node child = put(editable.child(index), word, depth + 1, meaning);
+            if (index >= editable.children.length) {
+                editable.children = Arrays.copyOf(editable.children, index + 1);
+            }
+            editable.children[index] = child;
+            return editable;
+        }
+
+        /**
+         * Removes a word, and the nodes that lead to no other word.
+         *
+         * @param word the lower-case word
+         */
+        public void remove(String word) {
+            Node node = find(root, word);
+            if (node != null && node.meaning != null) {
+                root = remove(root, word, 0);
+            }
+        }
+
+        private Node remove(Node node, String word, int depth) {
+            Node editable = editable(node);
+            if (depth == word.length()) {
+                editable.meaning = null;
+                size--;
+            } else {
+                int index = indexOf(word.charAt(depth));
+                editable.children[index] = remove(editable.children[index], word, depth + 1);
+            }
+            // A shared node that is dropped counts as replaced, like one that is copied
+            return editable.isEmpty() ? null : editable;
+        }
+
+        /**
+         * Gets a node this editor may change, copying it if it is shared with a snapshot.
+         */
+        private Node editable(Node node) {
+            if (node == null) {
+                return new Node(NO_CHILDREN, null, owner);
+            }
+            if (node.owner == owner) {
+                return node;
+            }
+            replacedNodes++;
+            return new Node(node.children.clone(), node.meaning, owner);
+        }
+
+        /**
+         * Takes the current version. This is O(1): later changes copy the nodes they touch instead of
+         * changing the snapshot.
+         *
+         * @return the current version, the same object as the last snapshot if nothing changed since
+         */
+        public PersistentTrie snapshot() {
+            if (root != last.root) {
+                last = new PersistentTrie(root, size, replacedNodes);
+                owner = new Object();
+                replacedNodes = 0;
+            }
+            return last;
+        }
+
+        /**
+         * Continues editing from another version, dropping the changes since the last snapshot.
+         *
+         * @param version the version to continue from
+         */
+        public void reset(PersistentTrie version) {
+            root = version.root;
+            size = version.size;
+            last = version;
+            owner = new Object();
+            replacedNodes = 0;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Index of headwords by how they sound, for finding a word the user spelled the way it is pronounced.
+ * Each headword gets a Metaphone key, so "fonetik" and "phonetic" both become "FNTK". Headwords are
+ * stored once in an array and identified by their position in it; each key maps to a compact array
+ * of those ids. The index is updated word by word as words are added and removed. It is not thread
+ * safe: Dictionary guards it with its read-write lock.
+ */
+public class PhoneticIndex {
+
+    // Longer keys separate long words better but tolerate fewer misspellings
+    private static final int MAX_KEY_LENGTH = 6;
+    private static final int[] NO_IDS = new int[0];
+
+    private final HashMap<String, int[]> idsByKey = new HashMap<>();
+    private String[] headwords = new String[16];
+    private int[] freeIds = new int[16];
+    private int freeCount = 0;
+    private int nextId = 0;
+    private int size = 0;
+
+    /**
+     * Adds a headword. The caller makes sure it is not in the index yet.
+     *
+     * @param headword the lower-case headword
+     */
+    public void add(String headword) {
+        String key = key(headword);
+        if (key.isEmpty()) {
+            return;
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (nextId == headwords.length) {
+                headwords = Arrays.copyOf(headwords, headwords.length * 2);
+            }
+            id = nextId++;
+        }
+        headwords[id] = headword;
+        // The first slot of each id array holds the number of ids in use
+        int[] ids = idsByKey.getOrDefault(key, NO_IDS);
+        int count = ids.length == 0 ? 0 : ids[0];
+        if (count + 1 >= ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, ids.length * 2));
+            idsByKey.put(key, ids);
+        }
+        ids[++count] = id;
+        ids[0] = count;
+        size++;
+    }
+
+    /**
+     * Removes a headword if it is in the index.
+     *
+     * @param headword the lower-case headword
+     */
+    public void remove(String headword) {
+        String key = key(headword);
+        int[] ids = idsByKey.get(key);
+        if (ids == null) {
+            return;
+        }
+        int count = ids[0];
+        for (int i = 1; i <= count; i++) {
+            if (headwords[ids[i]].equals(headword)) {
+                int id = ids[i];
+                headwords[id] = null;
+                if (freeCount == freeIds.length) {
+                    freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+                }
+                freeIds[freeCount++] = id;
+                ids[i] = ids[count];
+                ids[0] = count - 1;
+                if (count == 1) {
+                    idsByKey.remove(key);
+                }
+                size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the headwords that sound like a word, closest in spelling first.
+     *
+     * @param word  the word as the user spelled it
+     * @param limit the maximum number of headwords to return
+     * @return at most limit headwords with the same key, by edit distance and then alphabetically
+     */
+    public ArrayList<String> find(String word, int limit) {
+        String lowerCaseWord = word.toLowerCase();
+        int[] ids = idsByKey.getOrDefault(key(lowerCaseWord), NO_IDS);
+        int count = ids.length == 0 ? 0 : ids[0];
+        String[] matches = new String[count];
+        int[] distances = new int[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            matches[i] = headwords[ids[i + 1]];
+            distances[i] = editDistance(lowerCaseWord, matches[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> distances[a] != distances[b]
+                ? Integer.compare(distances[a], distances[b]) : matches[a].compareTo(matches[b]));
+        ArrayList<String> result = new ArrayList<>(Math.min(limit, count));
+        for (int i = 0; i < count && result.size() < limit; i++) {
+            result.add(matches[order[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of headwords in the index.
+     *
+     * @return the number of headwords
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of distinct keys.
+     *
+     * @return the number of keys
+     */
+    public int getKeyCount() {
+        return idsByKey.size();
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings.
+     */
+    static int editDistance(String a, String b) {
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int above = row[j];
+                row[j] = Math.min(diagonal + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                        Math.min(row[j - 1] + 1, above + 1));
+                diagonal = above;
+            }
+        }
+        return row[b.length()];
+    }
+
+    /**
+     * Computes the Metaphone key of a word, after Lawrence Philips' rules. Letters are mapped to the
+     * consonant sounds they make in context, vowels after the first letter are dropped, and characters
+     * other than letters are ignored. The key is at most MAX_KEY_LENGTH characters; "0" stands for "th".
+     *
+     * @param word the word
+     * @return the key, empty if the word has no letters
+     */
+    public static String key(String word) {
+        StringBuilder letters = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            if (c >= 'A' && c <= 'Z') {
+                letters.append(c);
+            }
+        }
+        String w = letters.toString();
+        StringBuilder key = new StringBuilder(MAX_KEY_LENGTH);
+        if (w.isEmpty()) {
+            return "";
+        }
+
+        int start = 0;
+        if (w.startsWith("AE") || w.startsWith("GN") || w.startsWith("KN") || w.startsWith("PN") || w.startsWith("WR")) {
+            start = 1;
+        } else if (w.charAt(0) == 'X') {
+            key.append('S');
+            start = 1;
+        } else if (w.startsWith("WH")) {
+            key.append('W');
+            start = 2;
+        }
+
+        for (int i = start; i < w.length() && key.length() < MAX_KEY_LENGTH; i++) {
+            char c = w.charAt(i);
+            // Doubled letters sound once, except C as in "accent"
+            if (c != 'C' && i > 0 && w.charAt(i - 1) == c) {
+                continue;
+            }
+            char next = at(w, i + 1);
+            char previous = at(w, i - 1);
+            switch (c) {
+                case 'A': case 'E': case 'I': case 'O': case 'U':
+                    // Only a vowel that starts the word is heard in the key
+                    if (key.length() == 0 && i == start) {
+                        key.append('A');
+                    }
+                    break;
+                case 'B':
+                    if (!(previous == 'M' && i == w.length() - 1)) {
+                        key.append('B');
+                    }
+                    break;
+                case 'C':
+                    if (next == 'I' && at(w, i + 2) == 'A' || next == 'H') {
+                        key.append(previous == 'S' && next == 'H' ? 'K' : 'X');
+                        if (next == 'H') {
+                            i++;
+                        }
+                    } else if (next == 'I' || next == 'E' || next == 'Y') {
+                        if (previous != 'S') {
+                            key.append('S');
+                        }
+                    } else {
+                        key.append('K');
+                    }
+                    break;
+                case 'D':
+                    if (next == 'G' && isFrontVowel(at(w, i + 2))) {
+                        key.append('J');
+                        i++;
+                    } else {
+                        key.append('T');
+                    }
+                    break;
+                case 'G':
+                    if (next == 'H' && !(i + 2 == w.length() || isVowel(at(w, i + 2)))) {
+                        // Silent as in "night"
+                        break;
+                    }
+                    if (next == 'N' && (i + 2 == w.length() || w.startsWith("ED", i + 2) && i + 4 == w.length())) {
+                        // Silent as in "sign", "signed"
+                        break;
+                    }
+                    key.append(isFrontVowel(next) && previous != 'G' ? 'J' : 'K');
+                    break;
+                case 'H':
+                    if (isVowel(next) && "CSPTG".indexOf(previous) < 0) {
+                        key.append('H');
+                    }
+                    break;
+                case 'K':
+                    if (previous != 'C') {
+                        key.append('K');
+                    }
+                    break;
+                case 'P':
+                    key.append(next == 'H' ? 'F' : 'P');
+                    break;
+                case 'Q':
+                    key.append('K');
+                    break;
+                case 'S':
+                    if (next == 'H' || next == 'I' && (at(w, i + 2) == 'O' || at(w, i + 2) == 'A')) {
+                        key.append('X');
+                    } else {
+                        key.append('S');
+                    }
+                    break;
+                case 'T':
+                    if (next == 'I' && (at(w, i + 2) == 'O' || at(w, i + 2) == 'A')) {
+                        key.append('X');
+                    } else if (next == 'H') {
+                        key.append('0');
+                    } else if (!(next == 'C' && at(w, i + 2) == 'H')) {
+                        key.append('T');
+                    }
+                    break;
+                case 'V':
+                    key.append('F');
+                    break;
+                case 'W':
+                case 'Y':
+                    if (isVowel(next)) {
+                        key.append(c);
+                    }
+                    break;
+                case 'X':
+                    key.append('K');
+                    if (key.length() < MAX_KEY_LENGTH) {
+                        key.append('S');
+                    }
+                    break;
+                case 'Z':
+                    key.append('S');
+                    break;
+                default:
+                    // F, J, L, M, N and R sound as written
+                    key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    private static char at(String w, int i) {
+        return (i >= 0 && i < w.length()) ? w.charAt(i) : 0;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'A' || c == 'E' || c == 'I' || c == 'O' || c == 'U';
+    }
+
+    private static boolean isFrontVowel(char c) {
+        return c == 'E' || c == 'I' || c == 'Y';
+    }
+}
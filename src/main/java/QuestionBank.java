@@ -0,0 +1,291 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Read-only quiz question bank stored in an indexed binary file.
+ * Questions are read and decoded one at a time when they are needed, so a bank of millions of
+ * questions uses constant memory. Layout:
+ * <pre>
+ * "QBNK" | version int | count int | (count + 1) record offsets as longs | records
+ * record: correct answer byte | question and four options as modified UTF-8 strings
+ * </pre>
+ */
+public class QuestionBank implements Closeable {
+
+    private static final int MAGIC = 0x51424E4B; // "QBNK"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int OPTION_COUNT = 4;
+    private static final int FEISTEL_ROUNDS = 4;
+
+    private final FileChannel channel;
+    private final int count;
+
+    /**
+     * Opens a question bank file.
+     *
+     * @param path the bank file
+     * @throws IOException if the file cannot be read or is not a question bank
+     */
+    public QuestionBank(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException("Not a question bank: " + path);
+        }
+        count = header.getInt();
+    }
+
+    /**
+     * Gets the number of questions in the bank.
+     *
+     * @return the number of questions
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Reads and decodes one question.
+     *
+     * @param index the question index
+     * @return the question
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public QuizzGame.Question get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Question " + index + " of " + count);
+        }
+        try {
+            ByteBuffer bounds = read(HEADER_SIZE + 8L * index, 16);
+            long start = bounds.getLong();
+            long end = bounds.getLong();
+            ByteBuffer record = read(start, (int) (end - start));
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(record.array(), record.arrayOffset(), record.remaining()));
+            char correctAnswer = (char) in.readByte();
+            String questionText = in.readUTF();
+            String[] options = new String[OPTION_COUNT];
+            for (int i = 0; i < OPTION_COUNT; i++) {
+                options[i] = in.readUTF();
+            }
+            return new QuizzGame.Question(questionText, options, correctAnswer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a view of the bank in a random order. Positions are mapped to questions by a keyed
+     * permutation, a four-round Feistel network over the smallest power-of-four range that holds the
+     * bank, and values past the end are mapped again until they fall inside it. This visits every
+     * question once without storing a permutation, and different keys give unrelated orders, but the
+     * orders come from a family of at most 2^128 permutations rather than uniformly from all of them.
+     * Questions are only read when the view's get method is called.
+     *
+     * @param random the random number generator
+     * @return a read-only list view of the shuffled bank
+     */
+    public List<QuizzGame.Question> shuffled(Random random) {
+        int halfBits = 1;
+        while (1L << (2 * halfBits) < count) {
+            halfBits++;
+        }
+        int[] keys = new int[FEISTEL_ROUNDS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt();
+        }
+        int finalHalfBits = halfBits;
+        return new AbstractList<>() {
+            @Override
+            public QuizzGame.Question get(int position) {
+                if (position < 0 || position >= count) {
+                    throw new IndexOutOfBoundsException("Position " + position + " of " + count);
+                }
+                long index = position;
+                do {
+                    index = permute(index, finalHalfBits, keys);
+                } while (index >= count);
+                return QuestionBank.this.get((int) index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    private static long permute(long value, int halfBits, int[] keys) {
+        long mask = (1L << halfBits) - 1;
+        long left = value >>> halfBits;
+        long right = value & mask;
+        for (int key : keys) {
+            long mixed = (right * 0x9E3779B97F4A7C15L) ^ key;
+            mixed ^= mixed >>> 29;
+            mixed *= 0xBF58476D1CE4E5B9L;
+            mixed ^= mixed >>> 32;
+            long next = left ^ (mixed & mask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of question bank");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes questions to a bank file. The records are streamed to disk and the index is filled in
+     * afterwards, so only the offsets are kept in memory.
+     *
+     * @param questions the questions to write
+     * @param count     the number of questions
+     * @param path      the bank file to create
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Iterable<QuizzGame.Question> questions, int count, Path path) throws IOException {
+        long[] offsets = new long[count + 1];
+        long dataStart = HEADER_SIZE + 8L * (count + 1);
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            file.position(dataStart);
+            OutputStream data = new BufferedOutputStream(Channels.newOutputStream(file));
+            ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+            DataOutputStream record = new DataOutputStream(recordBytes);
+
+            long position = dataStart;
+            int written = 0;
+            for (QuizzGame.Question question : questions) {
+                if (written == count) {
+                    break;
+                }
+                recordBytes.reset();
+                record.writeByte(question.getCorrectAnswer());
+                record.writeUTF(question.getQuestionText());
+                for (int i = 0; i < OPTION_COUNT; i++) {
+                    record.writeUTF(question.getOptions()[i]);
+                }
+                offsets[written++] = position;
+                recordBytes.writeTo(data);
+                position += recordBytes.size();
+            }
+            if (written != count) {
+                throw new IOException("Expected " + count + " questions but got " + written);
+            }
+            offsets[count] = position;
+            data.flush();
+
+            ByteBuffer header = ByteBuffer.allocate((int) dataStart);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count);
+            for (long offset : offsets) {
+                header.putLong(offset);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                file.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Parses one line of the text question format: "question/option A/option B/option C/option D/answer".
+     * The last five fields are split from the right, so the question itself may contain slashes.
+     *
+     * @param line the line to parse
+     * @return the question, or null if the line is malformed
+     */
+    public static QuizzGame.Question parseTextLine(String line) {
+        String[] parts = line.split("/", -1);
+        if (parts.length < 6) {
+            return null;
+        }
+        int n = parts.length;
+        String answer = parts[n - 1].trim();
+        if (answer.isEmpty()) {
+            return null;
+        }
+        String questionText = String.join("/", Arrays.copyOfRange(parts, 0, n - 5));
+        String[] options = Arrays.copyOfRange(parts, n - 5, n - 1);
+        return new QuizzGame.Question(questionText, options, answer.charAt(0));
+    }
+
+    /**
+     * Converts a question file in the text format into a bank file.
+     *
+     * @param textPath the text question file
+     * @param bankPath the bank file to create
+     * @return the number of questions written
+     * @throws IOException if a file cannot be read or written
+     */
+    public static int convert(Path textPath, Path bankPath) throws IOException {
+        // First pass counts the questions so the index can be sized without holding them in memory
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(textPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (parseTextLine(line) != null) {
+                    count++;
+                }
+            }
+        }
+        try (BufferedReader reader = Files.newBufferedReader(textPath)) {
+            Iterable<QuizzGame.Question> questions = () -> reader.lines()
+                    .map(QuestionBank::parseTextLine)
+                    .filter(question -> question != null)
+                    .iterator();
+            write(questions, count, bankPath);
+        }
+        return count;
+    }
+
+    /**
+     * Converts a text question file into a bank file.
+     * Usage: QuestionBank input.txt output.qbank
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: QuestionBank <questions.txt> <questions.qbank>");
+            return;
+        }
+        int count = convert(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(count + " questions written to " + args[1]);
+
+        try (QuestionBank bank = new QuestionBank(Path.of(args[1]))) {
+            bank.shuffled(new Random()).subList(0, Math.min(3, bank.size()))
+                    .forEach(question -> System.out.println("- " + question.getQuestionText()));
+        }
+    }
+}
@@ -3,6 +3,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 
 public class QuizGameUI extends QuizzGame {
+    private static final int GENERATED_BATCH = 10;
     private Label questionLabel;
     private RadioButton[] optionButtons;
     private ToggleGroup optionsGroup;
@@ -14,6 +15,7 @@ public class QuizGameUI extends QuizzGame {
     private int currentQuestionIndex;
     private int score;
     private boolean showingFeedback;
+    private final UiStallMonitor stallMonitor = UiStallMonitor.getInstance();
 
     public QuizGameUI(VBox vbox) {
         super();
@@ -50,11 +52,11 @@ public class QuizGameUI extends QuizzGame {
         vbox.getChildren().addAll(feedbackLabel, nextButton, scoreLabel);
 
         // Load questions and display the first one
-        loadQuestionsFromFile(QuizGameUI.class.getResource("/game_data/quiz_questions.txt").getPath());
+        loadDefaultQuestions();
         displayQuestion(currentQuestionIndex);
 
         // Set the next button action
-        nextButton.setOnAction(e -> {
+        nextButton.setOnAction(stallMonitor.instrument("quiz: next", e -> {
             if (showingFeedback) {
                 // Move to the next question
                 currentQuestionIndex++;
@@ -68,12 +70,15 @@ public class QuizGameUI extends QuizzGame {
                     nextButton.setDisable(true);
                 }
             } else {
-                // Show feedback
+                // Show feedback, and keep the quiz going with generated questions at the last one
                 checkAnswer();
                 showingFeedback = true;
+                if (currentQuestionIndex == getQuestions().size() - 1) {
+                    addGeneratedQuestions(GENERATED_BATCH);
+                }
                 nextButton.setText(currentQuestionIndex < getQuestions().size() - 1 ? "Next Question" : "Finish");
             }
-        });
+        }));
     }
 
     private void displayQuestion(int index) {
@@ -103,6 +108,13 @@ public class QuizGameUI extends QuizzGame {
         RadioButton selectedRadioButton = (RadioButton) optionsGroup.getSelectedToggle();
         if (selectedRadioButton != null) {
             char selectedOption = selectedRadioButton.getText().charAt(0);
+            String answer = question.getOptions()[question.getCorrectAnswer() - 'A'].trim();
+            Word headword = DictionaryManagement.getInstance().lookupWord(answer);
+            // Answers from the question file may be phrases or inflected forms, which have no card
+            if (headword != null && headword.getWordTarget().equals(answer.toLowerCase())) {
+                ReviewScheduler.getInstance().recordQuiz(ReviewScheduler.LOCAL_USER, headword.getWordTarget(),
+                        selectedOption == question.getCorrectAnswer());
+            }
             if (selectedOption == question.getCorrectAnswer()) {
                 score++;
                 feedbackLabel.setText("Correct!");
@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Generates an unlimited stream of multiple-choice questions from the dictionary.
+ * Each question shows the meaning of a random headword and asks for the word. Distractors are words
+ * that look similar to the answer: its neighbours in the trie, words of the same length, and words
+ * sharing its first letters. They are sampled by rank with the trie's subtree counts, so a question
+ * costs O(word length) regardless of the dictionary size. Questions are generated ahead of time into
+ * a small buffer on the background executor.
+ */
+public class QuizQuestionGenerator implements Iterator<QuizzGame.Question> {
+
+    private static final int OPTION_COUNT = 4;
+    private static final int MAX_TRIES = 20;
+
+    private final DictionaryManagement dictionary = DictionaryManagement.getInstance();
+    private final Random random;
+    private final BlockingQueue<QuizzGame.Question> buffer;
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+
+    /**
+     * Constructs a QuizQuestionGenerator.
+     *
+     * @param random   the random number generator
+     * @param prefetch the number of questions to keep ready
+     */
+    public QuizQuestionGenerator(Random random, int prefetch) {
+        this.random = random;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(prefetch, 1));
+    }
+
+    /**
+     * Checks whether questions can be generated, which needs at least four words.
+     *
+     * @return true if the dictionary has enough words
+     */
+    @Override
+    public boolean hasNext() {
+        return dictionary.getWordCount() >= OPTION_COUNT;
+    }
+
+    /**
+     * Takes the next question from the prefetch buffer, generating one directly if the buffer is empty.
+     *
+     * @return the next question
+     * @throws NoSuchElementException if the buffer is empty and the dictionary has fewer than four words
+     */
+    @Override
+    public QuizzGame.Question next() {
+        QuizzGame.Question question = buffer.poll();
+        if (question == null) {
+            question = generate();
+        }
+        if (buffer.remainingCapacity() > 0 && refilling.compareAndSet(false, true)) {
+            BackgroundExecutor.getInstance().execute(this::refill);
+        }
+        return question;
+    }
+
+    /**
+     * Returns the questions as an infinite lazy stream.
+     *
+     * @return a stream of questions
+     */
+    public Stream<QuizzGame.Question> stream() {
+        return Stream.generate(this::next);
+    }
+
+    /**
+     * Generates one question. Words may be removed meanwhile, so every word drawn may be missing: the
+     * answer is drawn under a single lock, and distractors that are gone are skipped.
+     *
+     * @return a question with four options, exactly one of which is correct
+     * @throws NoSuchElementException if the dictionary has fewer than four words, such as when it is
+     *                                empty
+     */
+    public QuizzGame.Question generate() {
+        int size = dictionary.getWordCount();
+        Word answer = size >= OPTION_COUNT ? dictionary.getRandomWord(random, 0, Integer.MAX_VALUE) : null;
+        if (answer == null) {
+            throw new NoSuchElementException("The dictionary has fewer than " + OPTION_COUNT + " words");
+        }
+        String target = answer.getWordTarget();
+
+        ArrayList<String> options = new ArrayList<>();
+        options.add(target);
+        for (int tries = 0; options.size() < OPTION_COUNT && tries < MAX_TRIES; tries++) {
+            Word distractor;
+            switch (tries % 3) {
+                case 0:
+                    distractor = neighbour(target, size);
+                    break;
+                case 1:
+                    distractor = dictionary.getRandomWord(random, target.length(), target.length());
+                    break;
+                default:
+                    distractor = sharedPrefix(target);
+                    break;
+            }
+            addOption(options, distractor);
+        }
+        for (int tries = 0; options.size() < OPTION_COUNT && tries < MAX_TRIES; tries++) {
+            addOption(options, dictionary.getRandomWord(random, 0, Integer.MAX_VALUE));
+        }
+        if (options.size() < OPTION_COUNT) {
+            throw new NoSuchElementException("Not enough distinct words for " + OPTION_COUNT + " options");
+        }
+
+        // Move the answer to a random slot
+        int correct = random.nextInt(OPTION_COUNT);
+        options.set(0, options.get(correct));
+        options.set(correct, target);
+        return new QuizzGame.Question("Which word means \"" + shortMeaning(answer) + "\"?",
+                options.toArray(new String[0]), (char) ('A' + correct));
+    }
+
+    /**
+     * Fills the prefetch buffer in the background.
+     */
+    private void refill() {
+        try {
+            while (buffer.remainingCapacity() > 0 && hasNext()) {
+                buffer.offer(generate());
+            }
+        } catch (NoSuchElementException e) {
+            // Words were removed since hasNext(); the next call to next() reports it
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * Picks a word a few ranks before or after the target.
+     */
+    private Word neighbour(String target, int size) {
+        int offset = 1 + random.nextInt(3);
+        int rank = dictionary.rank(target) + (random.nextBoolean() ? offset : -offset);
+        return dictionary.select(Math.floorMod(rank, size));
+    }
+
+    /**
+     * Picks a random word that shares the target's first two letters.
+     */
+    private Word sharedPrefix(String target) {
+        String prefix = target.substring(0, Math.min(2, target.length()));
+        int count = dictionary.countPrefix(prefix);
+        return count > 0 ? dictionary.select(dictionary.rank(prefix) + random.nextInt(count)) : null;
+    }
+
+    private void addOption(ArrayList<String> options, Word word) {
+        if (word != null && !options.contains(word.getWordTarget())) {
+            options.add(word.getWordTarget());
+        }
+    }
+
+    /**
+     * Picks the first definition line of a word, falling back to its first non-empty line.
+     */
+    private static String shortMeaning(Word word) {
+        String fallback = null;
+        for (String line : word.getWordExplain().split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("-")) {
+                return trimmed.substring(1).trim();
+            }
+            if (fallback == null && !trimmed.isEmpty()) {
+                fallback = trimmed;
+            }
+        }
+        return fallback != null ? fallback : word.getWordTarget();
+    }
+}
@@ -1,30 +1,95 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 public class QuizzGame {
-    private List<Question> questions;
+    private static final int PREFETCH = 16;
+    private static final String DEFAULT_QUESTIONS = "/game_data/quiz_questions";
+    private final Random random = new Random();
+    // Questions from an opened bank come first, then those loaded from text files or generated
+    private QuestionBank bank;
+    private List<Question> bankQuestions = Collections.emptyList();
+    private final List<Question> addedQuestions = new ArrayList<>();
+    private QuizQuestionGenerator generator;
+    private final List<Question> questions = new AbstractList<>() {
+        @Override
+        public Question get(int index) {
+            int banked = bankQuestions.size();
+            return index < banked ? bankQuestions.get(index) : addedQuestions.get(index - banked);
+        }
+
+        @Override
+        public int size() {
+            return bankQuestions.size() + addedQuestions.size();
+        }
+    };
 
     public QuizzGame() {
-        this.questions = new ArrayList<>();
     }
 
+    /**
+     * Gets the questions: those of the opened bank in shuffled order, then the ones loaded from text
+     * files or generated. Bank questions are read from the file when they are asked for.
+     *
+     * @return a read-only view of the questions
+     */
     public List<Question> getQuestions() {
         return questions;
     }
 
+    /**
+     * Loads the bundled questions, from quiz_questions.qbank in the game data when it exists and from
+     * quiz_questions.txt otherwise.
+     */
+    public void loadDefaultQuestions() {
+        URL bankFile = QuizzGame.class.getResource(DEFAULT_QUESTIONS + ".qbank");
+        if (bankFile == null || !loadQuestionsFromBank(bankFile.getPath())) {
+            loadQuestionsFromFile(QuizzGame.class.getResource(DEFAULT_QUESTIONS + ".txt").getPath());
+        }
+    }
+
+    /**
+     * Opens a question bank file, see QuestionBank, and takes its questions in shuffled order in place
+     * of those of a bank opened before. The file stays open for the life of the game.
+     *
+     * @param filename the bank file
+     * @return false if the file cannot be opened as a bank
+     */
+    public boolean loadQuestionsFromBank(String filename) {
+        QuestionBank opened;
+        try {
+            opened = new QuestionBank(Path.of(filename));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        if (bank != null) {
+            try {
+                bank.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        bank = opened;
+        bankQuestions = opened.shuffled(random);
+        return true;
+    }
+
     public void loadQuestionsFromFile(String filename) {
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("/");
-                if (parts.length == 6) {
-                    String questionText = parts[0];
-                    String[] options = {parts[1], parts[2], parts[3], parts[4]};
-                    char correctAnswer = parts[5].charAt(0);
-                    questions.add(new Question(questionText, options, correctAnswer));
+                Question question = QuestionBank.parseTextLine(line);
+                if (question != null) {
+                    addedQuestions.add(question);
                 }
             }
         } catch (IOException e) {
@@ -32,6 +97,32 @@ public class QuizzGame {
         }
     }
 
+    /**
+     * Appends questions generated from the dictionary, so the quiz can continue after the file runs out.
+     * Does nothing while the dictionary is still loading.
+     *
+     * @param count the number of questions to add
+     * @return true if questions were added
+     */
+    public boolean addGeneratedQuestions(int count) {
+        if (!DictionaryManagement.getInstance().isLoaded()) {
+            return false;
+        }
+        if (generator == null) {
+            generator = new QuizQuestionGenerator(random, PREFETCH);
+        }
+        if (!generator.hasNext()) {
+            return false;
+        }
+        int before = addedQuestions.size();
+        try {
+            generator.stream().limit(count).forEach(addedQuestions::add);
+        } catch (NoSuchElementException e) {
+            // Words were removed since hasNext(), keep the questions generated so far
+        }
+        return addedQuestions.size() > before;
+    }
+
     public void startQuiz() {
     }
 
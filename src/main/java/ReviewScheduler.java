@@ -0,0 +1,330 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Singleton spaced-repetition scheduler for learned words, using the SM-2 algorithm.
+ * Quiz and Wordle outcomes are recorded per user and headword as review cards. Card state lives in
+ * parallel primitive arrays, and each user's cards are kept in an indexed min-heap on their due time,
+ * so finding due cards and rescheduling a card are both O(log n).
+ */
+public class ReviewScheduler {
+
+    /** The user of this desktop installation. */
+    public static final String LOCAL_USER = System.getProperty("user.name", "default");
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int MAGIC = 0x53524331; // "SRC1"
+    private static final Path DEFAULT_PATH = Path.of(System.getProperty("user.dir"), "reviews.dat");
+    private static ReviewScheduler instance = null;
+
+    private final Map<String, Integer> cardIds = new HashMap<>();
+    private final Map<String, DueQueue> queues = new HashMap<>();
+    private String[] cardWords = new String[16];
+    private long[] due = new long[16];
+    private int[] intervalDays = new int[16];
+    private short[] easiness = new short[16]; // SM-2 easiness factor times 100
+    private short[] repetitions = new short[16];
+    private int[] heapPosition = new int[16];
+    private int cardCount = 0;
+
+    /**
+     * Gets the singleton instance, loading saved reviews from reviews.dat in the working directory.
+     *
+     * @return the singleton instance
+     */
+    public static synchronized ReviewScheduler getInstance() {
+        if (instance == null) {
+            instance = new ReviewScheduler();
+            if (Files.exists(DEFAULT_PATH)) {
+                try {
+                    instance.load(DEFAULT_PATH);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Records the outcome of a quiz question.
+     *
+     * @param user    the user
+     * @param word    the headword of the correct answer
+     * @param correct true if the user answered correctly
+     */
+    public void recordQuiz(String user, String word, boolean correct) {
+        record(user, word, correct ? 4 : 1, System.currentTimeMillis());
+    }
+
+    /**
+     * Records the outcome of a Wordle game. Solving it in fewer attempts counts as better recall.
+     *
+     * @param user     the user
+     * @param word     the target word
+     * @param attempts the number of guesses used
+     * @param solved   true if the word was found
+     */
+    public void recordWordle(String user, String word, int attempts, boolean solved) {
+        int quality = !solved ? 1 : attempts <= 2 ? 5 : attempts <= 4 ? 4 : 3;
+        record(user, word, quality, System.currentTimeMillis());
+    }
+
+    /**
+     * Records a review and reschedules the card with SM-2.
+     *
+     * @param user    the user
+     * @param word    the headword
+     * @param quality the recall quality from 0 (forgotten) to 5 (perfect)
+     * @param now     the review time in epoch milliseconds
+     */
+    public synchronized void record(String user, String word, int quality, long now) {
+        int q = Math.max(0, Math.min(5, quality));
+        int card = cardFor(user, word.toLowerCase(), now);
+
+        if (q < 3) {
+            repetitions[card] = 0;
+            intervalDays[card] = 1;
+        } else {
+            repetitions[card]++;
+            if (repetitions[card] == 1) {
+                intervalDays[card] = 1;
+            } else if (repetitions[card] == 2) {
+                intervalDays[card] = 6;
+            } else {
+                intervalDays[card] = Math.round(intervalDays[card] * easiness[card] / 100f);
+            }
+        }
+        int ef = easiness[card] + (10 - (5 - q) * (8 + (5 - q) * 2));
+        easiness[card] = (short) Math.max(ef, 130);
+
+        due[card] = now + intervalDays[card] * DAY_MILLIS;
+        queues.get(user).update(card);
+    }
+
+    /**
+     * Lists the words due for review, earliest first.
+     *
+     * @param user  the user
+     * @param now   the current time in epoch milliseconds
+     * @param limit the maximum number of words
+     * @return at most limit due words
+     */
+    public synchronized List<String> getDueWords(String user, long now, int limit) {
+        List<String> words = new ArrayList<>();
+        DueQueue queue = queues.get(user);
+        if (queue != null) {
+            for (int card : queue.due(now, limit)) {
+                words.add(cardWords[card]);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Gets the time of the user's next review.
+     *
+     * @param user the user
+     * @return the earliest due time in epoch milliseconds, or Long.MAX_VALUE if the user has no cards
+     */
+    public synchronized long getNextDue(String user) {
+        DueQueue queue = queues.get(user);
+        return (queue == null || queue.size == 0) ? Long.MAX_VALUE : due[queue.heap[0]];
+    }
+
+    /**
+     * Gets the number of review cards across all users.
+     *
+     * @return the number of cards
+     */
+    public synchronized int getCardCount() {
+        return cardCount;
+    }
+
+    /**
+     * Saves all cards to the default file.
+     */
+    public void save() {
+        try {
+            save(DEFAULT_PATH);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves all cards to a file.
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(queues.size());
+            for (Map.Entry<String, DueQueue> entry : queues.entrySet()) {
+                DueQueue queue = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(queue.size);
+                for (int i = 0; i < queue.size; i++) {
+                    int card = queue.heap[i];
+                    out.writeUTF(cardWords[card]);
+                    out.writeLong(due[card]);
+                    out.writeInt(intervalDays[card]);
+                    out.writeShort(easiness[card]);
+                    out.writeShort(repetitions[card]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads cards from a file, replacing cards for the same user and word.
+     *
+     * @param path the file to read
+     * @throws IOException if the file cannot be read or has the wrong format
+     */
+    public synchronized void load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a review file: " + path);
+            }
+            int users = in.readInt();
+            for (int u = 0; u < users; u++) {
+                String user = in.readUTF();
+                int cards = in.readInt();
+                for (int i = 0; i < cards; i++) {
+                    // Cards were saved in heap order, so new cards append without sifting
+                    int card = cardFor(user, in.readUTF(), in.readLong());
+                    intervalDays[card] = in.readInt();
+                    easiness[card] = in.readShort();
+                    repetitions[card] = in.readShort();
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds or creates the card for a user and word.
+     *
+     * @param dueTime the due time of the card if it is new, or the new due time of an existing card
+     */
+    private int cardFor(String user, String word, long dueTime) {
+        Integer existing = cardIds.get(user + '\t' + word);
+        if (existing != null) {
+            due[existing] = dueTime;
+            queues.get(user).update(existing);
+            return existing;
+        }
+        if (cardCount == due.length) {
+            int capacity = cardCount * 2;
+            cardWords = Arrays.copyOf(cardWords, capacity);
+            due = Arrays.copyOf(due, capacity);
+            intervalDays = Arrays.copyOf(intervalDays, capacity);
+            easiness = Arrays.copyOf(easiness, capacity);
+            repetitions = Arrays.copyOf(repetitions, capacity);
+            heapPosition = Arrays.copyOf(heapPosition, capacity);
+        }
+        int card = cardCount++;
+        cardWords[card] = word;
+        due[card] = dueTime;
+        intervalDays[card] = 0;
+        easiness[card] = 250;
+        repetitions[card] = 0;
+        heapPosition[card] = -1;
+        cardIds.put(user + '\t' + word, card);
+        queues.computeIfAbsent(user, key -> new DueQueue()).add(card);
+        return card;
+    }
+
+    /**
+     * Indexed binary min-heap of card ids ordered by due time.
+     * heapPosition tracks where each card sits, so a rescheduled card is sifted from its slot in O(log n).
+     */
+    private class DueQueue {
+        int[] heap = new int[8];
+        int size = 0;
+
+        void add(int card) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            heap[size] = card;
+            heapPosition[card] = size++;
+            siftUp(heapPosition[card]);
+        }
+
+        void update(int card) {
+            int position = heapPosition[card];
+            siftUp(position);
+            siftDown(heapPosition[card]);
+        }
+
+        /**
+         * Collects due cards by walking only the part of the heap whose keys are due, earliest first.
+         * Takes O(k log k) for k returned cards, independent of the heap size.
+         */
+        List<Integer> due(long now, int limit) {
+            List<Integer> cards = new ArrayList<>();
+            PriorityQueue<Integer> frontier = new PriorityQueue<>(Comparator.comparingLong(position -> due[heap[position]]));
+            if (size > 0 && due[heap[0]] <= now) {
+                frontier.add(0);
+            }
+            while (!frontier.isEmpty() && cards.size() < limit) {
+                int position = frontier.poll();
+                cards.add(heap[position]);
+                for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                    if (due[heap[child]] <= now) {
+                        frontier.add(child);
+                    }
+                }
+            }
+            return cards;
+        }
+
+        private void siftUp(int position) {
+            int card = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (due[heap[parent]] <= due[card]) {
+                    break;
+                }
+                move(heap[parent], position);
+                position = parent;
+            }
+            move(card, position);
+        }
+
+        private void siftDown(int position) {
+            int card = heap[position];
+            while (2 * position + 1 < size) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && due[heap[child + 1]] < due[heap[child]]) {
+                    child++;
+                }
+                if (due[heap[child]] >= due[card]) {
+                    break;
+                }
+                move(heap[child], position);
+                position = child;
+            }
+            move(card, position);
+        }
+
+        private void move(int card, int position) {
+            heap[position] = card;
+            heapPosition[card] = position;
+        }
+    }
+}
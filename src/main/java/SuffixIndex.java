@@ -0,0 +1,251 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Suffix array with an LCP array over all headwords, for finding the words that contain a string or
+ * end with it. The headwords are concatenated, each followed by a separator, and every suffix of the
+ * text is sorted. The suffixes starting with a pattern form one run of the array: its first entry is
+ * found by binary search in O(m log n) for a pattern of length m, and the run is extended while the
+ * longest common prefix with the previous suffix is at least m, in O(k) for k occurrences.
+ * Matches are reported as ordinals: positions of the words in the list the index was built from.
+ * The index is immutable, so it is rebuilt after the words change.
+ */
+public class SuffixIndex {
+
+    private static final char SEPARATOR = '\u0001';
+    private static final char SENTINEL = '\u0000';
+
+    private final char[] text;
+    private final int[] wordStarts; // position of each word in the text, in ordinal order
+    private final int[] suffixArray;
+    private final int[] lcp;        // lcp[i] is the common prefix length of suffixes i - 1 and i
+    private final long version;
+
+    /**
+     * Builds the index.
+     *
+     * @param headwords the lower-case words
+     * @param version   the version of the words, to tell later whether the index is still current
+     */
+    public SuffixIndex(List<String> headwords, long version) {
+        this.version = version;
+        int length = 0;
+        for (String word : headwords) {
+            length += word.length() + 1;
+        }
+        text = new char[length];
+        wordStarts = new int[headwords.size()];
+        int position = 0;
+        for (int i = 0; i < headwords.size(); i++) {
+            String word = headwords.get(i);
+            wordStarts[i] = position;
+            word.getChars(0, word.length(), text, position);
+            position += word.length();
+            text[position++] = SEPARATOR;
+        }
+        suffixArray = buildSuffixArray(text);
+        lcp = buildLcp(text, suffixArray);
+    }
+
+    /**
+     * Sorts the suffixes by prefix doubling: after round h the suffixes are sorted by their first 2^h
+     * characters, using the ranks from the previous round as the keys of a counting sort. A sentinel
+     * smaller than every character is appended, so sorting rotations sorts suffixes. O(n log n).
+     *
+     * @param text the text
+     * @return the start of each suffix, in sorted order
+     */
+    private static int[] buildSuffixArray(char[] text) {
+        int n = text.length + 1;
+        int[] order = new int[n];
+        int[] classes = new int[n];
+        int[] count = new int[Math.max(Character.MAX_VALUE + 1, n)];
+        for (int i = 0; i < n; i++) {
+            count[charAt(text, i)]++;
+        }
+        for (int c = 1; c <= Character.MAX_VALUE; c++) {
+            count[c] += count[c - 1];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            order[--count[charAt(text, i)]] = i;
+        }
+        int classCount = 1;
+        for (int i = 1; i < n; i++) {
+            if (charAt(text, order[i]) != charAt(text, order[i - 1])) {
+                classCount++;
+            }
+            classes[order[i]] = classCount - 1;
+        }
+
+        int[] shifted = new int[n];
+        int[] newClasses = new int[n];
+        for (int length = 1; length < n && classCount < n; length <<= 1) {
+            // Sorted by the second half already, so a stable sort by the first half sorts both
+            for (int i = 0; i < n; i++) {
+                shifted[i] = order[i] - length < 0 ? order[i] - length + n : order[i] - length;
+            }
+            Arrays.fill(count, 0, classCount, 0);
+            for (int i = 0; i < n; i++) {
+                count[classes[shifted[i]]]++;
+            }
+            for (int c = 1; c < classCount; c++) {
+                count[c] += count[c - 1];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                order[--count[classes[shifted[i]]]] = shifted[i];
+            }
+            newClasses[order[0]] = 0;
+            classCount = 1;
+            for (int i = 1; i < n; i++) {
+                int current = order[i];
+                int previous = order[i - 1];
+                if (classes[current] != classes[previous]
+                        || classes[(current + length) % n] != classes[(previous + length) % n]) {
+                    classCount++;
+                }
+                newClasses[current] = classCount - 1;
+            }
+            int[] swap = classes;
+            classes = newClasses;
+            newClasses = swap;
+        }
+        // The sentinel's suffix comes first
+        return Arrays.copyOfRange(order, 1, n);
+    }
+
+    private static char charAt(char[] text, int i) {
+        return i < text.length ? text[i] : SENTINEL;
+    }
+
+    /**
+     * Computes the LCP array with Kasai's algorithm in O(n): going through the suffixes in text order,
+     * the common prefix with the suffix sorted before shrinks by at most one each step.
+     */
+    private static int[] buildLcp(char[] text, int[] suffixArray) {
+        int n = suffixArray.length;
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[suffixArray[i]] = i;
+        }
+        int[] lcp = new int[n];
+        int common = 0;
+        for (int i = 0; i < n; i++) {
+            if (rank[i] == 0) {
+                common = 0;
+                continue;
+            }
+            int j = suffixArray[rank[i] - 1];
+            while (i + common < n && j + common < n && text[i + common] == text[j + common]) {
+                common++;
+            }
+            lcp[rank[i]] = common;
+            if (common > 0) {
+                common--;
+            }
+        }
+        return lcp;
+    }
+
+    /**
+     * Gets the version the index was built for.
+     *
+     * @return the version passed to the constructor
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Finds the words that contain a string.
+     *
+     * @param infix the lower-case string
+     * @param limit the maximum number of ordinals to return
+     * @return the ordinals of the matching words in increasing order, at most limit of them
+     */
+    public int[] findContaining(String infix, int limit) {
+        return find(infix, limit);
+    }
+
+    /**
+     * Finds the words that end with a string.
+     *
+     * @param suffix the lower-case string
+     * @param limit  the maximum number of ordinals to return
+     * @return the ordinals of the matching words in increasing order, at most limit of them
+     */
+    public int[] findEndingWith(String suffix, int limit) {
+        return find(suffix + SEPARATOR, limit);
+    }
+
+    /**
+     * Finds the run of suffixes starting with a pattern and maps them to word ordinals. Sorting the
+     * k ordinals into word order and removing words that contain the pattern twice adds O(k log k).
+     */
+    private int[] find(String pattern, int limit) {
+        if (pattern.isEmpty()) {
+            int[] all = new int[Math.min(limit, wordStarts.length)];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        int m = pattern.length();
+        int low = 0;
+        int high = suffixArray.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(suffixArray[middle], pattern) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == suffixArray.length || compare(suffixArray[low], pattern) != 0) {
+            return new int[0];
+        }
+        int end = low + 1;
+        while (end < suffixArray.length && lcp[end] >= m) {
+            end++;
+        }
+
+        int[] ordinals = new int[end - low];
+        for (int i = low; i < end; i++) {
+            int found = Arrays.binarySearch(wordStarts, suffixArray[i]);
+            ordinals[i - low] = found >= 0 ? found : -found - 2;
+        }
+        Arrays.sort(ordinals);
+        int distinct = 0;
+        for (int i = 0; i < ordinals.length && distinct < limit; i++) {
+            if (i == 0 || ordinals[i] != ordinals[i - 1]) {
+                ordinals[distinct++] = ordinals[i];
+            }
+        }
+        return Arrays.copyOf(ordinals, distinct);
+    }
+
+    /**
+     * Compares the first m characters of a suffix with a pattern of length m.
+     *
+     * @return a negative number, zero, or a positive number as the suffix's start is smaller than,
+     * equal to, or greater than the pattern
+     */
+    private int compare(int start, String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (start + i == text.length) {
+                return -1;
+            }
+            int difference = text[start + i] - pattern.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Estimates the memory used by the index.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getEstimatedBytes() {
+        return 2L * text.length + 4L * (wordStarts.length + suffixArray.length + lcp.length) + 64;
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.ArrayList;
+
+/**
+ * Computes search-as-you-type suggestions.
+ * When the user extends the previous prefix, the search continues from the trie node reached last time
+ * instead of walking the whole prefix again from the root. Once the dictionary is frozen the trie is
+ * empty, and suggestions come from the frozen dictionary instead.
+ */
+public class SuggestionSearch {
+
+    private final Dictionary dictionary = Dictionary.getInstance();
+    private final DictionaryManagement manager = DictionaryManagement.getInstance();
+    private final int limit;
+    private Trie.Cursor lastCursor = null;
+
+    /**
+     * Constructs a SuggestionSearch.
+     *
+     * @param limit the maximum number of suggestions per query
+     */
+    public SuggestionSearch(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Suggests words starting with the given prefix.
+     *
+     * @param prefix the text typed so far
+     * @return a list of at most limit words, empty if the prefix is empty or matches nothing
+     */
+    public synchronized ArrayList<Word> suggest(String prefix) {
+        String lowerCasePrefix = prefix.toLowerCase();
+        if (lowerCasePrefix.isEmpty()) {
+            lastCursor = null;
+            return new ArrayList<>();
+        }
+        if (manager.isFrozen()) {
+            lastCursor = null;
+            return manager.searchWords(lowerCasePrefix, null, limit);
+        }
+
+        Trie.Cursor cursor;
+        if (lastCursor != null && lowerCasePrefix.startsWith(lastCursor.getPrefix())) {
+            cursor = dictionary.findPrefix(lastCursor, lowerCasePrefix.substring(lastCursor.getPrefix().length()));
+        } else {
+            cursor = dictionary.findPrefix(null, lowerCasePrefix);
+        }
+
+        if (cursor == null) {
+            return new ArrayList<>();
+        }
+        lastCursor = cursor;
+        return dictionary.getSuggestions(cursor, limit);
+    }
+}
@@ -1,30 +1,69 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
 
 /**
  * A trie data structure for storing words and their meanings.
+ * Words are listed in trie order: a word comes before the words it is a prefix of, and otherwise the
+ * first differing characters decide in the order of the charset, "-", " ", ".", "'" and then a to z.
+ * This differs from String order for words with punctuation.
  */
 public class Trie {
 
-    private class Node {
-        Node[] children;
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_COUNTS = new int[0];
+    // Bulk operations sort by this many leading characters packed into a long, above the position
+    private static final int SORT_PREFIX = 8;
+    private static final int SORT_POSITION_BITS = 23;
+    private static final long SORT_POSITION_MASK = (1L << SORT_POSITION_BITS) - 1;
+    // Smaller batches share too little after sorting to pay for the sort
+    private static final int MIN_SORTED_BATCH = 8192;
+
+    /**
+     * A trie node. The children array only reaches the highest child index in use, so leaves, which
+     * are most of the nodes, share an empty array.
+     */
+    private static class Node {
+        Node[] children = NO_CHILDREN;
         Word word = null;
+        // Number of words in this subtree, and per word length relative to this node's depth
+        int count = 0;
+        int[] lengthCounts = NO_COUNTS;
 
-        Node() {
-            children = new Node[30];
+        Node child(int index) {
+            return index < children.length ? children[index] : null;
+        }
+
+        Node addChild(int index) {
+            if (index >= children.length) {
+                children = Arrays.copyOf(children, index + 1);
+            }
+            if (children[index] == null) {
+                children[index] = new Node();
+            }
+            return children[index];
         }
     }
 
     private final Node root;
     private final HashMap<Character, Integer> charset;
+    private final char[] characters; // the character of each child index
+    private final int[] asciiIndex = new int[128]; // the child index of each ASCII character, or -1
     private int charsetSize;
-    private ArrayList<Word> wordsList;
+    // Incremented whenever a branch is pruned, so cursors can tell that their node may be detached
+    private int pruneCount = 0;
 
     /**
      * Constructs a new Trie.
      */
     Trie() {
-        root = new Node();
+        this(new Node());
+    }
+
+    private Trie(Node root) {
+        this.root = root;
         charsetSize = 0;
         charset = new HashMap<>();
         charset.put('-', charsetSize++);
@@ -34,6 +73,10 @@ public class Trie {
         for (char c = 'a'; c <= 'z'; c++) {
             charset.put(c, charsetSize++);
         }
+        characters = new char[charsetSize];
+        charset.forEach((c, index) -> characters[index] = c);
+        Arrays.fill(asciiIndex, -1);
+        charset.forEach((c, index) -> asciiIndex[c] = index);
     }
 
     /**
@@ -48,6 +91,277 @@ public class Trie {
         return (foundNode != null) ? foundNode.word : null;
     }
 
+    /**
+     * Looks up several words and returns the first one in the trie, such as the candidate lemmas of
+     * an inflected form. Candidates like "study", "studie" and "studi" share most of their path, so
+     * a PathWalker resumes each walk where it leaves the previous candidate's path.
+     *
+     * @param candidates the lower-case words, in order of preference
+     * @return the first word found, or null if none is in the trie
+     */
+    public Word lookupFirst(List<String> candidates) {
+        PathWalker walker = new PathWalker();
+        for (String candidate : candidates) {
+            Node node = walker.walk(candidate, false);
+            if (node != null && node.word != null) {
+                return node.word;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a batch of words. The batch is sorted so that neighbours share prefixes, and each walk
+     * resumes where it leaves the previous word's path instead of at the root.
+     *
+     * @param words the words to look up
+     * @return the Word object of each word, or null where it is not found, in the order of the input
+     */
+    public List<Word> lookupAll(List<String> words) {
+        String[] keys = words.toArray(new String[0]);
+        Word[] found = new Word[keys.length];
+        PathWalker walker = new PathWalker();
+        for (int i : sortBatch(keys)) {
+            Node node = walker.walk(keys[i], false);
+            found[i] = node != null ? node.word : null;
+        }
+        return Arrays.asList(found);
+    }
+
+    /**
+     * Adds a batch of words, sharing the walk between neighbours like lookupAll. A word that is
+     * already in the trie, or appears earlier in the batch, gets the meaning appended as with addWord.
+     *
+     * @param words the words and their meanings
+     * @return for each word in the order of the input, true if it was added as a new word, false if
+     * its meaning was appended or it has characters the trie cannot store
+     */
+    public boolean[] addAll(List<Word> words) {
+        String[] keys = new String[words.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = words.get(i).getWordTarget();
+        }
+        boolean[] added = new boolean[keys.length];
+        PathWalker walker = new PathWalker();
+        for (int i : sortBatch(keys)) {
+            Node node = walker.walk(keys[i], true);
+            String meaning = words.get(i).getWordExplain();
+            if (node == null) {
+                System.err.println("Invalid word!");
+            } else if (node.word == null) {
+                node.word = new Word(keys[i], meaning);
+                updateCounts(walker, keys[i], 1);
+                added[i] = true;
+            } else {
+                node.word.setWordExplain(node.word.getWordExplain() + "\n" + meaning);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Deletes a batch of words, sharing the walk between neighbours like lookupAll. Empty branches
+     * are pruned as with deleteWord.
+     *
+     * @param words the words to delete
+     * @return for each word in the order of the input, true if it was deleted
+     */
+    public boolean[] deleteAll(List<String> words) {
+        String[] keys = words.toArray(new String[0]);
+        boolean[] deleted = new boolean[keys.length];
+        PathWalker walker = new PathWalker();
+        for (int i : sortBatch(keys)) {
+            String key = keys[i];
+            Node node = walker.walk(key, false);
+            if (node == null || node.word == null) {
+                continue;
+            }
+            node.word = null;
+            updateCounts(walker, key, -1);
+            deleted[i] = true;
+            for (int depth = 1; depth <= key.length(); depth++) {
+                if (walker.at(depth).count == 0) {
+                    walker.at(depth - 1).children[indexOf(key.charAt(depth - 1))] = null;
+                    pruneCount++;
+                    // The detached nodes must not be reused for the next word
+                    walker.truncate(depth - 1);
+                    break;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Lower-cases the keys of a batch in place and orders them so that neighbours share prefixes.
+     * A batch that is already sorted, such as an exported dictionary, keeps its order, and so does a
+     * small one. Otherwise each key is packed into a long with its first SORT_PREFIX child indexes
+     * above its position in the batch, so most of the ordering is a sort of primitive longs rather
+     * than of strings; only keys that agree on the whole packed prefix are compared as strings.
+     *
+     * @param keys the keys
+     * @return the positions of the keys in sorted order, equal keys in the order of the input
+     */
+    private int[] sortBatch(String[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            keys[i] = keys[i].toLowerCase();
+            sorted &= i == 0 || keys[i - 1].compareTo(keys[i]) <= 0;
+        }
+        if (sorted || n < MIN_SORTED_BATCH) {
+            Arrays.setAll(order, i -> i);
+            return order;
+        }
+        if (n > SORT_POSITION_MASK) {
+            Integer[] boxed = new Integer[n];
+            Arrays.setAll(boxed, i -> i);
+            Arrays.sort(boxed, (a, b) -> keys[a].compareTo(keys[b]));
+            Arrays.setAll(order, i -> boxed[i]);
+            return order;
+        }
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = sortPrefix(keys[i]) << SORT_POSITION_BITS | i;
+        }
+        Arrays.sort(packed);
+        int start = 0;
+        for (int i = 0; i <= n; i++) {
+            if (i == n || packed[i] >>> SORT_POSITION_BITS != packed[start] >>> SORT_POSITION_BITS) {
+                if (i - start > 1 && keys[(int) (packed[start] & SORT_POSITION_MASK)].length() >= SORT_PREFIX) {
+                    sortByRest(keys, packed, start, i);
+                }
+                start = i;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (packed[i] & SORT_POSITION_MASK);
+        }
+        return order;
+    }
+
+    /**
+     * Packs the child indexes of the first SORT_PREFIX characters of a key, 5 bits each: 0 past the
+     * end of the key, 1 to 30 for the characters in trie order, and 31 for other characters.
+     */
+    private long sortPrefix(String key) {
+        long prefix = 0;
+        for (int i = 0; i < SORT_PREFIX; i++) {
+            int symbol = 0;
+            if (i < key.length()) {
+                int index = indexOf(key.charAt(i));
+                symbol = index < 0 ? 31 : index + 1;
+            }
+            prefix = prefix << 5 | symbol;
+        }
+        return prefix;
+    }
+
+    /**
+     * Sorts a run of packed keys that share their packed prefix by the rest of the keys, keeping
+     * equal keys in their order.
+     */
+    private static void sortByRest(String[] keys, long[] packed, int from, int to) {
+        Long[] run = new Long[to - from];
+        for (int i = from; i < to; i++) {
+            run[i - from] = packed[i];
+        }
+        Arrays.sort(run, (a, b) -> keys[(int) (a & SORT_POSITION_MASK)].compareTo(keys[(int) (b & SORT_POSITION_MASK)]));
+        for (int i = from; i < to; i++) {
+            packed[i] = run[i - from];
+        }
+    }
+
+    /**
+     * Walks a series of keys, keeping the nodes on the path of the last one. The next key starts
+     * from the deepest node it shares with that path rather than from the root, so keys in sorted
+     * order, which share long prefixes with their neighbours, cost only the characters that differ.
+     */
+    private class PathWalker {
+        private Node[] path = new Node[16]; // path[d] is the node after the first d characters
+        private String previous = "";
+        private int reached = 0; // how many characters of the previous key have a node
+
+        PathWalker() {
+            path[0] = root;
+        }
+
+        /**
+         * Walks to the node of a key.
+         *
+         * @param key    the lower-case key
+         * @param create whether to add the missing nodes
+         * @return the node, or null if it is missing or the key has characters the trie cannot store
+         */
+        Node walk(String key, boolean create) {
+            int common = 0;
+            int shorter = Math.min(previous.length(), key.length());
+            while (common < shorter && previous.charAt(common) == key.charAt(common)) {
+                common++;
+            }
+            previous = key;
+            if (reached < common && !create) {
+                // The shared part has no node, so neither has this key
+                return null;
+            }
+            reached = Math.min(reached, common);
+            if (path.length <= key.length()) {
+                path = Arrays.copyOf(path, key.length() + 1);
+            }
+            while (reached < key.length()) {
+                int index = indexOf(key.charAt(reached));
+                Node next = index < 0 ? null : path[reached].child(index);
+                if (next == null) {
+                    if (!create || !isStorable(key, reached)) {
+                        return null;
+                    }
+                    next = path[reached].addChild(index);
+                }
+                path[++reached] = next;
+            }
+            return path[reached];
+        }
+
+        /**
+         * Gets a node on the path of the last key walked to.
+         *
+         * @param depth the number of characters, at most the length of the key
+         * @return the node
+         */
+        Node at(int depth) {
+            return path[depth];
+        }
+
+        /**
+         * Forgets the path below a depth, after the node there was detached.
+         *
+         * @param depth the deepest depth still valid
+         */
+        void truncate(int depth) {
+            reached = Math.min(reached, depth);
+        }
+    }
+
+    private boolean isStorable(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (indexOf(word.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the child index of a character without boxing it, for the bulk operations.
+     *
+     * @param c the character
+     * @return the child index, or -1 if the trie cannot store the character
+     */
+    private int indexOf(char c) {
+        return c < asciiIndex.length ? asciiIndex[c] : -1;
+    }
+
     /**
      * Finds a node corresponding to a string in the trie.
      *
@@ -58,41 +372,55 @@ public class Trie {
         Node currentNode = root;
         for (int i = 0; i < str.length(); i++) {
             Integer index = charset.get(str.charAt(i));
-            if (index == null || currentNode.children[index] == null) {
+            if (index == null || currentNode.child(index) == null) {
                 return null;
             }
-            currentNode = currentNode.children[index];
+            currentNode = currentNode.child(index);
         }
         return currentNode;
     }
 
     /**
-     * Adds a word to the trie.
+     * Checks whether a word has only characters the trie can store.
+     *
+     * @param word the word, in any case
+     * @return true if addWord would store the word rather than reject it
+     */
+    public boolean isValidWord(String word) {
+        return isStorable(word.toLowerCase(), 0);
+    }
+
+    /**
+     * Adds a word to the trie. A word with unsupported characters is rejected with a message on the
+     * standard error, which keeps the standard output free for results, as in batch mode.
      *
      * @param word    the word to be added
      * @param meaning the meaning of the word
+     * @return the stored word, with the meaning appended if it was already there, or null if the word
+     * was rejected
      */
-    public void addWord(String word, String meaning) {
+    public Word addWord(String word, String meaning) {
         String lowerCaseWord = word.toLowerCase();
-        Node currentNode = root;
-
         for (int i = 0; i < lowerCaseWord.length(); i++) {
-            Integer index = charset.get(lowerCaseWord.charAt(i));
-            if (index == null) {
-                System.out.println("Invalid word!");
-                return;
-            }
-            if (currentNode.children[index] == null) {
-                currentNode.children[index] = new Node();
+            if (!charset.containsKey(lowerCaseWord.charAt(i))) {
+                System.err.println("Invalid word!");
+                return null;
             }
-            currentNode = currentNode.children[index];
+        }
+
+        Node currentNode = root;
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            int index = charset.get(lowerCaseWord.charAt(i));
+            currentNode = currentNode.addChild(index);
         }
 
         if (currentNode.word == null) {
             currentNode.word = new Word(lowerCaseWord, meaning);
+            updateCounts(lowerCaseWord, 1);
         } else {
             currentNode.word.setWordExplain(currentNode.word.getWordExplain() + "\n" + meaning);
         }
+        return currentNode.word;
     }
 
     /**
@@ -107,21 +435,43 @@ public class Trie {
 
         for (int i = 0; i < lowerCaseWord.length(); i++) {
             Integer index = charset.get(lowerCaseWord.charAt(i));
-            if (index == null || currentNode.children[index] == null) {
-                System.out.println("No word found to be deleted!");
+            if (index == null || currentNode.child(index) == null) {
+                System.err.println("No word found to be deleted!");
                 return false;
             }
-            currentNode = currentNode.children[index];
+            currentNode = currentNode.child(index);
         }
 
         if (currentNode.word != null) {
             currentNode.word = null;
+            updateCounts(lowerCaseWord, -1);
+            pruneEmptyBranch(lowerCaseWord);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Detaches the highest node on the path of a deleted word that no longer has a word below it,
+     * which frees the whole chain of empty nodes under it.
+     *
+     * @param word the lower-case word that was deleted
+     */
+    private void pruneEmptyBranch(String word) {
+        Node currentNode = root;
+        for (int i = 0; i < word.length(); i++) {
+            int index = charset.get(word.charAt(i));
+            Node child = currentNode.child(index);
+            if (child.count == 0) {
+                currentNode.children[index] = null;
+                pruneCount++;
+                return;
+            }
+            currentNode = child;
+        }
+    }
+
     /**
      * Edits a word in the trie.
      *
@@ -135,14 +485,15 @@ public class Trie {
 
         for (int i = 0; i < lowerCaseWord.length(); i++) {
             Integer index = charset.get(lowerCaseWord.charAt(i));
-            if (index == null || currentNode.children[index] == null) {
+            if (index == null || currentNode.child(index) == null) {
                 return false;
             }
-            currentNode = currentNode.children[index];
+            currentNode = currentNode.child(index);
         }
 
         if (currentNode.word == null) {
             currentNode.word = new Word(lowerCaseWord, meaning);
+            updateCounts(lowerCaseWord, 1);
         } else {
             currentNode.word.setWordExplain(meaning);
         }
@@ -150,6 +501,314 @@ public class Trie {
         return true;
     }
 
+    /**
+     * Updates the subtree counts of every node on the path of a word that was added or removed.
+     *
+     * @param word  the lower-case word, whose path must exist
+     * @param delta 1 if the word was added, -1 if it was removed
+     */
+    private void updateCounts(String word, int delta) {
+        Node currentNode = root;
+        for (int depth = 0; ; depth++) {
+            updateCounts(currentNode, word.length() - depth, delta);
+            if (depth == word.length()) {
+                return;
+            }
+            currentNode = currentNode.child(charset.get(word.charAt(depth)));
+        }
+    }
+
+    /**
+     * Updates the subtree counts along the path a PathWalker just walked, without walking it again.
+     *
+     * @param walker the walker, whose last key was the word
+     * @param word   the lower-case word
+     * @param delta  1 if the word was added, -1 if it was removed
+     */
+    private void updateCounts(PathWalker walker, String word, int delta) {
+        for (int depth = 0; depth <= word.length(); depth++) {
+            updateCounts(walker.at(depth), word.length() - depth, delta);
+        }
+    }
+
+    private static void updateCounts(Node node, int relativeLength, int delta) {
+        if (node.lengthCounts.length <= relativeLength) {
+            node.lengthCounts = Arrays.copyOf(node.lengthCounts, relativeLength + 1);
+        }
+        node.count += delta;
+        node.lengthCounts[relativeLength] += delta;
+    }
+
+    /**
+     * Counts the words below a node whose length is within a range.
+     *
+     * @param node      the node
+     * @param depth     the depth of the node
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @return the number of matching words in the node's subtree
+     */
+    private int countInRange(Node node, int depth, int minLength, int maxLength) {
+        if (minLength <= depth && maxLength >= depth + node.lengthCounts.length - 1) {
+            return node.count;
+        }
+        int total = 0;
+        int from = Math.max(minLength - depth, 0);
+        int to = Math.min(maxLength - depth, node.lengthCounts.length - 1);
+        for (int i = from; i <= to; i++) {
+            total += node.lengthCounts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of words in the trie.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return root.count;
+    }
+
+    /**
+     * Counts the words starting with a prefix. Takes O(prefix length).
+     * Together with rank(prefix), this gives the rank range of the prefix's words.
+     *
+     * @param prefix the prefix
+     * @return the number of words with the prefix
+     */
+    public int countPrefix(String prefix) {
+        Node node = findString(prefix.toLowerCase());
+        return (node != null) ? node.count : 0;
+    }
+
+    /**
+     * Counts the words whose length is within a range.
+     *
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @return the number of matching words
+     */
+    public int countWords(int minLength, int maxLength) {
+        return countInRange(root, 0, minLength, maxLength);
+    }
+
+    /**
+     * Finds the words matching a pattern such as "c?t", "*ing" or "[aeiou]??e", in trie order.
+     * The trie is walked along the pattern: a branch is left as soon as no pattern position is active,
+     * or when the per-length counts show it has no word of a length the pattern can still match.
+     *
+     * @param pattern   the pattern, see WordPattern
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @param limit     the maximum number of words to return
+     * @return at most limit matching words
+     */
+    public ArrayList<Word> getWordsMatching(WordPattern pattern, int minLength, int maxLength, int limit) {
+        ArrayList<Word> words = new ArrayList<>();
+        collectMatchingWords(root, 0, pattern, pattern.start(), minLength, maxLength, words, limit);
+        return words;
+    }
+
+    /**
+     * Collects the matching words below a node.
+     *
+     * @param node      the node
+     * @param depth     the depth of the node
+     * @param pattern   the pattern
+     * @param states    the active pattern positions after reading the node's prefix
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @param words     the list to add to
+     * @param limit     the maximum number of words to collect
+     */
+    private void collectMatchingWords(Node node, int depth, WordPattern pattern, long states, int minLength,
+                                      int maxLength, ArrayList<Word> words, int limit) {
+        int maxRemaining = pattern.maxRemaining(states);
+        int from = Math.max(minLength, depth + pattern.minRemaining(states));
+        int to = (maxRemaining == Integer.MAX_VALUE) ? maxLength : Math.min(maxLength, depth + maxRemaining);
+        if (from > to || countInRange(node, depth, from, to) == 0) {
+            return;
+        }
+        if (node.word != null && depth >= minLength && pattern.accepts(states) && words.size() < limit) {
+            words.add(node.word);
+        }
+        for (int i = 0; i < node.children.length && words.size() < limit; i++) {
+            Node child = node.children[i];
+            if (child != null) {
+                long next = pattern.step(states, characters[i]);
+                if (next != 0) {
+                    collectMatchingWords(child, depth + 1, pattern, next, minLength, maxLength, words, limit);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves all words of an exact length in trie order.
+     * Subtrees without a word of that length are skipped using the per-length counts.
+     *
+     * @param length the word length
+     * @return the words of that length
+     */
+    public ArrayList<Word> getWordsOfLength(int length) {
+        ArrayList<Word> words = new ArrayList<>();
+        collectWordsOfLength(root, 0, length, words);
+        return words;
+    }
+
+    /**
+     * Collects the words of an exact length below a node.
+     *
+     * @param node   the starting node
+     * @param depth  the depth of the node
+     * @param length the word length
+     * @param words  the list to add words to
+     */
+    private void collectWordsOfLength(Node node, int depth, int length, ArrayList<Word> words) {
+        if (depth == length) {
+            if (node.word != null) {
+                words.add(node.word);
+            }
+            return;
+        }
+        for (int i = 0; i < node.children.length; i++) {
+            Node child = node.children[i];
+            if (child != null && countInRange(child, depth + 1, length, length) > 0) {
+                collectWordsOfLength(child, depth + 1, length, words);
+            }
+        }
+    }
+
+    /**
+     * Computes the rank of a word, the number of words that come before it in trie order.
+     * The word does not need to be in the trie. Takes O(word length).
+     *
+     * @param word the word to rank
+     * @return the number of words strictly before the word
+     */
+    public int rank(String word) {
+        String lowerCaseWord = word.toLowerCase();
+        Node currentNode = root;
+        int rank = 0;
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            // Every word on the path is a proper prefix, so it comes first
+            if (currentNode.word != null) {
+                rank++;
+            }
+            Integer index = charset.get(lowerCaseWord.charAt(i));
+            int limit = Math.min((index != null) ? index : charsetSize, currentNode.children.length);
+            for (int j = 0; j < limit; j++) {
+                if (currentNode.children[j] != null) {
+                    rank += currentNode.children[j].count;
+                }
+            }
+            if (index == null || currentNode.child(index) == null) {
+                return rank;
+            }
+            currentNode = currentNode.child(index);
+        }
+        return rank;
+    }
+
+    /**
+     * Selects the word with the given rank. Takes O(word length).
+     *
+     * @param k the rank, from 0 to size() - 1
+     * @return the k-th word in trie order, or null if k is out of range
+     */
+    public Word select(int k) {
+        if (k < 0 || k >= root.count) {
+            return null;
+        }
+        Node currentNode = root;
+        while (true) {
+            if (currentNode.word != null) {
+                if (k == 0) {
+                    return currentNode.word;
+                }
+                k--;
+            }
+            for (int i = 0; i < currentNode.children.length; i++) {
+                Node child = currentNode.children[i];
+                if (child == null) {
+                    continue;
+                }
+                if (k < child.count) {
+                    currentNode = child;
+                    break;
+                }
+                k -= child.count;
+            }
+        }
+    }
+
+    /**
+     * Counts the words in a range of trie order. Takes O(word length).
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, exclusive
+     * @return the number of words w with from &lt;= w &lt; to
+     */
+    public int countRange(String from, String to) {
+        return Math.max(rank(to) - rank(from), 0);
+    }
+
+    /**
+     * Retrieves the words in a range of trie order.
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, exclusive
+     * @return the words w with from &lt;= w &lt; to in trie order
+     */
+    public ArrayList<Word> getRange(String from, String to) {
+        int start = rank(from);
+        int count = rank(to) - start;
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        String after = (start > 0) ? select(start - 1).getWordTarget() : null;
+        return getWordsAfter("", after, count);
+    }
+
+    /**
+     * Picks a uniformly random word whose length is within a range, without copying the word list.
+     * Takes O(word length).
+     *
+     * @param random    the random number generator
+     * @param minLength the minimum word length, inclusive
+     * @param maxLength the maximum word length, inclusive
+     * @return a random matching word, or null if there is none
+     */
+    public Word randomWord(Random random, int minLength, int maxLength) {
+        int total = countInRange(root, 0, minLength, maxLength);
+        if (total == 0) {
+            return null;
+        }
+        int k = random.nextInt(total);
+        Node currentNode = root;
+        for (int depth = 0; ; depth++) {
+            if (currentNode.word != null && depth >= minLength && depth <= maxLength) {
+                if (k == 0) {
+                    return currentNode.word;
+                }
+                k--;
+            }
+            for (int i = 0; i < currentNode.children.length; i++) {
+                Node child = currentNode.children[i];
+                if (child == null) {
+                    continue;
+                }
+                int childCount = countInRange(child, depth + 1, minLength, maxLength);
+                if (k < childCount) {
+                    currentNode = child;
+                    break;
+                }
+                k -= childCount;
+            }
+        }
+    }
+
     /**
      * Searches for words with a given prefix in the trie.
      *
@@ -158,17 +817,186 @@ public class Trie {
      */
     public ArrayList<Word> getProposedString(String prefix) {
         String lowerCasePrefix = prefix.toLowerCase();
-        wordsList = new ArrayList<>();
         Node currentNode = root;
         for (int i = 0; i < lowerCasePrefix.length(); i++) {
             Integer index = charset.get(lowerCasePrefix.charAt(i));
-            if (index == null || currentNode.children[index] == null) {
+            if (index == null || currentNode.child(index) == null) {
                 return null;
             }
-            currentNode = currentNode.children[index];
+            currentNode = currentNode.child(index);
+        }
+        ArrayList<Word> words = new ArrayList<>(currentNode.count);
+        findAllWords(currentNode, words);
+        return words;
+    }
+
+    /**
+     * Finds the words within a Levenshtein distance of a given word, closest first.
+     * The trie is walked depth first while keeping one row of the edit distance table per node, and
+     * subtrees whose row has no entry within the distance are skipped, so only a small part of the
+     * trie is visited for small distances.
+     *
+     * @param word        the word to match
+     * @param maxDistance the maximum number of inserted, deleted or replaced characters
+     * @param limit       the maximum number of words to return
+     * @return at most limit words, ordered by distance and then in trie order
+     */
+    public ArrayList<Word> getSimilarWords(String word, int maxDistance, int limit) {
+        String target = word.toLowerCase();
+        ArrayList<ArrayList<Word>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxDistance; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        int[] firstRow = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            firstRow[j] = j;
+        }
+        if (root.word != null && target.length() <= maxDistance) {
+            byDistance.get(target.length()).add(root.word);
+        }
+        for (int i = 0; i < root.children.length; i++) {
+            if (root.children[i] != null) {
+                collectSimilarWords(root.children[i], characters[i], target, firstRow, maxDistance, byDistance);
+            }
+        }
+
+        ArrayList<Word> words = new ArrayList<>();
+        for (ArrayList<Word> sameDistance : byDistance) {
+            for (Word similar : sameDistance) {
+                if (words.size() == limit) {
+                    return words;
+                }
+                words.add(similar);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Computes the edit distance row of a node from its parent's row and collects its subtree's
+     * words within the distance.
+     *
+     * @param node        the node
+     * @param c           the character on the edge into the node
+     * @param target      the word to match
+     * @param parentRow   distances from the parent's string to each prefix of the target
+     * @param maxDistance the maximum distance
+     * @param byDistance  lists of matching words, indexed by distance
+     */
+    private void collectSimilarWords(Node node, char c, String target, int[] parentRow, int maxDistance,
+                                     ArrayList<ArrayList<Word>> byDistance) {
+        int n = target.length();
+        int[] row = new int[n + 1];
+        row[0] = parentRow[0] + 1;
+        int rowMin = row[0];
+        for (int j = 1; j <= n; j++) {
+            int replace = parentRow[j - 1] + (target.charAt(j - 1) == c ? 0 : 1);
+            row[j] = Math.min(replace, Math.min(row[j - 1] + 1, parentRow[j] + 1));
+            rowMin = Math.min(rowMin, row[j]);
+        }
+        if (node.word != null && row[n] <= maxDistance) {
+            byDistance.get(row[n]).add(node.word);
+        }
+        if (rowMin > maxDistance) {
+            return;
+        }
+        for (int i = 0; i < node.children.length; i++) {
+            if (node.children[i] != null) {
+                collectSimilarWords(node.children[i], characters[i], target, row, maxDistance, byDistance);
+            }
+        }
+    }
+
+    /**
+     * Retrieves one page of words with a given prefix, in trie order, after a given word.
+     * Only the path of the given word and the returned words are visited, so the cost of a page
+     * does not depend on how many pages came before it.
+     *
+     * @param prefix the prefix of the words to return
+     * @param after  the last word of the previous page, or null for the first page
+     * @param limit  the maximum number of words to return
+     * @return a list of at most limit words, empty if there are no more words
+     */
+    public ArrayList<Word> getWordsAfter(String prefix, String after, int limit) {
+        ArrayList<Word> words = new ArrayList<>();
+        String lowerCasePrefix = prefix.toLowerCase();
+        Node node = findString(lowerCasePrefix);
+        if (node == null) {
+            return words;
+        }
+        if (after == null) {
+            collectWords(node, words, limit);
+            return words;
+        }
+        String lowerCaseAfter = after.toLowerCase();
+        if (!lowerCaseAfter.startsWith(lowerCasePrefix)) {
+            return words;
+        }
+        collectWordsAfter(node, lowerCaseAfter, lowerCasePrefix.length(), words, limit);
+        return words;
+    }
+
+    /**
+     * Collects words below a node on the path of a given word that come strictly after that word.
+     *
+     * @param node  a node whose string is the first depth characters of after
+     * @param after the word to start after
+     * @param depth the depth of the node
+     * @param words the list to add words to
+     * @param limit the maximum size of the list
+     */
+    private void collectWordsAfter(Node node, String after, int depth, ArrayList<Word> words, int limit) {
+        // The node's own word is a prefix of after, so it never comes after it
+        if (depth == after.length()) {
+            for (int i = 0; i < node.children.length && words.size() < limit; i++) {
+                if (node.children[i] != null) {
+                    collectWords(node.children[i], words, limit);
+                }
+            }
+            return;
+        }
+        Integer pathIndex = charset.get(after.charAt(depth));
+        if (pathIndex == null) {
+            return;
+        }
+        if (node.child(pathIndex) != null) {
+            collectWordsAfter(node.child(pathIndex), after, depth + 1, words, limit);
+        }
+        for (int i = pathIndex + 1; i < node.children.length && words.size() < limit; i++) {
+            if (node.children[i] != null) {
+                collectWords(node.children[i], words, limit);
+            }
+        }
+    }
+
+    /**
+     * Returns a cursor positioned at the root of the trie.
+     *
+     * @return a cursor for the empty prefix
+     */
+    public Cursor cursor() {
+        return new Cursor(root, "");
+    }
+
+    /**
+     * Collects up to a limited number of words below the given node in trie order.
+     *
+     * @param node  the starting node
+     * @param words the list to add words to
+     * @param limit the maximum size of the list
+     */
+    private void collectWords(Node node, ArrayList<Word> words, int limit) {
+        if (words.size() >= limit) {
+            return;
+        }
+        if (node.word != null) {
+            words.add(node.word);
+        }
+        for (int i = 0; i < node.children.length && words.size() < limit; i++) {
+            if (node.children[i] != null) {
+                collectWords(node.children[i], words, limit);
+            }
         }
-        findAllWords(currentNode);
-        return wordsList;
     }
 
     /**
@@ -177,24 +1005,294 @@ public class Trie {
      * @return a list of all words in the trie
      */
     public ArrayList<Word> queryAllWords() {
-        wordsList = new ArrayList<>();
-        findAllWords(root);
-        return wordsList;
+        ArrayList<Word> words = new ArrayList<>(root.count);
+        findAllWords(root, words);
+        return words;
     }
 
     /**
      * Finds all words starting from the given node.
      *
-     * @param node the starting node
+     * @param node  the starting node
+     * @param words the list to add words to
      */
-    private void findAllWords(Node node) {
+    private void findAllWords(Node node, ArrayList<Word> words) {
         if (node.word != null) {
-            wordsList.add(node.word);
+            words.add(node.word);
         }
-        for (int i = 0; i < charsetSize; i++) {
+        for (int i = 0; i < node.children.length; i++) {
             if (node.children[i] != null) {
-                findAllWords(node.children[i]);
+                findAllWords(node.children[i], words);
+            }
+        }
+    }
+
+    /**
+     * Builds a dense copy of this trie that holds the same Word objects, without dead nodes and with
+     * every array trimmed to its last slot in use. Nodes are allocated in depth-first order, so
+     * traversals of the copy walk memory mostly forwards.
+     *
+     * @return the compacted trie
+     */
+    public Trie compact() {
+        return new Trie(copyLive(root));
+    }
+
+    /**
+     * Copies the live part of a node's subtree.
+     *
+     * @param node the node
+     * @return the copy
+     */
+    private static Node copyLive(Node node) {
+        Node copy = new Node();
+        copy.word = node.word;
+        copy.count = node.count;
+        int lengthSlots = usedLengthSlots(node);
+        if (lengthSlots > 0) {
+            copy.lengthCounts = Arrays.copyOf(node.lengthCounts, lengthSlots);
+        }
+        int childSlots = usedChildSlots(node);
+        if (childSlots > 0) {
+            copy.children = new Node[childSlots];
+            for (int i = 0; i < childSlots; i++) {
+                Node child = node.children[i];
+                if (child != null && child.count > 0) {
+                    copy.children[i] = copyLive(child);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Gets the length a node's children array needs: one past its last child with a word below it.
+     */
+    private static int usedChildSlots(Node node) {
+        int slots = node.children.length;
+        while (slots > 0 && (node.children[slots - 1] == null || node.children[slots - 1].count == 0)) {
+            slots--;
+        }
+        return slots;
+    }
+
+    /**
+     * Gets the length a node's length counts need: one past the longest word length still counted.
+     */
+    private static int usedLengthSlots(Node node) {
+        int slots = node.lengthCounts.length;
+        while (slots > 0 && node.lengthCounts[slots - 1] == 0) {
+            slots--;
+        }
+        return slots;
+    }
+
+    /**
+     * Builds a read-only copy of this trie as a minimized automaton with packed meanings.
+     *
+     * @return the frozen dictionary
+     */
+    public FrozenDictionary freeze() {
+        return FrozenDictionary.build(queryAllWords(), characters);
+    }
+
+    /**
+     * Computes structural statistics by visiting every node.
+     *
+     * @return the statistics
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        collectStats(root, false, stats);
+        return stats;
+    }
+
+    /**
+     * Adds a node's subtree to the statistics.
+     *
+     * @param node  the node
+     * @param dead  true if the node has no word below it and is not the root
+     * @param stats the statistics to add to
+     */
+    private static void collectStats(Node node, boolean dead, Stats stats) {
+        long bytes = Stats.NODE_BYTES + Stats.arrayBytes(node.children.length)
+                + Stats.arrayBytes(node.lengthCounts.length);
+        stats.nodes++;
+        stats.estimatedBytes += bytes;
+        stats.childSlots += node.children.length;
+        if (node.word != null) {
+            stats.words++;
+        }
+        if (dead) {
+            stats.deadNodes++;
+            stats.reclaimableBytes += bytes;
+        } else {
+            stats.reclaimableBytes += bytes - Stats.NODE_BYTES - Stats.arrayBytes(usedChildSlots(node))
+                    - Stats.arrayBytes(usedLengthSlots(node));
+        }
+        for (Node child : node.children) {
+            if (child != null) {
+                stats.usedChildSlots++;
+                collectStats(child, dead || child.count == 0, stats);
+            }
+        }
+    }
+
+    /**
+     * Structural statistics of a trie, for watching fragmentation. Byte sizes are estimates for a
+     * 64-bit JVM with compressed references: 32 bytes per node, and 16 bytes plus 4 per slot, rounded
+     * up to 8, for each array that is not the shared empty one.
+     */
+    public static class Stats {
+        private static final long NODE_BYTES = 32;
+
+        private long nodes = 0;
+        private long deadNodes = 0;
+        private long words = 0;
+        private long childSlots = 0;
+        private long usedChildSlots = 0;
+        private long estimatedBytes = 0;
+        private long reclaimableBytes = 0;
+
+        private static long arrayBytes(int length) {
+            return length == 0 ? 0 : (16 + 4L * length + 7) & ~7L;
+        }
+
+        /**
+         * Gets the number of nodes, including the root.
+         *
+         * @return the number of nodes
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * Gets the number of nodes without any word below them.
+         *
+         * @return the number of dead nodes
+         */
+        public long getDeadNodes() {
+            return deadNodes;
+        }
+
+        /**
+         * Gets the number of words.
+         *
+         * @return the number of words
+         */
+        public long getWords() {
+            return words;
+        }
+
+        /**
+         * Gets the total length of all children arrays.
+         *
+         * @return the number of child slots
+         */
+        public long getChildSlots() {
+            return childSlots;
+        }
+
+        /**
+         * Gets the number of child slots that hold a node.
+         *
+         * @return the number of used child slots
+         */
+        public long getUsedChildSlots() {
+            return usedChildSlots;
+        }
+
+        /**
+         * Gets the estimated memory used by the nodes and their arrays, without the words.
+         *
+         * @return the estimated size in bytes
+         */
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        /**
+         * Gets the estimated memory that compact() would free: dead nodes and unused array tails.
+         *
+         * @return the estimated reclaimable size in bytes
+         */
+        public long getReclaimableBytes() {
+            return reclaimableBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d nodes (%d dead), %d words, %d of %d child slots used, %.1f MB, %.1f MB reclaimable",
+                    nodes, deadNodes, words, usedChildSlots, childSlots,
+                    estimatedBytes / 1048576.0, reclaimableBytes / 1048576.0);
+        }
+    }
+
+    /**
+     * A position in the trie reached by walking a prefix.
+     * A search can be extended from a cursor without walking the prefix again from the root.
+     */
+    public class Cursor {
+        private final Node node;
+        private final String prefix;
+        private final int pruneCount;
+
+        private Cursor(Node node, String prefix) {
+            this.node = node;
+            this.prefix = prefix;
+            this.pruneCount = Trie.this.pruneCount;
+        }
+
+        /**
+         * Gets the prefix walked to reach this cursor.
+         *
+         * @return the lower-case prefix
+         */
+        public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * Checks whether this cursor can still be extended in the given trie: it was created by that
+         * trie and no branch has been pruned since, so its node is still attached.
+         *
+         * @param trie the trie
+         * @return true if the cursor points into the live nodes of that trie
+         */
+        boolean isCurrent(Trie trie) {
+            return Trie.this == trie && pruneCount == trie.pruneCount;
+        }
+
+        /**
+         * Walks further down the trie from this cursor.
+         *
+         * @param suffix the characters to append to the prefix
+         * @return the cursor for the longer prefix, or null if no word starts with it
+         */
+        public Cursor extend(String suffix) {
+            String lowerCaseSuffix = suffix.toLowerCase();
+            Node currentNode = node;
+            for (int i = 0; i < lowerCaseSuffix.length(); i++) {
+                Integer index = charset.get(lowerCaseSuffix.charAt(i));
+                if (index == null || currentNode.child(index) == null) {
+                    return null;
+                }
+                currentNode = currentNode.child(index);
             }
+            return new Cursor(currentNode, prefix + lowerCaseSuffix);
+        }
+
+        /**
+         * Collects the first words starting with this cursor's prefix in trie order.
+         *
+         * @param limit the maximum number of words to return
+         * @return a list of at most limit words
+         */
+        public ArrayList<Word> collect(int limit) {
+            ArrayList<Word> words = new ArrayList<>();
+            collectWords(node, words, limit);
+            return words;
         }
     }
 }
@@ -0,0 +1,160 @@
+import javafx.animation.AnimationTimer;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Singleton monitor that measures how long work holds the JavaFX thread.
+ * Instrumented handlers are timed per action into histograms, and a watchdog thread logs a stack sample
+ * of the JavaFX thread whenever a handler runs longer than the budget. The watchdog stays parked while
+ * no handler is running and wakes once per handler, when the budget runs out.
+ * The budget defaults to 16 ms and can be changed with the ui.stall.budget.ms system property.
+ */
+public class UiStallMonitor {
+
+    private static UiStallMonitor instance = null;
+    private final long budgetNanos = Long.getLong("ui.stall.budget.ms", 16) * 1_000_000;
+    private final Map<String, LatencyHistogram> handlerTimes = new ConcurrentHashMap<>();
+    private final LatencyHistogram frameTimes = new LatencyHistogram();
+    private final AtomicLong stallCount = new AtomicLong();
+
+    private volatile Thread fxThread = null;
+    private volatile String currentAction = null;
+    private volatile long handlerStart;
+    private volatile boolean sampled;
+    private int depth = 0;
+    private long lastPulse;
+    private final Thread watchdog;
+
+    private UiStallMonitor() {
+        watchdog = new Thread(this::watch, "ui-stall-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    /**
+     * Gets the singleton instance of UiStallMonitor.
+     *
+     * @return the singleton instance
+     */
+    public static synchronized UiStallMonitor getInstance() {
+        if (instance == null) {
+            instance = new UiStallMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Wraps an event handler so that its time on the JavaFX thread is recorded under the given action.
+     *
+     * @param action  the action name shown in the report
+     * @param handler the handler to wrap
+     * @param <T>     the event type
+     * @return the instrumented handler
+     */
+    public <T extends Event> EventHandler<T> instrument(String action, EventHandler<T> handler) {
+        return event -> time(action, () -> handler.handle(event));
+    }
+
+    /**
+     * Runs work on the current (JavaFX) thread and records its duration under the given action.
+     * Nested calls are attributed to the outermost action.
+     *
+     * @param action the action name shown in the report
+     * @param work   the work to run
+     */
+    public void time(String action, Runnable work) {
+        if (depth++ > 0) {
+            try {
+                work.run();
+            } finally {
+                depth--;
+            }
+            return;
+        }
+
+        fxThread = Thread.currentThread();
+        sampled = false;
+        handlerStart = System.nanoTime();
+        currentAction = action;
+        LockSupport.unpark(watchdog);
+        try {
+            work.run();
+        } finally {
+            long elapsed = System.nanoTime() - handlerStart;
+            currentAction = null;
+            depth--;
+            handlerTimes.computeIfAbsent(action, key -> new LatencyHistogram()).record(elapsed);
+            if (elapsed > budgetNanos) {
+                stallCount.incrementAndGet();
+                System.err.printf("[stall] %s held the FX thread for %.1f ms%n", action, elapsed / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Records the frame time, the interval between consecutive pulses, which includes handlers, layout
+     * and rendering. A running AnimationTimer asks for a pulse every frame even when nothing changes,
+     * so this is meant for debugging sessions. Must be called on the JavaFX thread.
+     */
+    public void watchFrames() {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastPulse != 0) {
+                    frameTimes.record(now - lastPulse);
+                }
+                lastPulse = now;
+            }
+        }.start();
+    }
+
+    /**
+     * Builds a report of frame and handler durations.
+     *
+     * @return the report, one line per action
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("UI budget %d ms, stalls: %d%n", budgetNanos / 1_000_000, stallCount.get()));
+        report.append(String.format("%-24s %s%n", "frame", frameTimes));
+        new TreeMap<>(handlerTimes).forEach((action, histogram) ->
+                report.append(String.format("%-24s %s%n", action, histogram)));
+        return report.toString();
+    }
+
+    /**
+     * Watchdog loop that samples the JavaFX thread's stack once per handler that exceeds the budget.
+     * It parks until a handler starts, then until the handler's budget runs out, and samples the stack
+     * if the same handler is still running.
+     */
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            String action = currentAction;
+            long start = handlerStart;
+            if (action == null || sampled) {
+                LockSupport.park(this);
+                continue;
+            }
+            long remaining = start + budgetNanos - System.nanoTime();
+            if (remaining > 0) {
+                LockSupport.parkNanos(this, remaining);
+                continue;
+            }
+            Thread thread = fxThread;
+            String running = currentAction;
+            if (thread != null && running != null && handlerStart == start) {
+                sampled = true;
+                StackTraceElement[] stack = thread.getStackTrace();
+                System.err.printf("[stall] %s is blocking the FX thread, stack sample:%n", running);
+                Arrays.stream(stack).limit(30).forEach(frame -> System.err.println("\tat " + frame));
+            }
+        }
+    }
+}
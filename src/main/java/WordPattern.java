@@ -0,0 +1,247 @@
+/**
+ * A compiled word pattern for crossword-style searches.
+ * <pre>
+ * ?        any one character
+ * *        any number of characters, including none
+ * [abc]    one of the listed characters; ranges such as [a-e] are allowed
+ * [^abc]   any one character except the listed ones
+ * </pre>
+ * Any other character matches itself, ignoring case. The pattern runs as a nondeterministic automaton
+ * whose set of active positions is a bitmask, so a search can advance it one character at a time
+ * along a trie path and abandon the path as soon as the set becomes empty.
+ */
+public class WordPattern {
+
+    private static final int MAX_TOKENS = 63;
+
+    private final int tokenCount;
+    private final long starMask;     // positions holding a *
+    private final long[] lowChars;   // per position, the characters 0-63 it matches
+    private final long[] highChars;  // per position, the characters 64-127 it matches
+    private final int[] minRemaining; // per position, the characters needed to reach the end
+    private final boolean[] starRemaining; // per position, whether a * follows
+    private final String longestLiteral;
+
+    private WordPattern(int tokenCount, long starMask, long[] lowChars, long[] highChars, String longestLiteral) {
+        this.tokenCount = tokenCount;
+        this.starMask = starMask;
+        this.lowChars = lowChars;
+        this.highChars = highChars;
+        this.longestLiteral = longestLiteral;
+        minRemaining = new int[tokenCount + 1];
+        starRemaining = new boolean[tokenCount + 1];
+        for (int p = tokenCount - 1; p >= 0; p--) {
+            boolean star = (starMask & (1L << p)) != 0;
+            minRemaining[p] = minRemaining[p + 1] + (star ? 0 : 1);
+            starRemaining[p] = starRemaining[p + 1] || star;
+        }
+    }
+
+    /**
+     * Compiles a pattern.
+     *
+     * @param pattern the pattern
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if a bracket is not closed or the pattern is too long
+     */
+    public static WordPattern compile(String pattern) {
+        String lowerCasePattern = pattern.toLowerCase();
+        long[] lowChars = new long[MAX_TOKENS];
+        long[] highChars = new long[MAX_TOKENS];
+        long starMask = 0;
+        int tokens = 0;
+        StringBuilder literal = new StringBuilder();
+        String longestLiteral = "";
+        for (int i = 0; i < lowerCasePattern.length(); i++) {
+            if (tokens == MAX_TOKENS) {
+                throw new IllegalArgumentException("Patterns are limited to " + MAX_TOKENS + " characters");
+            }
+            char c = lowerCasePattern.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c >= 128) {
+                literal.setLength(0);
+            } else {
+                literal.append(c);
+                if (literal.length() > longestLiteral.length()) {
+                    longestLiteral = literal.toString();
+                }
+            }
+            if (c == '*') {
+                // Consecutive stars mean the same as one
+                if (tokens == 0 || (starMask & (1L << (tokens - 1))) == 0) {
+                    starMask |= 1L << tokens++;
+                }
+            } else if (c == '?') {
+                lowChars[tokens] = -1L;
+                highChars[tokens] = -1L;
+                tokens++;
+            } else if (c == '[') {
+                int close = lowerCasePattern.indexOf(']', i + 2);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed [ in pattern: " + pattern);
+                }
+                boolean negated = lowerCasePattern.charAt(i + 1) == '^';
+                int from = negated ? i + 2 : i + 1;
+                long low = 0;
+                long high = 0;
+                for (int j = from; j < close; j++) {
+                    char first = lowerCasePattern.charAt(j);
+                    char last = first;
+                    if (j + 2 < close && lowerCasePattern.charAt(j + 1) == '-') {
+                        last = lowerCasePattern.charAt(j + 2);
+                        j += 2;
+                    }
+                    for (char member = first; member <= last && member < 128; member++) {
+                        if (member < 64) {
+                            low |= 1L << member;
+                        } else {
+                            high |= 1L << (member - 64);
+                        }
+                    }
+                }
+                lowChars[tokens] = negated ? ~low : low;
+                highChars[tokens] = negated ? ~high : high;
+                tokens++;
+                i = close;
+            } else if (c < 128) {
+                if (c < 64) {
+                    lowChars[tokens] = 1L << c;
+                } else {
+                    highChars[tokens] = 1L << (c - 64);
+                }
+                tokens++;
+            } else {
+                // The dictionary has no such character, so nothing matches
+                tokens++;
+            }
+        }
+        return new WordPattern(tokens, starMask, lowChars, highChars, longestLiteral);
+    }
+
+    /**
+     * Checks whether the pattern starts with a star, so a trie walk cannot prune by prefix.
+     *
+     * @return true if the first position is a star
+     */
+    public boolean startsWithStar() {
+        return (starMask & 1L) != 0;
+    }
+
+    /**
+     * Gets the longest run of plain characters, which every matching word contains.
+     *
+     * @return the run in lower case, empty if the pattern has no plain characters
+     */
+    public String getLongestLiteral() {
+        return longestLiteral;
+    }
+
+    /**
+     * Checks whether a whole word matches the pattern.
+     *
+     * @param word the lower-case word
+     * @return true if the word matches
+     */
+    public boolean matches(String word) {
+        long states = start();
+        for (int i = 0; i < word.length() && states != 0; i++) {
+            states = step(states, word.charAt(i));
+        }
+        return accepts(states);
+    }
+
+    /**
+     * Gets the set of active positions before any character is read.
+     *
+     * @return the start state
+     */
+    public long start() {
+        return closure(1L);
+    }
+
+    /**
+     * Advances the automaton by one character.
+     *
+     * @param states the active positions
+     * @param c      the next character, in lower case
+     * @return the active positions after the character, 0 if no match is possible any more
+     */
+    public long step(long states, char c) {
+        long next = 0;
+        long remaining = states & ~(1L << tokenCount);
+        while (remaining != 0) {
+            int p = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if ((starMask & (1L << p)) != 0) {
+                next |= 1L << p;
+            } else if (matches(p, c)) {
+                next |= 1L << (p + 1);
+            }
+        }
+        return closure(next);
+    }
+
+    private boolean matches(int position, char c) {
+        if (c < 64) {
+            return (lowChars[position] & (1L << c)) != 0;
+        }
+        return c < 128 && (highChars[position] & (1L << (c - 64))) != 0;
+    }
+
+    /**
+     * Adds the positions after every active star, since a star may match nothing.
+     */
+    private long closure(long states) {
+        long stars = states & starMask;
+        while (stars != 0) {
+            int p = Long.numberOfTrailingZeros(stars);
+            stars &= stars - 1;
+            if ((states & (1L << (p + 1))) == 0) {
+                states |= 1L << (p + 1);
+                stars |= states & starMask & (1L << (p + 1));
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Checks whether the characters read so far match the whole pattern.
+     *
+     * @param states the active positions
+     * @return true if the end of the pattern is active
+     */
+    public boolean accepts(long states) {
+        return (states & (1L << tokenCount)) != 0;
+    }
+
+    /**
+     * Gets the fewest characters that can still complete a match.
+     *
+     * @param states the active positions, not 0
+     * @return the minimum number of characters to read
+     */
+    public int minRemaining(long states) {
+        int min = Integer.MAX_VALUE;
+        for (long bits = states; bits != 0; bits &= bits - 1) {
+            min = Math.min(min, minRemaining[Long.numberOfTrailingZeros(bits)]);
+        }
+        return min;
+    }
+
+    /**
+     * Gets the most characters that can still complete a match.
+     *
+     * @param states the active positions, not 0
+     * @return the maximum number of characters to read, or Integer.MAX_VALUE if a star is ahead
+     */
+    public int maxRemaining(long states) {
+        int max = 0;
+        for (long bits = states; bits != 0; bits &= bits - 1) {
+            int p = Long.numberOfTrailingZeros(bits);
+            if (starRemaining[p]) {
+                return Integer.MAX_VALUE;
+            }
+            max = Math.max(max, minRemaining[p]);
+        }
+        return max;
+    }
+}
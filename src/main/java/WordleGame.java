@@ -1,53 +1,46 @@
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
-import java.util.Collections;
-import java.util.Comparator;
 
 /**
  * EnglishWordleGame class manages the logic for the Wordle game.
  * It includes methods to load words from a file, check guesses,
- * and keep track of attempts.
+ * keep track of attempts, and suggest hints with WordleSolver.
  */
 public class WordleGame {
-    private List<String> wordList;
+    private static final int MAX_WORD_LENGTH = 6;
+    private final Random random = new Random();
+    private final WordleScorer scorer = new WordleScorer();
     private String targetWord;
     private int attempts;
     private final int maxAttempts = 6;
+    private final ArrayList<String> guesses = new ArrayList<>();
+    private final ArrayList<Integer> results = new ArrayList<>();
 
     /**
      * Constructor for EnglishWordleGame.
-     * Initializes the word list and attempts.
+     * Initializes the attempts.
      */
     public WordleGame() {
-        this.wordList = new ArrayList<>();
         this.attempts = 0;
     }
 
     /**
-     * Loads words from a specified file.
-     * Each line in the file should contain a single word.
-     *
+     * Picks a random target word of at most 6 letters from the dictionary, which must already be imported.
      */
-    public void loadWordsFromFile() {
-        DictionaryManagement.getInstance().importFromFile();
-        ArrayList<Word> words = DictionaryManagement.getInstance().getAllWords();
-        for (Word item : words) {
-            wordList.add(item.getWordTarget());
-        }
+    public synchronized void loadWordsFromFile() {
+        Word word = DictionaryManagement.getInstance().getRandomWord(random, 1, MAX_WORD_LENGTH);
+        setTargetWord(word.getWordTarget());
+    }
 
-        Collections.sort(wordList, new Comparator<String>() {
-            @Override
-            public int compare(String s1, String s2) {
-                return Integer.compare(s1.length(), s2.length());
-            }
-        });
-        int p = wordList.size() - 1;
-        while (p > 0 && wordList.get(p).length() > 6)
-            p--;
-        // Randomly select a target word
-        Random rand = new Random();
-        targetWord = wordList.get(rand.nextInt(p + 1));
+    /**
+     * Sets the target word and forgets the guesses made so far.
+     *
+     * @param targetWord the new target word, in lower case
+     */
+    public synchronized void setTargetWord(String targetWord) {
+        this.targetWord = targetWord;
+        guesses.clear();
+        results.clear();
     }
 
     /**
@@ -95,6 +88,49 @@ public class WordleGame {
         return attempts < maxAttempts;
     }
 
+    /**
+     * Scores a guess against the target word and counts it as an attempt.
+     *
+     * @param guess the guessed word, with the same length as the target word
+     * @return the packed result from WordleScorer
+     * @throws IllegalArgumentException if the guess does not have the length of the target word, in
+     *                                  which case it is not counted
+     */
+    public synchronized int scoreGuess(String guess) {
+        if (guess.length() != targetWord.length()) {
+            throw new IllegalArgumentException("The guess must have " + targetWord.length() + " letters");
+        }
+        String lowerCaseGuess = guess.toLowerCase();
+        int result = scorer.score(lowerCaseGuess, targetWord);
+        attempts++;
+        guesses.add(lowerCaseGuess);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * Suggests the next guess from the feedback so far, using the entropy-based solver.
+     * The first hint for a word length builds the shared word bank, so call this off the JavaFX thread.
+     *
+     * @return the suggested guess, or null if no dictionary word matches the feedback
+     */
+    public String getHint() {
+        int length;
+        ArrayList<String> pastGuesses;
+        ArrayList<Integer> pastResults;
+        synchronized (this) {
+            length = targetWord.length();
+            pastGuesses = new ArrayList<>(guesses);
+            pastResults = new ArrayList<>(results);
+        }
+
+        WordleSolver solver = new WordleSolver(WordleWordBank.forLength(length));
+        for (int i = 0; i < pastGuesses.size(); i++) {
+            solver.applyFeedback(pastGuesses.get(i), pastResults.get(i));
+        }
+        return solver.nextGuess();
+    }
+
     /**
      * Checks a guess against the target word.
      * Increases the number of attempts and returns feedback on the guess.
@@ -103,24 +139,28 @@ public class WordleGame {
      * @return feedback on the guess
      */
     public String checkGuess(String guess) {
-        attempts++;
         guess = guess.toLowerCase();
+        int result = scoreGuess(guess);
 
         if (guess.equals(targetWord)) {
             return "Correct! The word is " + targetWord;
         }
 
-        StringBuilder result = new StringBuilder();
+        StringBuilder feedback = new StringBuilder();
         for (int i = 0; i < guess.length(); i++) {
-            if (guess.charAt(i) == targetWord.charAt(i)) {
-                result.append(guess.charAt(i)).append(" ");
-            } else if (targetWord.contains(String.valueOf(guess.charAt(i)))) {
-                result.append("_ ");
-            } else {
-                result.append("* ");
+            switch (WordleScorer.feedbackAt(result, i)) {
+                case WordleScorer.CORRECT:
+                    feedback.append(guess.charAt(i)).append(" ");
+                    break;
+                case WordleScorer.PRESENT:
+                    feedback.append("_ ");
+                    break;
+                default:
+                    feedback.append("* ");
+                    break;
             }
         }
 
-        return result.toString().trim();
+        return feedback.toString().trim();
     }
 }
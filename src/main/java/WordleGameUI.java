@@ -12,13 +12,21 @@ import javafx.scene.text.Font;
  * the game state.
  */
 public class WordleGameUI extends WordleGame {
+    private static final Background CORRECT_BACKGROUND =
+            new Background(new BackgroundFill(Color.GREEN, CornerRadii.EMPTY, Insets.EMPTY));
+    private static final Background PRESENT_BACKGROUND =
+            new Background(new BackgroundFill(Color.YELLOW, CornerRadii.EMPTY, Insets.EMPTY));
+    private static final Background ABSENT_BACKGROUND =
+            new Background(new BackgroundFill(Color.RED, CornerRadii.EMPTY, Insets.EMPTY));
     private TextField guessField;
     private Button submitButton;
     private Button playAgainButton;
+    private Button hintButton;
     private Label attemptsLabel;
     private Label feedbackLabel;
     private VBox vbox;
     private VBox guessesBox;
+    private final UiStallMonitor stallMonitor = UiStallMonitor.getInstance();
 
     /**
      * Constructor for WordleGameUI.
@@ -47,32 +55,51 @@ public class WordleGameUI extends WordleGame {
         this.playAgainButton = new Button("Play Again");
         this.playAgainButton.setFont(new Font("Arial", 18));
         this.playAgainButton.setVisible(false);
+        this.hintButton = new Button("Hint");
+        this.hintButton.setFont(new Font("Arial", 18));
 
         // Set up the layout
-        vbox.getChildren().addAll(instructionsLabel, guessField, submitButton, guessesBox, feedbackLabel, attemptsLabel, playAgainButton);
+        HBox buttonBox = new HBox(10, submitButton, hintButton);
+        buttonBox.setAlignment(Pos.CENTER);
+        vbox.getChildren().addAll(instructionsLabel, guessField, buttonBox, guessesBox, feedbackLabel, attemptsLabel, playAgainButton);
 
         // Load words and start the game
         loadWordsFromFile();
         updateAttemptsLabel();
 
         // Set the submit button action
-        submitButton.setOnAction(e -> {
+        submitButton.setOnAction(stallMonitor.instrument("wordle: submit", e -> {
             if (hasAttemptsLeft()) {
                 String guess = guessField.getText();
                 if (guess.length() != getTargetWord().length()) {
                     feedbackLabel.setText("Please enter a word with " + getTargetWord().length() + " letters.");
                 } else {
-                    showFeedback(checkGuess(guess));
+                    int result = scoreGuess(guess);
+                    showFeedback(guess, result);
                     updateAttemptsLabel();
-                    if (guess.equals(getTargetWord()) || !hasAttemptsLeft()) {
+                    boolean solved = result == WordleScorer.solved(guess.length());
+                    if (solved || !hasAttemptsLeft()) {
+                        ReviewScheduler.getInstance().recordWordle(ReviewScheduler.LOCAL_USER, getTargetWord(),
+                                getAttempts(), solved);
                         endGame();
                     }
                 }
             }
-        });
+        }));
+
+        // Compute the hint in the background, the first one for a word length builds the word bank
+        hintButton.setOnAction(stallMonitor.instrument("wordle: hint", e -> {
+            feedbackLabel.setText("Thinking...");
+            BackgroundExecutor.getInstance().submit("wordle-hint", this::getHint,
+                    hint -> feedbackLabel.setText(hint != null ? "Hint: try \"" + hint + "\"" : "No hint available."),
+                    ex -> {
+                        feedbackLabel.setText("No hint available.");
+                        ex.printStackTrace();
+                    });
+        }));
 
         // Set the play again button action
-        playAgainButton.setOnAction(e -> resetGame());
+        playAgainButton.setOnAction(stallMonitor.instrument("wordle: play again", e -> resetGame()));
     }
 
     /**
@@ -85,31 +112,31 @@ public class WordleGameUI extends WordleGame {
     /**
      * Shows feedback for the given guess.
      *
-     * @param feedback the feedback for the guess
+     * @param guess  the guessed word
+     * @param result the packed result from WordleScorer
      */
-    private void showFeedback(String feedback) {
+    private void showFeedback(String guess, int result) {
         HBox guessBox = new HBox(5);
         guessBox.setAlignment(Pos.CENTER);
         guessBox.setSpacing(5);
-        String[] feedbackParts = feedback.split(" ");
 
-        for (String part : feedbackParts) {
-            Label charLabel = new Label(part);
+        for (int i = 0; i < guess.length(); i++) {
+            Label charLabel = new Label(String.valueOf(guess.charAt(i)));
             charLabel.setFont(new Font("Arial", 24));
             charLabel.setMinSize(40, 40);
             charLabel.setAlignment(Pos.CENTER);
             charLabel.setStyle("-fx-border-color: black; -fx-border-width: 2px;");
             charLabel.setPadding(new Insets(5));
 
-            switch (part) {
-                case "_":
-                    charLabel.setBackground(new Background(new BackgroundFill(Color.YELLOW, CornerRadii.EMPTY, Insets.EMPTY)));
+            switch (WordleScorer.feedbackAt(result, i)) {
+                case WordleScorer.PRESENT:
+                    charLabel.setBackground(PRESENT_BACKGROUND);
                     break;
-                case "*":
-                    charLabel.setBackground(new Background(new BackgroundFill(Color.RED, CornerRadii.EMPTY, Insets.EMPTY)));
+                case WordleScorer.ABSENT:
+                    charLabel.setBackground(ABSENT_BACKGROUND);
                     break;
                 default:
-                    charLabel.setBackground(new Background(new BackgroundFill(Color.GREEN, CornerRadii.EMPTY, Insets.EMPTY)));
+                    charLabel.setBackground(CORRECT_BACKGROUND);
                     break;
             }
 
@@ -126,6 +153,7 @@ public class WordleGameUI extends WordleGame {
     private void endGame() {
         feedbackLabel.setText("The correct word was: " + getTargetWord());
         submitButton.setDisable(true);
+        hintButton.setDisable(true);
         playAgainButton.setVisible(true);
     }
 
@@ -133,11 +161,13 @@ public class WordleGameUI extends WordleGame {
      * Resets the game to start a new round.
      */
     private void resetGame() {
+        BackgroundExecutor.getInstance().cancel("wordle-hint");
         clearGame();
         loadWordsFromFile();
         updateAttemptsLabel();
         feedbackLabel.setText("");
         submitButton.setDisable(false);
+        hintButton.setDisable(false);
         playAgainButton.setVisible(false);
     }
 
@@ -0,0 +1,83 @@
+/**
+ * Scores Wordle guesses into a packed int with two bits per position.
+ * Repeated letters are handled like the original game: exact matches are marked first, and a letter is
+ * only marked present as many times as it occurs in the answer.
+ * Scoring reuses one count array and never allocates, so a scorer must not be shared between threads.
+ */
+public class WordleScorer {
+
+    /** The letter is not in the answer, or all of its occurrences are already accounted for. */
+    public static final int ABSENT = 0;
+    /** The letter is in the answer at another position. */
+    public static final int PRESENT = 1;
+    /** The letter is in the answer at this position. */
+    public static final int CORRECT = 2;
+    /** The longest word that fits in a packed result. */
+    public static final int MAX_LENGTH = 16;
+
+    private final int[] letterCounts = new int[128];
+
+    /**
+     * Scores a guess against an answer of the same length.
+     *
+     * @param guess  the lower-case guess
+     * @param answer the lower-case answer
+     * @return the packed result, with the feedback for position i in bits 2i and 2i+1
+     * @throws IllegalArgumentException if the lengths differ or exceed MAX_LENGTH
+     */
+    public int score(CharSequence guess, CharSequence answer) {
+        int length = answer.length();
+        if (guess.length() != length || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Guess and answer must have the same length of at most " + MAX_LENGTH);
+        }
+
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            char a = answer.charAt(i);
+            if (guess.charAt(i) == a) {
+                result |= CORRECT << (2 * i);
+            } else if (a < 128) {
+                letterCounts[a]++;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            char g = guess.charAt(i);
+            if (((result >>> (2 * i)) & 3) != CORRECT && g < 128 && letterCounts[g] > 0) {
+                letterCounts[g]--;
+                result |= PRESENT << (2 * i);
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            char a = answer.charAt(i);
+            if (a < 128) {
+                letterCounts[a] = 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the feedback for one position of a packed result.
+     *
+     * @param result   the packed result
+     * @param position the position in the word
+     * @return ABSENT, PRESENT or CORRECT
+     */
+    public static int feedbackAt(int result, int position) {
+        return (result >>> (2 * position)) & 3;
+    }
+
+    /**
+     * Gets the packed result of a guess that matches the answer exactly.
+     *
+     * @param length the word length
+     * @return the packed result with every position CORRECT
+     */
+    public static int solved(int length) {
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            result |= CORRECT << (2 * i);
+        }
+        return result;
+    }
+}
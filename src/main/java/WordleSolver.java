@@ -0,0 +1,276 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Wordle solver for one game.
+ * Remaining candidates are a bitset over a shared WordleWordBank. Feedback is first applied with
+ * bit-parallel masks for each position and letter, then checked exactly with WordleScorer so repeated
+ * letters are filtered correctly. The next guess maximizes the expected information gain over the
+ * candidates, evaluated in parallel on the fork-join pool.
+ */
+public class WordleSolver {
+
+    private static final int GUESSES_PER_TASK = 64;
+    private static final int MAX_PATTERN_LENGTH = 10;
+
+    private final WordleWordBank bank;
+    private final long[] candidates;
+    private final StringBuilder history = new StringBuilder();
+    private final WordleScorer scorer = new WordleScorer();
+
+    /**
+     * Constructs a solver with every word of the bank as a candidate.
+     *
+     * @param bank the words of the game's length
+     */
+    public WordleSolver(WordleWordBank bank) {
+        if (bank.getLength() > MAX_PATTERN_LENGTH) {
+            throw new IllegalArgumentException("Words longer than " + MAX_PATTERN_LENGTH + " letters are not supported");
+        }
+        this.bank = bank;
+        this.candidates = bank.allWords();
+    }
+
+    /**
+     * Gets the number of words still consistent with the feedback.
+     *
+     * @return the number of candidates
+     */
+    public int getCandidateCount() {
+        int count = 0;
+        for (long block : candidates) {
+            count += Long.bitCount(block);
+        }
+        return count;
+    }
+
+    /**
+     * Gets some of the words still consistent with the feedback.
+     *
+     * @param limit the maximum number of words to return
+     * @return at most limit candidates in bank order
+     */
+    public ArrayList<String> getCandidates(int limit) {
+        ArrayList<String> words = new ArrayList<>();
+        for (int i = nextCandidate(0); i >= 0 && words.size() < limit; i = nextCandidate(i + 1)) {
+            words.add(bank.word(i));
+        }
+        return words;
+    }
+
+    /**
+     * Removes the candidates that are inconsistent with the feedback for a guess.
+     *
+     * @param guess  the lower-case guess, with the bank's word length
+     * @param result the packed result from WordleScorer
+     */
+    public void applyFeedback(String guess, int result) {
+        history.append(guess).append(':').append(result).append(';');
+        if (guess.length() != bank.getLength()) {
+            return;
+        }
+
+        // Cheap bit-parallel pruning for letters the bank has masks for
+        for (int p = 0; p < guess.length(); p++) {
+            char letter = guess.charAt(p);
+            if (letter < 'a' || letter > 'z') {
+                continue;
+            }
+            int feedback = WordleScorer.feedbackAt(result, p);
+            if (feedback == WordleScorer.CORRECT) {
+                and(bank.positionMask(p, letter));
+            } else {
+                andNot(bank.positionMask(p, letter));
+                if (feedback == WordleScorer.PRESENT) {
+                    and(bank.letterMask(letter));
+                } else if (!isMarkedElsewhere(guess, result, letter)) {
+                    andNot(bank.letterMask(letter));
+                }
+            }
+        }
+
+        // Exact check of the survivors, which also handles repeated letters
+        for (int i = nextCandidate(0); i >= 0; i = nextCandidate(i + 1)) {
+            if (scorer.score(guess, bank.word(i)) != result) {
+                candidates[i >>> 6] &= ~(1L << i);
+            }
+        }
+    }
+
+    /**
+     * Picks the guess with the highest expected information gain.
+     * Decisions are cached in the bank, so games with the same history share the work. The search
+     * runs outside the cache, so two games that miss on the same history at once both search.
+     *
+     * @return the best next guess, or null if no candidate is left
+     */
+    public String nextGuess() {
+        int[] remaining = candidateIndexes();
+        if (remaining.length == 0) {
+            return null;
+        }
+        if (remaining.length <= 2) {
+            return bank.word(remaining[0]);
+        }
+        String key = history.toString();
+        String cached = bank.decision(key);
+        if (cached != null) {
+            return cached;
+        }
+        BestGuess best = ForkJoinPool.commonPool().invoke(new BestGuessTask(remaining, 0, bank.size()));
+        String guess = bank.word(best.index);
+        bank.rememberDecision(key, guess);
+        return guess;
+    }
+
+    /**
+     * Checks whether a letter is marked correct or present at any position of a guess.
+     *
+     * @param guess  the guess
+     * @param result the packed result
+     * @param letter the letter
+     * @return true if some occurrence of the letter is in the answer
+     */
+    private static boolean isMarkedElsewhere(String guess, int result, char letter) {
+        for (int p = 0; p < guess.length(); p++) {
+            if (guess.charAt(p) == letter && WordleScorer.feedbackAt(result, p) != WordleScorer.ABSENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void and(long[] mask) {
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= mask[i];
+        }
+    }
+
+    private void andNot(long[] mask) {
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= ~mask[i];
+        }
+    }
+
+    /**
+     * Finds the next candidate at or after an index.
+     *
+     * @param from the index to start at
+     * @return the index of the next candidate, or -1 if there is none
+     */
+    private int nextCandidate(int from) {
+        int block = from >>> 6;
+        if (block >= candidates.length) {
+            return -1;
+        }
+        long bits = candidates[block] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (block << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++block == candidates.length) {
+                return -1;
+            }
+            bits = candidates[block];
+        }
+    }
+
+    private int[] candidateIndexes() {
+        int[] indexes = new int[getCandidateCount()];
+        int n = 0;
+        for (int i = nextCandidate(0); i >= 0; i = nextCandidate(i + 1)) {
+            indexes[n++] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * The best guess found in a range of the bank.
+     */
+    private static class BestGuess {
+        final int index;
+        final double score;
+
+        BestGuess(int index, double score) {
+            this.index = index;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Fork-join task that scores a range of guesses against the remaining candidates.
+     */
+    private class BestGuessTask extends RecursiveTask<BestGuess> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] remaining;
+        private final int from;
+        private final int to;
+
+        BestGuessTask(int[] remaining, int from, int to) {
+            this.remaining = remaining;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BestGuess compute() {
+            if (to - from > GUESSES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                BestGuessTask left = new BestGuessTask(remaining, from, middle);
+                left.fork();
+                BestGuess right = new BestGuessTask(remaining, middle, to).compute();
+                BestGuess leftBest = left.join();
+                return right.score > leftBest.score ? right : leftBest;
+            }
+
+            WordleScorer taskScorer = new WordleScorer();
+            int[] patternCounts = new int[pow3(bank.getLength())];
+            int[] touched = new int[remaining.length];
+            BestGuess best = new BestGuess(-1, Double.NEGATIVE_INFINITY);
+            for (int g = from; g < to; g++) {
+                String guess = bank.word(g);
+                int distinct = 0;
+                for (int candidate : remaining) {
+                    int pattern = toBase3(taskScorer.score(guess, bank.word(candidate)), bank.getLength());
+                    if (patternCounts[pattern]++ == 0) {
+                        touched[distinct++] = pattern;
+                    }
+                }
+
+                // Expected information in bits: log2(n) - sum(k log2 k) / n over the pattern sizes k
+                double sum = 0;
+                for (int i = 0; i < distinct; i++) {
+                    int k = patternCounts[touched[i]];
+                    sum += k * Math.log(k);
+                    patternCounts[touched[i]] = 0;
+                }
+                double gain = (Math.log(remaining.length) - sum / remaining.length) / Math.log(2);
+                // Prefer a guess that could itself be the answer when the gain is equal
+                boolean isCandidate = (candidates[g >>> 6] & (1L << g)) != 0;
+                double score = gain + (isCandidate ? 1e-9 : 0);
+                if (score > best.score) {
+                    best = new BestGuess(g, score);
+                }
+            }
+            return best;
+        }
+    }
+
+    private static int pow3(int n) {
+        int result = 1;
+        for (int i = 0; i < n; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+
+    private static int toBase3(int result, int length) {
+        int pattern = 0;
+        for (int i = 0; i < length; i++) {
+            pattern = pattern * 3 + WordleScorer.feedbackAt(result, i);
+        }
+        return pattern;
+    }
+}
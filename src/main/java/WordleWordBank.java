@@ -0,0 +1,196 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable list of Wordle words of one length, with bitset masks used to filter candidates.
+ * Word i is bit i of a bitset. A bank is shared by every game of its length, together with a cache
+ * of solver decisions keyed by the guesses and feedback so far.
+ */
+public class WordleWordBank {
+
+    private static final Map<Integer, WordleWordBank> banks = new ConcurrentHashMap<>();
+    // Decisions remembered per bank; a game history is a few guesses, so this holds many openings
+    private static final int DECISION_CACHE_SIZE = 4096;
+
+    /**
+     * A remembered solver decision. Entries are immutable, so threads can share the cache without locking.
+     */
+    private static final class Decision {
+        final String history;
+        final String guess;
+
+        Decision(String history, String guess) {
+            this.history = history;
+            this.guess = guess;
+        }
+    }
+
+    private final int length;
+    private final long version; // the dictionary's headword version the words were taken from
+    private final String[] words;
+    // positionMasks[p][c]: words with letter c at position p, letterMasks[c]: words containing letter c
+    private final long[][][] positionMasks;
+    private final long[][] letterMasks;
+    private final Decision[] decisions = new Decision[DECISION_CACHE_SIZE];
+
+    /**
+     * Constructs a WordleWordBank.
+     *
+     * @param length the word length
+     * @param words  the words, which must all have the given length and only contain letters a to z
+     */
+    public WordleWordBank(int length, String[] words) {
+        this(length, words, -1);
+    }
+
+    private WordleWordBank(int length, String[] words, long version) {
+        if (length < 1 || length > WordleScorer.MAX_LENGTH) {
+            throw new IllegalArgumentException("Unsupported word length: " + length);
+        }
+        this.length = length;
+        this.version = version;
+        this.words = words.clone();
+        int blocks = blockCount(words.length);
+        positionMasks = new long[length][26][blocks];
+        letterMasks = new long[26][blocks];
+        for (int i = 0; i < words.length; i++) {
+            for (int p = 0; p < length; p++) {
+                int c = words[i].charAt(p) - 'a';
+                positionMasks[p][c][i >>> 6] |= 1L << i;
+                letterMasks[c][i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Gets the shared bank for a word length, building it from the dictionary on first use and
+     * rebuilding it once words have been added or removed since. Games already running keep the bank
+     * they started with. Only headwords made of the letters a to z are included.
+     *
+     * @param length the word length
+     * @return the bank for that length
+     */
+    public static WordleWordBank forLength(int length) {
+        DictionaryManagement dictionary = DictionaryManagement.getInstance();
+        // Read before the words, so words added meanwhile at worst cause another rebuild
+        long version = dictionary.getHeadwordVersion();
+        WordleWordBank bank = banks.get(length);
+        if (bank != null && bank.version == version) {
+            return bank;
+        }
+        return banks.compute(length, (key, current) -> {
+            if (current != null && current.version == version) {
+                return current;
+            }
+            ArrayList<String> words = new ArrayList<>();
+            for (Word word : dictionary.getWordsOfLength(length)) {
+                if (word.getWordTarget().chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                    words.add(word.getWordTarget());
+                }
+            }
+            return new WordleWordBank(length, words.toArray(new String[0]), version);
+        });
+    }
+
+    /**
+     * Gets the number of longs needed for a bitset over n words.
+     *
+     * @param n the number of words
+     * @return the number of 64-bit blocks
+     */
+    static int blockCount(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    /**
+     * Creates a bitset with every word of the bank set.
+     *
+     * @return a new bitset
+     */
+    public long[] allWords() {
+        long[] bits = new long[blockCount(words.length)];
+        Arrays.fill(bits, -1L);
+        if ((words.length & 63) != 0 && bits.length > 0) {
+            bits[bits.length - 1] = (1L << words.length) - 1;
+        }
+        return bits;
+    }
+
+    /**
+     * Gets the word length of the bank.
+     *
+     * @return the word length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the number of words in the bank.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Gets a word by index.
+     *
+     * @param index the index of the word
+     * @return the word
+     */
+    public String word(int index) {
+        return words[index];
+    }
+
+    /**
+     * Gets the bitset of words with a letter at a position.
+     *
+     * @param position the position in the word
+     * @param letter   the letter, from a to z
+     * @return the shared bitset, which must not be modified
+     */
+    long[] positionMask(int position, char letter) {
+        return positionMasks[position][letter - 'a'];
+    }
+
+    /**
+     * Gets the bitset of words that contain a letter.
+     *
+     * @param letter the letter, from a to z
+     * @return the shared bitset, which must not be modified
+     */
+    long[] letterMask(char letter) {
+        return letterMasks[letter - 'a'];
+    }
+
+    /**
+     * Gets a remembered solver decision. The cache is direct-mapped: a history has one slot, and a
+     * newer decision for another history in that slot evicts it.
+     *
+     * @param history the guesses and feedback so far
+     * @return the guess decided for that history, or null if it is not remembered
+     */
+    String decision(String history) {
+        Decision decision = decisions[slot(history)];
+        return decision != null && decision.history.equals(history) ? decision.guess : null;
+    }
+
+    /**
+     * Remembers a solver decision, so games with the same history share the work.
+     *
+     * @param history the guesses and feedback so far
+     * @param guess   the guess decided for that history
+     */
+    void rememberDecision(String history, String guess) {
+        decisions[slot(history)] = new Decision(history, guess);
+    }
+
+    private static int slot(String history) {
+        int hash = history.hashCode();
+        return (hash ^ (hash >>> 16)) & (DECISION_CACHE_SIZE - 1);
+    }
+}